@@ -61,6 +61,7 @@ import org.knime.base.node.audio3.data.io.BufferedDataOutputStream;
 import org.knime.base.node.audio3.data.recognizer.RecognitionResult;
 import org.knime.core.data.DataCellDataInput;
 import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.node.NodeLogger;
 import org.knime.core.util.UniqueNameGenerator;
 
 /**
@@ -69,7 +70,18 @@ import org.knime.core.util.UniqueNameGenerator;
  */
 public class Audio {
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(Audio.class);
+
+    /*
+     * Version of the serialized format. Older versions started directly with the
+     * absolute path of the file, which is never empty, so newer versions start with
+     * an empty string (respectively a negative length in the internals) followed by
+     * the version.
+     */
+    private static final int VERSION = 1;
+
     private File m_file;
+    private AudioHeader m_header;
     private Map<String, RecognitionResult> m_recognitionResults;
 
     /**
@@ -89,11 +101,15 @@ public class Audio {
             throw new IllegalArgumentException("File " + file.getName() + " doesn't exist.");
         }
         m_file = file;
+        /* Like before the header was stored, files of unknown formats are accepted */
+        m_header = readHeader(file);
         m_recognitionResults = new LinkedHashMap<String, RecognitionResult>();
     }
 
-    Audio(final File file, final Map<String, RecognitionResult> recognitionResults) {
+    Audio(final File file, final AudioHeader header,
+            final Map<String, RecognitionResult> recognitionResults) {
         m_file = file;
+        m_header = header;
         m_recognitionResults = new LinkedHashMap<String, RecognitionResult>();
         for (Entry<String, RecognitionResult> entry : recognitionResults.entrySet()) {
             m_recognitionResults.put(entry.getKey(), entry.getValue());
@@ -114,6 +130,14 @@ public class Audio {
         return m_file.getName();
     }
 
+    /**
+     * @return the header of the audio file, or <code>null</code> if the header
+     * couldn't be read, e.g. because the format of the file isn't supported
+     */
+    public AudioHeader getHeader(){
+        return m_header;
+    }
+
     /**
      * @return the recognizers
      */
@@ -159,7 +183,15 @@ public class Audio {
      */
     static void serialize( final Audio audio, final DataCellDataOutput output)
             throws IOException{
+        output.writeUTF("");
+        output.writeInt(VERSION);
         output.writeUTF(audio.getFile().getAbsolutePath());
+        if(audio.getHeader() != null){
+            output.writeBoolean(true);
+            AudioHeader.serialize(output, audio.getHeader());
+        }else{
+            output.writeBoolean(false);
+        }
         if(audio.hasRecognitionResult()){
             output.writeBoolean(true);
             output.writeInt(audio.getRecognitionResults().size());
@@ -181,7 +213,16 @@ public class Audio {
      */
     static Audio deserialize(final DataCellDataInput input) throws
             IOException, UnsupportedAudioFileException {
-        final Audio audio = new Audio(new File(input.readUTF()));
+        final String path = input.readUTF();
+        final Audio audio;
+        if(path.isEmpty()){
+            input.readInt(); // version
+            final File file = new File(input.readUTF());
+            final AudioHeader header = input.readBoolean() ? AudioHeader.deserialize(input) : null;
+            audio = new Audio(file, header, new LinkedHashMap<String, RecognitionResult>());
+        }else{
+            audio = createLegacyAudio(new File(path));
+        }
         if(input.readBoolean()){
             final int size = input.readInt();
             for(int i = 0; i < size; i++){
@@ -198,8 +239,15 @@ public class Audio {
             final BufferedDataOutputStream output) throws IOException {
 
         final String path = audio.getFile().getAbsolutePath();
+        output.writeInt(-VERSION);
         output.writeInt(path.length());
         output.writeChars(path);
+        if (audio.getHeader() != null) {
+            output.writeBoolean(true);
+            AudioHeader.saveInternals(output, audio.getHeader());
+        } else {
+            output.writeBoolean(false);
+        }
         if (audio.hasRecognitionResult()) {
             output.writeBoolean(true);
             output.writeInt(audio.getRecognitionResults().size());
@@ -215,9 +263,21 @@ public class Audio {
 
     static Audio loadInternals(final BufferedDataInputStream input)
             throws IOException, UnsupportedAudioFileException{
-        final char[] path = new char[input.readInt()];
+        int length = input.readInt();
+        final boolean legacy = length >= 0;
+        if(!legacy){
+            length = input.readInt();
+        }
+        final char[] path = new char[length];
         input.read(path);
-        final Audio audio = new Audio(new File(new String(path)));
+        final Audio audio;
+        if(legacy){
+            audio = createLegacyAudio(new File(new String(path)));
+        }else{
+            final AudioHeader header = input.readBoolean() ? AudioHeader.loadInternals(input) : null;
+            audio = new Audio(new File(new String(path)), header,
+                new LinkedHashMap<String, RecognitionResult>());
+        }
         if(input.readBoolean()){
             final int size = input.readInt();
             for(int i = 0; i < size; i++){
@@ -230,6 +290,24 @@ public class Audio {
         return audio;
     }
 
+    /*
+     * Audio stored by an older version doesn't contain the header, so it is read
+     * from the file. Failing to do so must not prevent the table from being loaded.
+     */
+    private static Audio createLegacyAudio(final File file){
+        return new Audio(file, readHeader(file), new LinkedHashMap<String, RecognitionResult>());
+    }
+
+    /* Returns null if the header cannot be read, the users of the header fall back to the file */
+    private static AudioHeader readHeader(final File file){
+        try{
+            return AudioHeader.read(file);
+        } catch(UnsupportedAudioFileException | IOException ex){
+            LOGGER.debug("Cannot read the header of " + file.getAbsolutePath() + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
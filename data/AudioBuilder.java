@@ -94,7 +94,7 @@ public class AudioBuilder {
     * @return a new audio instance
     */
    public static Audio createAudio(final Audio audio){
-       return new Audio(audio.getFile(), audio.getRecognitionResults());
+       return new Audio(audio.getFile(), audio.getHeader(), audio.getRecognitionResults());
    }
 
     /**
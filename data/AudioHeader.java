@@ -0,0 +1,320 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import java.io.File;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.knime.base.node.audio3.data.io.BufferedDataInputStream;
+import org.knime.base.node.audio3.data.io.BufferedDataOutputStream;
+import org.knime.base.node.audio3.util.AudioHeaderParser;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+
+/**
+ * Immutable header information of an audio file, i.e. its type, sample format
+ * and length. The header is read once when the {@link Audio} is created and is
+ * stored together with it, so that the file doesn't have to be opened again to
+ * get this information.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class AudioHeader {
+
+    private static final AudioFileFormat.Type[] KNOWN_TYPES = new AudioFileFormat.Type[]{
+        AudioFileFormat.Type.WAVE, AudioFileFormat.Type.AIFF, AudioFileFormat.Type.AIFC,
+        AudioFileFormat.Type.AU, AudioFileFormat.Type.SND};
+
+    private static final AudioFormat.Encoding[] KNOWN_ENCODINGS = new AudioFormat.Encoding[]{
+        AudioFormat.Encoding.PCM_SIGNED, AudioFormat.Encoding.PCM_UNSIGNED,
+        AudioFormat.Encoding.PCM_FLOAT, AudioFormat.Encoding.ULAW, AudioFormat.Encoding.ALAW};
+
+    private final String m_type;
+    private final String m_extension;
+    private final String m_encoding;
+    private final float m_sampleRate;
+    private final int m_sampleSizeInBits;
+    private final int m_channels;
+    private final int m_frameSize;
+    private final float m_frameRate;
+    private final boolean m_bigEndian;
+    private final long m_frameLength;
+    private final long m_byteLength;
+
+    /**
+     * @param fileFormat the format of the audio file
+     * @param byteLength the length of the audio file in bytes
+     */
+    public AudioHeader(final AudioFileFormat fileFormat, final long byteLength){
+        this(fileFormat.getType().toString(), fileFormat.getType().getExtension(),
+            fileFormat.getFormat(), fileFormat.getFrameLength(), byteLength);
+    }
+
+    private AudioHeader(final String type, final String extension, final AudioFormat format,
+            final long frameLength, final long byteLength){
+        this(type, extension, format.getEncoding().toString(), format.getSampleRate(),
+            format.getSampleSizeInBits(), format.getChannels(), format.getFrameSize(),
+            format.getFrameRate(), format.isBigEndian(), frameLength, byteLength);
+    }
+
+    private AudioHeader(final String type, final String extension, final String encoding,
+            final float sampleRate, final int sampleSizeInBits, final int channels,
+            final int frameSize, final float frameRate, final boolean bigEndian,
+            final long frameLength, final long byteLength){
+        m_type = type;
+        m_extension = extension;
+        m_encoding = encoding;
+        m_sampleRate = sampleRate;
+        m_sampleSizeInBits = sampleSizeInBits;
+        m_channels = channels;
+        m_frameSize = frameSize;
+        m_frameRate = frameRate;
+        m_bigEndian = bigEndian;
+        m_frameLength = frameLength;
+        m_byteLength = byteLength;
+    }
+
+    /**
+     * Reads the header of the given audio file.
+     *
+     * @param file the audio file
+     * @return the header of the file
+     * @throws UnsupportedAudioFileException if the file format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    public static AudioHeader read(final File file) throws UnsupportedAudioFileException, IOException{
+        return new AudioHeader(AudioHeaderParser.getAudioFileFormat(file), file.length());
+    }
+
+    /**
+     * @return the name of the file type, e.g. WAVE
+     */
+    public String getType(){
+        return m_type;
+    }
+
+    /**
+     * @return the name of the sample encoding, e.g. PCM_SIGNED
+     */
+    public String getEncoding(){
+        return m_encoding;
+    }
+
+    /**
+     * @return the number of samples per second
+     */
+    public float getSampleRate(){
+        return m_sampleRate;
+    }
+
+    /**
+     * @return the number of bits per sample
+     */
+    public int getSampleSizeInBits(){
+        return m_sampleSizeInBits;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumberOfChannels(){
+        return m_channels;
+    }
+
+    /**
+     * @return the length of the audio in frames, or {@link AudioSystem#NOT_SPECIFIED}
+     * if it is unknown
+     */
+    public long getFrameLength(){
+        return m_frameLength;
+    }
+
+    /**
+     * @return the length of the audio file in bytes
+     */
+    public long getByteLength(){
+        return m_byteLength;
+    }
+
+    /**
+     * @return the duration of the audio in seconds, or {@link AudioSystem#NOT_SPECIFIED}
+     * if it is unknown
+     */
+    public double getDurationInSeconds(){
+        if(m_frameLength < 0 || m_sampleRate <= 0){
+            return AudioSystem.NOT_SPECIFIED;
+        }
+        return m_frameLength / (double)m_sampleRate;
+    }
+
+    /**
+     * @return the format of the samples
+     */
+    public AudioFormat getAudioFormat(){
+        AudioFormat.Encoding encoding = null;
+        for(final AudioFormat.Encoding known : KNOWN_ENCODINGS){
+            if(known.toString().equals(m_encoding)){
+                encoding = known;
+            }
+        }
+        if(encoding == null){
+            encoding = new AudioFormat.Encoding(m_encoding);
+        }
+        return new AudioFormat(encoding, m_sampleRate, m_sampleSizeInBits, m_channels,
+            m_frameSize, m_frameRate, m_bigEndian);
+    }
+
+    /**
+     * @return the format of the audio file
+     */
+    public AudioFileFormat getAudioFileFormat(){
+        AudioFileFormat.Type type = null;
+        for(final AudioFileFormat.Type known : KNOWN_TYPES){
+            if(known.toString().equals(m_type)){
+                type = known;
+            }
+        }
+        if(type == null){
+            type = new AudioFileFormat.Type(m_type, m_extension);
+        }
+        final int frameLength = m_frameLength > Integer.MAX_VALUE ? AudioSystem.NOT_SPECIFIED
+            : (int)m_frameLength;
+        final int byteLength = m_byteLength > Integer.MAX_VALUE ? AudioSystem.NOT_SPECIFIED
+            : (int)m_byteLength;
+        return new AudioFileFormat(type, byteLength, getAudioFormat(), frameLength){};
+    }
+
+    /**
+     * @param output
+     * @param header
+     * @throws IOException
+     */
+    static void serialize(final DataCellDataOutput output, final AudioHeader header)
+            throws IOException{
+        output.writeUTF(header.m_type);
+        output.writeUTF(header.m_extension);
+        output.writeUTF(header.m_encoding);
+        output.writeFloat(header.m_sampleRate);
+        output.writeInt(header.m_sampleSizeInBits);
+        output.writeInt(header.m_channels);
+        output.writeInt(header.m_frameSize);
+        output.writeFloat(header.m_frameRate);
+        output.writeBoolean(header.m_bigEndian);
+        output.writeLong(header.m_frameLength);
+        output.writeLong(header.m_byteLength);
+    }
+
+    /**
+     * @param input
+     * @return an <code>AudioHeader</code> instance
+     * @throws IOException
+     */
+    static AudioHeader deserialize(final DataCellDataInput input) throws IOException{
+        return new AudioHeader(input.readUTF(), input.readUTF(), input.readUTF(),
+            input.readFloat(), input.readInt(), input.readInt(), input.readInt(),
+            input.readFloat(), input.readBoolean(), input.readLong(), input.readLong());
+    }
+
+    /**
+     * @param output
+     * @param header
+     * @throws IOException
+     */
+    static void saveInternals(final BufferedDataOutputStream output, final AudioHeader header)
+            throws IOException{
+        writeString(output, header.m_type);
+        writeString(output, header.m_extension);
+        writeString(output, header.m_encoding);
+        output.writeFloat(header.m_sampleRate);
+        output.writeInt(header.m_sampleSizeInBits);
+        output.writeInt(header.m_channels);
+        output.writeInt(header.m_frameSize);
+        output.writeFloat(header.m_frameRate);
+        output.writeBoolean(header.m_bigEndian);
+        output.writeLong(header.m_frameLength);
+        output.writeLong(header.m_byteLength);
+    }
+
+    /**
+     * @param input
+     * @return an <code>AudioHeader</code> instance
+     * @throws IOException
+     */
+    static AudioHeader loadInternals(final BufferedDataInputStream input) throws IOException{
+        return new AudioHeader(readString(input), readString(input), readString(input),
+            input.readFloat(), input.readInt(), input.readInt(), input.readInt(),
+            input.readFloat(), input.readBoolean(), input.readLong(), input.readLong());
+    }
+
+    private static void writeString(final BufferedDataOutputStream output, final String value)
+            throws IOException{
+        output.writeInt(value.length());
+        output.writeChars(value);
+    }
+
+    private static String readString(final BufferedDataInputStream input) throws IOException{
+        final char[] value = new char[input.readInt()];
+        input.read(value);
+        return new String(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString(){
+        return m_type + ", " + getAudioFormat() + ", " + m_frameLength + " frames";
+    }
+
+}
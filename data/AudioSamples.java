@@ -48,18 +48,29 @@
  */
 package org.knime.base.node.audio3.data;
 
+import java.util.Arrays;
+
 import javax.sound.sampled.AudioFormat;
 
-import jAudioFeatureExtractor.jAudioTools.DSPMethods;
+import org.knime.base.node.audio3.data.io.MappedAudioFile;
+import org.knime.base.node.audio3.util.Resampler;
 
 /**
+ * Samples of an audio together with their format. The samples are held by a
+ * {@link SampleStore}, which may keep them in a compact representation, e.g. as
+ * raw 16 bit PCM values or directly in a memory-mapped file. Use the window
+ * accessors to convert only the samples that are actually needed.
  *
  * @author Budi Yanto, KNIME.com
  */
 public class AudioSamples {
 
     private final AudioFormat m_audioFormat;
-    private final double[][] m_samples;
+    private final SampleStore m_store;
+
+    /* Lazily converted double representation, only created for the legacy accessors */
+    private double[][] m_samples;
+    private double[] m_mixedDownSamples;
 
     /**
      *
@@ -76,8 +87,26 @@ public class AudioSamples {
      * @param audioFormat
      */
     public AudioSamples(final double[][] samples, final AudioFormat audioFormat){
+        this(SampleStore.ofDoubles(samples), audioFormat);
+    }
+
+    /**
+     * Creates a view on the samples of a memory-mapped audio file. The samples
+     * are decoded from the mapped data when they are requested.
+     *
+     * @param mappedFile the memory-mapped audio file
+     */
+    public AudioSamples(final MappedAudioFile mappedFile){
+        this(SampleStore.ofMappedFile(mappedFile), mappedFile.getFormat());
+    }
+
+    /**
+     * @param store the store holding the samples
+     * @param audioFormat the format of the audio
+     */
+    public AudioSamples(final SampleStore store, final AudioFormat audioFormat){
         m_audioFormat = audioFormat;
-        m_samples = samples;
+        m_store = store;
     }
 
     /**
@@ -88,17 +117,145 @@ public class AudioSamples {
     }
 
     /**
-     * @return the samples
+     * @return the store holding the samples
+     */
+    public SampleStore getStore() {
+        return m_store;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumberOfChannels() {
+        return m_store.getNumberOfChannels();
+    }
+
+    /**
+     * @return the number of samples per channel
+     */
+    public int getNumberOfSamples() {
+        return m_store.getNumberOfSamples();
+    }
+
+    /**
+     * Returns all samples as <code>double</code> values. If the samples are
+     * held in a compact store, the whole audio is converted once; prefer
+     * {@link #getWindow(int, int, int)} or {@link #getMixedDownWindow(int, int)}
+     * if only parts of the samples are needed.
+     * @return the samples, indexed by [channel][sample]
      */
-    public double[][] getSamples() {
+    public synchronized double[][] getSamples() {
+        if(m_samples == null){
+            m_samples = m_store.toDoubles();
+        }
         return m_samples;
     }
 
     /**
      * @return the mixed down samples
      */
-    public double[] getSamplesMixedDownIntoOneChannel(){
-        return DSPMethods.getSamplesMixedDownIntoOneChannel(m_samples);
+    public synchronized double[] getSamplesMixedDownIntoOneChannel(){
+        if(m_mixedDownSamples == null){
+            if(m_store.getNumberOfChannels() == 1){
+                m_mixedDownSamples = getSamples()[0];
+            }else{
+                m_mixedDownSamples = getMixedDownWindow(0, m_store.getNumberOfSamples());
+            }
+        }
+        return m_mixedDownSamples;
+    }
+
+    /**
+     * Returns a window of one channel. Samples beyond the end of the audio are zero.
+     * @param channel the channel
+     * @param offset the index of the first sample of the window
+     * @param length the length of the window
+     * @return the samples of the window
+     */
+    public double[] getWindow(final int channel, final int offset, final int length){
+        final double[] window = new double[length];
+        readWindow(channel, offset, window, 0, length);
+        return window;
+    }
+
+    /**
+     * Returns a window of the samples mixed down into one channel. Samples
+     * beyond the end of the audio are zero.
+     * @param offset the index of the first sample of the window
+     * @param length the length of the window
+     * @return the mixed down samples of the window
+     */
+    public double[] getMixedDownWindow(final int offset, final int length){
+        final double[] window = new double[length];
+        readMixedDownWindow(offset, window, 0, length);
+        return window;
+    }
+
+    /**
+     * Copies a window of one channel into the given array. Samples beyond the
+     * end of the audio are set to zero.
+     * @param channel the channel
+     * @param offset the index of the first sample of the window
+     * @param dest the destination array
+     * @param destPos the position in the destination array
+     * @param length the length of the window
+     */
+    public void readWindow(final int channel, final int offset, final double[] dest,
+            final int destPos, final int length){
+        final int available = availableSamples(offset, length);
+        m_store.read(channel, offset, dest, destPos, available);
+        Arrays.fill(dest, destPos + available, destPos + length, 0.0);
+    }
+
+    /**
+     * Copies a window of the samples mixed down into one channel into the given
+     * array. Samples beyond the end of the audio are set to zero.
+     * @param offset the index of the first sample of the window
+     * @param dest the destination array
+     * @param destPos the position in the destination array
+     * @param length the length of the window
+     */
+    public void readMixedDownWindow(final int offset, final double[] dest, final int destPos,
+            final int length){
+        final int available = availableSamples(offset, length);
+        m_store.readMixedDown(offset, dest, destPos, available);
+        Arrays.fill(dest, destPos + available, destPos + length, 0.0);
+    }
+
+    /**
+     * Converts the samples to another sample rate using a windowed-sinc
+     * {@link Resampler}. The channels are converted one after another.
+     * @param sampleRate the target sample rate in Hz
+     * @return the resampled samples, or this object if the sample rate
+     * is already the target sample rate
+     */
+    public AudioSamples resample(final int sampleRate){
+        final AudioFormat format = getAudioFormat();
+        final int inputRate = Math.round(format.getSampleRate());
+        if(inputRate == sampleRate){
+            return this;
+        }
+        final int nrOfChannels = getNumberOfChannels();
+        final double[] channelSamples = new double[getNumberOfSamples()];
+        final float[][] resampled = new float[nrOfChannels][];
+        for(int channel = 0; channel < nrOfChannels; channel++){
+            m_store.read(channel, 0, channelSamples, 0, channelSamples.length);
+            final double[] converted = Resampler.resample(channelSamples, inputRate, sampleRate);
+            resampled[channel] = new float[converted.length];
+            for(int i = 0; i < converted.length; i++){
+                resampled[channel][i] = (float)converted[i];
+            }
+        }
+        return new AudioSamples(SampleStore.ofFloats(resampled),
+            new AudioFormat(format.getEncoding(), sampleRate, format.getSampleSizeInBits(),
+                nrOfChannels, format.getFrameSize(), sampleRate, format.isBigEndian()));
+    }
+
+    private int availableSamples(final int offset, final int length){
+        if(offset < 0 || length < 0){
+            throw new IllegalArgumentException("Offset and length must not be negative");
+        }
+        return Math.max(0, Math.min(length, m_store.getNumberOfSamples() - offset));
     }
 
 }
@@ -0,0 +1,304 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Window of an audio viewing a region of a shared sample buffer instead of
+ * holding a copy of it. The buffer is interpreted as a ring, i.e. the window
+ * may wrap around its end, and samples beyond the valid length of the window
+ * are zero.
+ *
+ * The samples mixed down into one channel are computed the first time they are
+ * requested and cached until the window is moved. Values derived from the
+ * samples, e.g. spectra, can be cached the same way with
+ * {@link #setCachedValue(Object, Object)}. A window is reused for
+ * consecutive positions, so its content is only valid until it is moved again.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class AudioWindow extends AudioSamples {
+
+    private final RingStore m_ringStore;
+
+    private final int m_size;
+
+    private int m_index;
+
+    private long m_startFrame;
+
+    /* Reusable buffers for the materialized samples, only created when requested */
+    private double[] m_monoBuffer;
+    private double[][] m_channelBuffers;
+
+    private double[] m_mono;
+    private double[][] m_channels;
+
+    /* Values derived from the samples at the current position, created when needed */
+    private Map<Object, Object> m_cachedValues;
+
+    /**
+     * @param format the format of the audio
+     * @param size the size of the window in samples
+     */
+    public AudioWindow(final AudioFormat format, final int size) {
+        this(format, size, new RingStore(format.getChannels(), size));
+    }
+
+    private AudioWindow(final AudioFormat format, final int size, final RingStore store) {
+        super(store, format);
+        if (size < 1) {
+            throw new IllegalArgumentException("Window size must be at least one sample");
+        }
+        m_ringStore = store;
+        m_size = size;
+        m_index = -1;
+    }
+
+    /**
+     * Moves the window to view the given region of the given buffer.
+     *
+     * @param buffer the shared buffer, indexed by [channel][sample]
+     * @param offset the position of the first sample of the window inside the buffer
+     * @param length the number of valid samples, the rest of the window is zero
+     * @param index the index of the window
+     * @param startFrame the index of the first frame of the window in the audio
+     */
+    void moveTo(final double[][] buffer, final int offset, final int length, final int index,
+            final long startFrame) {
+        if (length > m_size) {
+            throw new IllegalArgumentException("The length must not exceed the window size");
+        }
+        m_ringStore.set(buffer, offset, length);
+        m_index = index;
+        m_startFrame = startFrame;
+        m_mono = null;
+        m_channels = null;
+        if (m_cachedValues != null) {
+            m_cachedValues.clear();
+        }
+    }
+
+    /**
+     * @return the index of the window, starting with 0
+     */
+    public int getIndex() {
+        return m_index;
+    }
+
+    /**
+     * @return the index of the first frame of the window in the audio
+     */
+    public long getStartFrame() {
+        return m_startFrame;
+    }
+
+    /**
+     * @return the number of valid, i.e. not zero-padded, samples of the window
+     */
+    public int getValidLength() {
+        return m_ringStore.m_length;
+    }
+
+    /**
+     * Returns the samples of the window. The arrays are reused when the window
+     * is moved and must not be modified.
+     * {@inheritDoc}
+     */
+    @Override
+    public double[][] getSamples() {
+        if (m_channels == null) {
+            if (m_channelBuffers == null) {
+                m_channelBuffers = new double[m_ringStore.m_nrOfChannels][m_size];
+            }
+            for (int channel = 0; channel < m_channelBuffers.length; channel++) {
+                readWindow(channel, 0, m_channelBuffers[channel], 0, m_size);
+            }
+            m_channels = m_channelBuffers;
+        }
+        return m_channels;
+    }
+
+    /**
+     * Returns the samples of the window mixed down into one channel. They are
+     * computed once per window position, the array is reused when the window
+     * is moved and must not be modified.
+     * {@inheritDoc}
+     */
+    @Override
+    public double[] getSamplesMixedDownIntoOneChannel() {
+        if (m_mono == null) {
+            /* Never hand out the shared buffer itself, the overlap is still needed by the next window */
+            if (m_monoBuffer == null) {
+                m_monoBuffer = new double[m_size];
+            }
+            readMixedDownWindow(0, m_monoBuffer, 0, m_size);
+            m_mono = m_monoBuffer;
+        }
+        return m_mono;
+    }
+
+    /**
+     * Returns the value cached for the current position of the window.
+     *
+     * @param key the key of the value
+     * @return the value cached under the given key or <code>null</code> if no value
+     * has been cached since the window was moved
+     */
+    public Object getCachedValue(final Object key) {
+        return m_cachedValues == null ? null : m_cachedValues.get(key);
+    }
+
+    /**
+     * Caches a value derived from the samples at the current position of the window.
+     * The value is discarded when the window is moved.
+     *
+     * @param key the key of the value
+     * @param value the value to cache
+     */
+    public void setCachedValue(final Object key, final Object value) {
+        if (m_cachedValues == null) {
+            m_cachedValues = new HashMap<Object, Object>(4);
+        }
+        m_cachedValues.put(key, value);
+    }
+
+    /* Store reading the samples of the window from the shared ring buffer */
+    private static class RingStore extends SampleStore {
+
+        private final int m_nrOfChannels;
+
+        private final int m_size;
+
+        private double[][] m_buffer;
+
+        private int m_offset;
+
+        private int m_length;
+
+        RingStore(final int nrOfChannels, final int size) {
+            m_nrOfChannels = nrOfChannels;
+            m_size = size;
+            m_buffer = new double[nrOfChannels][size];
+        }
+
+        void set(final double[][] buffer, final int offset, final int length) {
+            m_buffer = buffer;
+            m_offset = offset;
+            m_length = length;
+        }
+
+        @Override
+        public int getNumberOfChannels() {
+            return m_nrOfChannels;
+        }
+
+        @Override
+        public int getNumberOfSamples() {
+            return m_size;
+        }
+
+        @Override
+        public double get(final int channel, final int index) {
+            if (index >= m_length) {
+                return 0;
+            }
+            final double[] ring = m_buffer[channel];
+            return ring[(m_offset + index) % ring.length];
+        }
+
+        @Override
+        public void read(final int channel, final int offset, final double[] dest, final int destPos,
+                final int length) {
+            final double[] ring = m_buffer[channel];
+            final int valid = Math.max(0, Math.min(length, m_length - offset));
+            final int start = (m_offset + offset) % ring.length;
+            final int firstPart = Math.min(valid, ring.length - start);
+            System.arraycopy(ring, start, dest, destPos, firstPart);
+            System.arraycopy(ring, 0, dest, destPos + firstPart, valid - firstPart);
+            Arrays.fill(dest, destPos + valid, destPos + length, 0.0);
+        }
+
+        @Override
+        public void readMixedDown(final int offset, final double[] dest, final int destPos,
+                final int length) {
+            read(0, offset, dest, destPos, length);
+            if (m_nrOfChannels == 1) {
+                return;
+            }
+            final int valid = Math.max(0, Math.min(length, m_length - offset));
+            final int start = (m_offset + offset) % m_buffer[0].length;
+            for (int channel = 1; channel < m_nrOfChannels; channel++) {
+                final double[] ring = m_buffer[channel];
+                int pos = start;
+                for (int i = 0; i < valid; i++) {
+                    dest[destPos + i] += ring[pos];
+                    if (++pos == ring.length) {
+                        pos = 0;
+                    }
+                }
+            }
+            for (int i = 0; i < valid; i++) {
+                dest[destPos + i] /= m_nrOfChannels;
+            }
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            /* The samples are owned by the shared buffer */
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Source of decoded sample frames used by the {@link SampleChunkFactory}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+interface FrameSource extends Closeable {
+
+    /**
+     * @return the format of the frames returned by this source
+     */
+    AudioFormat getFormat();
+
+    /**
+     * Decodes the next frames into the given arrays. The values are normalized
+     * to the range [-1, 1].
+     *
+     * @param dest the destination arrays, indexed by [channel][sample]
+     * @param destPos the position in the destination arrays to start writing to
+     * @param frames the maximum number of frames to read
+     * @return the number of frames read or -1 if the end of the audio has been reached
+     * @throws IOException if the frames cannot be read
+     */
+    int read(double[][] dest, int destPos, int frames) throws IOException;
+
+    /**
+     * Skips the given number of frames. The default implementation decodes and
+     * discards the frames, sources with random access should jump directly to
+     * the new position.
+     *
+     * @param frames the number of frames to skip
+     * @return the number of frames actually skipped, which is smaller than the
+     * requested number if the end of the audio has been reached
+     * @throws IOException if the frames cannot be skipped
+     */
+    default long skip(final long frames) throws IOException {
+        final double[][] buffer = new double[getFormat().getChannels()][(int)Math.min(frames, 4096)];
+        long skipped = 0;
+        while (skipped < frames) {
+            final int read = read(buffer, 0, (int)Math.min(frames - skipped, buffer[0].length));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+}
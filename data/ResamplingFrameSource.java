@@ -0,0 +1,141 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import java.io.IOException;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.knime.base.node.audio3.util.Resampler;
+
+/**
+ * {@link FrameSource} converting the frames of another source to a different sample rate.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+class ResamplingFrameSource implements FrameSource {
+
+    private static final int READ_BLOCK_SIZE_IN_FRAMES = 4096;
+
+    private final FrameSource m_source;
+
+    private final AudioFormat m_format;
+
+    private final Resampler[] m_resamplers;
+
+    private final double[][] m_readBuffer;
+
+    private boolean m_endOfSource;
+
+    /**
+     * @param source the source to resample
+     * @param sampleRate the target sample rate in Hz
+     */
+    ResamplingFrameSource(final FrameSource source, final int sampleRate) {
+        m_source = source;
+        final AudioFormat format = source.getFormat();
+        m_format = new AudioFormat(format.getEncoding(), sampleRate, format.getSampleSizeInBits(),
+            format.getChannels(), format.getFrameSize(), sampleRate, format.isBigEndian());
+        final int nrOfChannels = format.getChannels();
+        m_resamplers = new Resampler[nrOfChannels];
+        for (int channel = 0; channel < nrOfChannels; channel++) {
+            m_resamplers[channel] = new Resampler(Math.round(format.getSampleRate()), sampleRate);
+        }
+        m_readBuffer = new double[nrOfChannels][READ_BLOCK_SIZE_IN_FRAMES];
+        m_endOfSource = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AudioFormat getFormat() {
+        return m_format;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final double[][] dest, final int destPos, final int frames) throws IOException {
+        while (true) {
+            /* All channels are fed equally, so they always produce the same number of frames */
+            int produced = 0;
+            for (int channel = 0; channel < m_resamplers.length; channel++) {
+                produced = m_resamplers[channel].read(dest[channel], destPos, frames);
+            }
+            if (produced != 0 || frames == 0) {
+                return produced;
+            }
+            final int read = m_source.read(m_readBuffer, 0, READ_BLOCK_SIZE_IN_FRAMES);
+            if (read < 0) {
+                if (m_endOfSource) {
+                    return -1;
+                }
+                m_endOfSource = true;
+                for (final Resampler resampler : m_resamplers) {
+                    resampler.endOfInput();
+                }
+            } else {
+                for (int channel = 0; channel < m_resamplers.length; channel++) {
+                    m_resamplers[channel].write(m_readBuffer[channel], 0, read);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        m_source.close();
+    }
+
+}
@@ -52,8 +52,6 @@ import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.ByteBuffer;
-import java.nio.ShortBuffer;
 
 import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
@@ -61,99 +59,399 @@ import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 
 import org.knime.base.node.audio3.data.SampleChunk.ChunkType;
+import org.knime.base.node.audio3.data.io.MappedAudioFile;
+import org.knime.base.node.audio3.util.AudioSampleCache;
 import org.knime.base.node.audio3.util.AudioUtils;
-import org.knime.core.node.NodeLogger;
-
-import jAudioFeatureExtractor.jAudioTools.AudioMethods;
-import jAudioFeatureExtractor.jAudioTools.DSPMethods;
 
 /**
+ * Cuts an audio file into consecutive, optionally overlapping sample chunks.
+ *
+ * The samples are streamed from a {@link FrameSource} into a ring buffer that
+ * holds exactly one chunk, so the memory needed is proportional to the chunk
+ * size and not to the length of the audio file. The overlap between two
+ * consecutive chunks is kept inside the ring buffer and is never read twice
+ * from the source. Uncompressed PCM WAV and AIFF files are read directly from
+ * a {@link MappedAudioFile}, samples in the {@link AudioSampleCache} are read
+ * from the cache, all other files are decoded via {@link AudioSystem}. Files
+ * that are decoded up to their end are put into the cache if they fit into its
+ * heap budget. If a target sample rate is given, the samples are resampled
+ * while streaming.
+ *
+ * The chunks can be restricted to a range of the audio with {@link #seek(long)}
+ * and {@link #setEnd(long)}. Seeking jumps directly to the new position for
+ * mapped and cached samples as well as for uncompressed streams. Other streams
+ * are decoded from their beginning up to the new position, so the cost of a
+ * seek grows linearly with the position until the file has been decoded up to
+ * its end once and its samples are in the cache. Streams read only up to an
+ * end set with {@link #setEnd(long)} aren't put into the cache.
  *
  * @author Budi Yanto, KNIME.com
  */
 public class SampleChunkFactory {
 
-    private static final NodeLogger LOGGER = NodeLogger.getLogger(SampleChunkFactory.class);
+    /** Target sample rate indicating that the samples shouldn't be resampled */
+    public static final int ORIGINAL_SAMPLE_RATE = 0;
 
     private final Audio m_audio;
     private final SampleChunk.ChunkType m_chunkType;
+    private final int m_targetSampleRate;
 
     private InputStream m_inStream;
     private AudioInputStream m_audioInStream;
+    private FrameSource m_frameSource;
     private int m_chunkSizeInBytes;
     private int m_chunkSizeInSamples;
+    private int m_chunkOverlapOffsetInSamples;
 
+    /* Ring buffer holding the decoded samples of the current chunk, indexed by [channel][sample] */
+    private double[][] m_ring;
 
-//    private int m_bytesToRead = 0;
+    /* Position of the first sample of the current chunk inside the ring buffer */
+    private int m_ringStart;
 
-    private int m_chunkOverlapOffsetInSamples;
+    /* Number of valid samples in the ring buffer, starting at m_ringStart */
+    private int m_ringFill;
+
+    private boolean m_endOfStream;
+
+    /* Reusable view on the ring buffer returned by nextWindow() */
+    private AudioWindow m_window;
 
+    private int m_windowIndex;
 
+    /* Frame the chunks start at, set by seek() */
+    private long m_startFrame = 0;
 
-    private byte[] m_samples;
+    /* Frame the chunks end at (exclusive) */
+    private long m_endFrame = Long.MAX_VALUE;
 
-    private int m_pointer;
+    /* Frame following the last frame read from the source */
+    private long m_position;
 
+    /* Range of windows returned by nextWindow(), set by setWindowRange() */
+    private int m_firstWindow = 0;
 
+    private int m_lastWindow = Integer.MAX_VALUE;
+
+    /* Number of frames of the source if it provides random access, otherwise -1 */
+    private long m_frameLength;
+
+    /**
+     * Creates a factory that returns chunks of raw bytes.
+     * @param audio the audio to cut into chunks
+     * @param chunkSizeInSamples the size of the chunks in samples
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
     public SampleChunkFactory(final Audio audio, final int chunkSizeInSamples) throws UnsupportedAudioFileException, IOException {
         this(audio, ChunkType.BYTE, 0);
-        m_chunkSizeInSamples = chunkSizeInSamples;
-//        m_chunkSizeInBytes = m_chunkSizeInSamples *
-//                audio.getAudioFileFormat().getFormat().getFrameSize();
-        m_chunkOverlapOffsetInSamples = 0;
+        init(chunkSizeInSamples, 0);
     }
 
+    /**
+     * Creates a factory that returns chunks of raw bytes.
+     * @param audio the audio to cut into chunks
+     * @param chunkSizeInSeconds the size of the chunks in seconds
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
     public SampleChunkFactory(final Audio audio, final float chunkSizeInSeconds) throws UnsupportedAudioFileException, IOException {
         this(audio, ChunkType.BYTE, 0);
-//        final AudioFormat audioFormat = audio.getAudioFileFormat().getFormat();
-//        m_chunkSizeInSamples = (int)(chunkSizeInSeconds * audioFormat.getFrameRate());
-//        m_chunkSizeInBytes = m_chunkSizeInSamples * audioFormat.getFrameSize();
-        m_chunkOverlapOffsetInSamples = 0;
+        init(convertSecondsToSamples(chunkSizeInSeconds), 0);
     }
 
+    /**
+     * Creates a factory that returns chunks of decoded samples.
+     * @param audio the audio to cut into chunks
+     * @param chunkSizeInSamples the size of the chunks in samples
+     * @param chunkOverlapInPercent the overlap of two consecutive chunks (0 - 99)%
+     * @param mixedDownToMonoChannel <code>true</code> if the channels should be
+     * mixed down into one channel, otherwise <code>false</code>
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
     public SampleChunkFactory(final Audio audio, final int chunkSizeInSamples,
             final int chunkOverlapInPercent, final boolean mixedDownToMonoChannel) throws UnsupportedAudioFileException, IOException{
         this(audio, mixedDownToMonoChannel ? ChunkType.MONO_CHANNEL : ChunkType.MULTI_CHANNELS,
             chunkOverlapInPercent);
-        m_chunkSizeInSamples = chunkSizeInSamples;
-//        m_chunkSizeInBytes = m_chunkSizeInSamples *
-//                audio.getAudioFileFormat().getFormat().getFrameSize();
-        m_chunkOverlapOffsetInSamples = (int)((chunkOverlapInPercent / 100f) * m_chunkSizeInSamples);
+        init(chunkSizeInSamples, chunkOverlapInPercent);
     }
 
+    /**
+     * Creates a factory that returns chunks of decoded samples.
+     * @param audio the audio to cut into chunks
+     * @param chunkSizeInSeconds the size of the chunks in seconds
+     * @param chunkOverlapInPercent the overlap of two consecutive chunks (0 - 99)%
+     * @param mixedDownToMonoChannel <code>true</code> if the channels should be
+     * mixed down into one channel, otherwise <code>false</code>
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
     public SampleChunkFactory(final Audio audio, final float chunkSizeInSeconds,
             final int chunkOverlapInPercent, final boolean mixedDownToMonoChannel) throws UnsupportedAudioFileException, IOException{
         this(audio, mixedDownToMonoChannel ? ChunkType.MONO_CHANNEL : ChunkType.MULTI_CHANNELS,
             chunkOverlapInPercent);
-//        final AudioFormat audioFormat = audio.getAudioFileFormat().getFormat();
-//        m_chunkSizeInSamples = (int)(chunkSizeInSeconds * audioFormat.getFrameRate());
-//        m_chunkSizeInBytes = m_chunkSizeInSamples * audioFormat.getFrameSize();
-//        m_chunkOverlapOffsetInSamples = (int)((chunkOverlapInPercent / 100f) * m_chunkSizeInSamples);
+        init(convertSecondsToSamples(chunkSizeInSeconds), chunkOverlapInPercent);
+    }
+
+    /**
+     * Creates a factory that returns chunks of decoded samples, resampled to the given sample rate.
+     * @param audio the audio to cut into chunks
+     * @param chunkSizeInSamples the size of the chunks in samples of the target sample rate
+     * @param chunkOverlapInPercent the overlap of two consecutive chunks (0 - 99)%
+     * @param mixedDownToMonoChannel <code>true</code> if the channels should be
+     * mixed down into one channel, otherwise <code>false</code>
+     * @param targetSampleRate the sample rate in Hz the samples should be converted to,
+     * {@link #ORIGINAL_SAMPLE_RATE} to keep the sample rate of the audio
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
+    public SampleChunkFactory(final Audio audio, final int chunkSizeInSamples,
+            final int chunkOverlapInPercent, final boolean mixedDownToMonoChannel,
+            final int targetSampleRate) throws UnsupportedAudioFileException, IOException{
+        this(audio, mixedDownToMonoChannel ? ChunkType.MONO_CHANNEL : ChunkType.MULTI_CHANNELS,
+            chunkOverlapInPercent, targetSampleRate);
+        init(chunkSizeInSamples, chunkOverlapInPercent);
     }
 
     private SampleChunkFactory(final Audio audio, final SampleChunk.ChunkType chunkType,
             final int chunkOverlapInPercent) throws UnsupportedAudioFileException, IOException{
+        this(audio, chunkType, chunkOverlapInPercent, ORIGINAL_SAMPLE_RATE);
+    }
+
+    private SampleChunkFactory(final Audio audio, final SampleChunk.ChunkType chunkType,
+            final int chunkOverlapInPercent, final int targetSampleRate) throws UnsupportedAudioFileException, IOException{
         m_audio = audio;
         m_chunkType = chunkType;
         if(chunkOverlapInPercent < 0 || chunkOverlapInPercent > 99){
             throw new IllegalArgumentException("Chunk can only be overlapped within (0 - 99)%");
         }
+        if(targetSampleRate < 0){
+            throw new IllegalArgumentException("The target sample rate cannot be negative");
+        }
+        if(chunkType == ChunkType.BYTE && targetSampleRate != ORIGINAL_SAMPLE_RATE){
+            throw new IllegalArgumentException("Chunks of raw bytes cannot be resampled");
+        }
+        m_targetSampleRate = targetSampleRate;
+        openStream();
+    }
+
+    private void init(final int chunkSizeInSamples, final int chunkOverlapInPercent){
+        if(chunkSizeInSamples < 1){
+            throw new IllegalArgumentException("Chunk size must be at least one sample");
+        }
+        m_chunkSizeInSamples = chunkSizeInSamples;
+        m_chunkSizeInBytes = m_chunkSizeInSamples * getAudioFormat().getFrameSize();
+        m_chunkOverlapOffsetInSamples = (int)((chunkOverlapInPercent / 100f) * m_chunkSizeInSamples);
+    }
+
+    private int convertSecondsToSamples(final float seconds){
+        return (int)(seconds * getAudioFormat().getFrameRate());
+    }
 
-        m_inStream = new BufferedInputStream(new FileInputStream(m_audio.getFile()));
+    private void openStream() throws UnsupportedAudioFileException, IOException {
+        final MappedAudioFile mappedFile = MappedAudioFile.open(m_audio.getFile());
         if(m_chunkType == ChunkType.BYTE){
-            m_audioInStream = AudioSystem.getAudioInputStream(m_inStream);
+            if(mappedFile != null){
+                m_audioInStream = mappedFile.getAudioInputStream();
+            }else{
+                m_inStream = new BufferedInputStream(new FileInputStream(m_audio.getFile()));
+                m_audioInStream = AudioSystem.getAudioInputStream(m_inStream);
+            }
+            skipBytes(m_startFrame * m_audioInStream.getFormat().getFrameSize());
+            m_frameLength = -1;
         }else{
-            final AudioInputStream inStream = AudioSystem.getAudioInputStream(m_inStream);
-            m_audioInStream = AudioUtils.convertUnsupportedFormat(inStream);
-            m_samples = AudioUtils.getBytesFromAudioInputStream(m_audioInStream);
+            final AudioSamples samples = mappedFile != null ? new AudioSamples(mappedFile)
+                    : AudioSampleCache.getInstance().get(m_audio.getFile());
+            final long firstFrame = getFirstFrame();
+            m_frameLength = -1;
+            if(samples != null){
+                m_frameSource = new SampleStoreFrameSource(samples);
+                m_frameLength = samples.getNumberOfSamples();
+            }else{
+                m_inStream = new BufferedInputStream(new FileInputStream(m_audio.getFile()));
+                /* Decoded samples are put into the cache if the whole stream is read */
+                m_frameSource = new StreamFrameSource(AudioUtils.convertUnsupportedFormat(
+                    AudioSystem.getAudioInputStream(m_inStream)), m_audio.getFile());
+            }
+            final int sampleRate = Math.round(m_frameSource.getFormat().getSampleRate());
+            if(m_targetSampleRate != ORIGINAL_SAMPLE_RATE && m_targetSampleRate != sampleRate){
+                /* Skip in the original source, the start frame is given in the target sample rate */
+                m_frameSource.skip(Math.round(firstFrame * (double)sampleRate / m_targetSampleRate));
+                m_frameSource = new ResamplingFrameSource(m_frameSource, m_targetSampleRate);
+                m_frameLength = -1;
+            }else{
+                m_frameSource.skip(firstFrame);
+            }
         }
+        m_position = getFirstFrame();
+        m_ringStart = 0;
+        m_ringFill = 0;
+        m_endOfStream = false;
+        m_windowIndex = m_firstWindow;
+    }
 
+    private long getHopSize(){
+        return m_chunkSizeInSamples - m_chunkOverlapOffsetInSamples;
     }
 
+    /* The first frame to read, i.e. the start frame of the first window of the window range */
+    private long getFirstFrame(){
+        return m_firstWindow == 0 ? m_startFrame : m_startFrame + m_firstWindow * getHopSize();
+    }
 
+    /* The frame following the last frame to read, limited by the end and the window range */
+    private long getLastFrame(){
+        if(m_lastWindow == Integer.MAX_VALUE){
+            return m_endFrame;
+        }
+        return Math.min(m_endFrame, m_startFrame + (m_lastWindow - 1) * getHopSize() + m_chunkSizeInSamples);
+    }
 
+    private void skipBytes(final long bytes) throws IOException {
+        final byte[] buf = new byte[Math.max(1, m_audioInStream.getFormat().getFrameSize()) * 1024];
+        long remaining = bytes;
+        while(remaining > 0){
+            long skipped = m_audioInStream.skip(remaining);
+            if(skipped <= 0){
+                /* Not every stream supports skipping, read the bytes instead */
+                skipped = m_audioInStream.read(buf, 0, (int)Math.min(remaining, buf.length));
+                if(skipped < 0){
+                    return;
+                }
+            }
+            remaining -= skipped;
+        }
+    }
+
+    /**
+     * Moves to the given frame, the next chunk starts at this frame. For
+     * resampled chunks, the frame refers to the target sample rate. Compressed
+     * files that aren't cached are decoded from their beginning up to the frame.
+     * @param frame the index of the frame to move to
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
+    public void seek(final long frame) throws UnsupportedAudioFileException, IOException {
+        if(frame < 0){
+            throw new IllegalArgumentException("The frame to seek to cannot be negative");
+        }
+        closeStream();
+        m_startFrame = frame;
+        m_firstWindow = 0;
+        m_lastWindow = Integer.MAX_VALUE;
+        openStream();
+    }
+
+    /**
+     * Moves to the given time, the next chunk starts at this time.
+     * @param seconds the time in seconds to move to
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
+    public void seek(final double seconds) throws UnsupportedAudioFileException, IOException {
+        seek(convertSecondsToFrames(seconds));
+    }
+
+    /**
+     * Sets the frame the chunks end at. The frame itself isn't contained in the
+     * chunks anymore, the last chunk is zero-padded as at the end of the audio.
+     * For resampled chunks, the frame refers to the target sample rate.
+     * @param frame the index of the end frame (exclusive)
+     */
+    public void setEnd(final long frame){
+        if(frame < 0){
+            throw new IllegalArgumentException("The end frame cannot be negative");
+        }
+        m_endFrame = frame;
+    }
+
+    /**
+     * Sets the time the chunks end at.
+     * @param seconds the end time in seconds (exclusive)
+     * @see #setEnd(long)
+     */
+    public void setEnd(final double seconds){
+        setEnd(convertSecondsToFrames(seconds));
+    }
+
+    /**
+     * @return <code>true</code> if the samples are read from a source with random
+     * access, i.e. mapped or cached samples that aren't resampled. Only then the
+     * number of windows is known in advance and window ranges can be read
+     * independently of each other without decoding the samples before them.
+     */
+    public boolean isRandomAccess(){
+        return m_frameLength >= 0;
+    }
+
+    /**
+     * @return the number of windows returned by {@link #nextWindow()} between
+     * the start and the end position, independent of the window range, or -1 if
+     * the source doesn't provide random access
+     * @see #isRandomAccess()
+     */
+    public long getNumberOfWindows(){
+        if(!isRandomAccess()){
+            return -1;
+        }
+        final long frames = Math.min(m_endFrame, m_frameLength) - m_startFrame;
+        if(frames <= 0){
+            return 0;
+        }
+        final long hop = getHopSize();
+        /* A window exists as long as it contains a sample not contained in the previous one */
+        return Math.max(1, (frames - m_chunkSizeInSamples + hop - 1) / hop + 1);
+    }
+
+    /**
+     * Restricts the windows returned by {@link #nextWindow()} to the given range
+     * of window indices. Index and start frame of the returned windows are the
+     * same as without the restriction, so several factories can process
+     * different window ranges of the same audio. Only the samples needed for the
+     * windows in the range are read.
+     * @param fromWindow the index of the first window
+     * @param toWindow the index following the last window
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
+    public void setWindowRange(final int fromWindow, final int toWindow)
+            throws UnsupportedAudioFileException, IOException {
+        if(m_chunkType == ChunkType.BYTE){
+            throw new IllegalStateException("Windows are only available for decoded samples");
+        }
+        if(fromWindow < 0 || toWindow < fromWindow){
+            throw new IllegalArgumentException("Invalid window range: " + fromWindow + " - " + toWindow);
+        }
+        closeStream();
+        m_firstWindow = fromWindow;
+        m_lastWindow = toWindow;
+        openStream();
+    }
+
+    private long convertSecondsToFrames(final double seconds){
+        if(seconds < 0){
+            throw new IllegalArgumentException("The time cannot be negative");
+        }
+        return Math.round(seconds * getAudioFormat().getSampleRate());
+    }
+
+    /**
+     * @return the audio format of the returned chunks
+     */
+    public AudioFormat getAudioFormat(){
+        if(m_frameSource != null){
+            return m_frameSource.getFormat();
+        }
+        return m_audioInStream.getFormat();
+    }
+
+    /**
+     * @return the next sample chunk or <code>null</code> if the end of the audio has been reached
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
     public SampleChunk nextSampleChunk() throws UnsupportedAudioFileException, IOException {
-//        openStream();
         SampleChunk chunk = null;
         if (m_chunkType == ChunkType.BYTE) {
             chunk = nextByteSampleChunk();
@@ -163,18 +461,48 @@ public class SampleChunkFactory {
             chunk = nextMultiChannelsSampleChunk();
         }
 
-//        if (chunk == null) {
-//            closeStream();
-//        }
-
         return chunk;
     }
 
+    /**
+     * Returns the next chunk as a window viewing the internal ring buffer, so
+     * no samples are copied. The same {@link AudioWindow} instance is returned
+     * for every chunk and is only valid until this method is called again.
+     * Independent of the chunk type of this factory, the window provides all
+     * channels as well as the samples mixed down into one channel.
+     *
+     * @return the window of the next chunk or <code>null</code> if the end of the audio has been reached
+     * @throws IOException
+     * @throws IllegalStateException if this factory returns chunks of raw bytes
+     */
+    public AudioWindow nextWindow() throws IOException {
+        if(m_chunkType == ChunkType.BYTE){
+            throw new IllegalStateException("Windows are only available for decoded samples");
+        }
+        if(!advanceRing()){
+            return null;
+        }
+        if(m_window == null){
+            m_window = new AudioWindow(getAudioFormat(), m_chunkSizeInSamples);
+        }
+        final long hop = m_chunkSizeInSamples - m_chunkOverlapOffsetInSamples;
+        m_window.moveTo(m_ring, m_ringStart, m_ringFill, m_windowIndex, m_startFrame + m_windowIndex * hop);
+        m_windowIndex++;
+        return m_window;
+    }
+
     private SampleChunk nextByteSampleChunk() throws IOException {
-        final byte[] buf = new byte[m_chunkSizeInBytes + 2];
+        final int frameSize = m_audioInStream.getFormat().getFrameSize();
+        final long remainingFrames = getLastFrame() - m_position;
+        if (remainingFrames <= 0) {
+            return null;
+        }
+        final byte[] buf = new byte[remainingFrames > m_chunkSizeInSamples ? m_chunkSizeInBytes + 2
+            : (int)remainingFrames * frameSize];
         SampleChunk chunk = null;
         final int totalRead = m_audioInStream.read(buf);
         if (totalRead > 0) {
+            m_position += totalRead / frameSize;
             if (buf.length == totalRead) {
                 chunk = new ByteSampleChunk(m_audioInStream.getFormat(), buf);
             } else {
@@ -186,92 +514,106 @@ public class SampleChunkFactory {
         return chunk;
     }
 
-    private SampleChunk nextMultiChannelsSampleChunk() {
-        final double[][] samples = extractSamplesPerChunk();
-        if(samples == null){
+    private SampleChunk nextMultiChannelsSampleChunk() throws IOException {
+        if(!advanceRing()){
             return null;
-        }else{
-            return new MultiChannelSampleChunk(m_audioInStream.getFormat(), samples);
         }
+        final int nrOfChannels = m_ring.length;
+        final double[][] samples = new double[nrOfChannels][m_chunkSizeInSamples];
+        for(int channel = 0; channel < nrOfChannels; channel++){
+            copyFromRing(m_ring[channel], samples[channel]);
+        }
+        return new MultiChannelSampleChunk(getAudioFormat(), samples);
     }
 
-    private SampleChunk nextMonoChannelSampleChunk(){
-        final double[][] multiChannelSamples = extractSamplesPerChunk();
-        if(multiChannelSamples == null){
+    private SampleChunk nextMonoChannelSampleChunk() throws IOException {
+        if(!advanceRing()){
             return null;
+        }
+        final double[] samples = new double[m_chunkSizeInSamples];
+        final int nrOfChannels = m_ring.length;
+        if(nrOfChannels == 1){
+            copyFromRing(m_ring[0], samples);
         }else{
-            final double[] monoChannelSamples = DSPMethods
-                    .getSamplesMixedDownIntoOneChannel(multiChannelSamples);
-            return new MonoChannelSampleChunk(m_audioInStream.getFormat(),
-                monoChannelSamples);
+            final int capacity = m_chunkSizeInSamples;
+            for(int i = 0; i < m_ringFill; i++){
+                final int pos = (m_ringStart + i) % capacity;
+                double sum = 0;
+                for(int channel = 0; channel < nrOfChannels; channel++){
+                    sum += m_ring[channel][pos];
+                }
+                samples[i] = sum / nrOfChannels;
+            }
         }
+        return new MonoChannelSampleChunk(getAudioFormat(), samples);
     }
 
-    private double[][] extractSamplesPerChunk(){
-        LOGGER.debug("nextSampleChunk()");
-        LOGGER.debug("-----------------");
+    /* Copies the valid samples of the current chunk out of the ring, the rest stays zero-padded */
+    private void copyFromRing(final double[] ring, final double[] dest){
+        final int firstPart = Math.min(m_ringFill, ring.length - m_ringStart);
+        System.arraycopy(ring, m_ringStart, dest, 0, firstPart);
+        System.arraycopy(ring, 0, dest, firstPart, m_ringFill - firstPart);
+    }
 
-        if (m_pointer >= m_samples.length) {
-            LOGGER.debug("m_pointer: " + m_pointer);
-            LOGGER.debug("m_samples.length: " + m_samples.length);
-            LOGGER.debug("m_pointer is bigger or equals m_samples.length");
-            return null;
+    /**
+     * Moves the ring buffer to the next chunk. The overlapping samples of the
+     * previous chunk stay in the ring, only the samples following them are read
+     * from the stream.
+     * @return <code>true</code> if there is a next chunk, otherwise <code>false</code>
+     */
+    private boolean advanceRing() throws IOException {
+        if(m_ring == null){
+            m_ring = new double[getAudioFormat().getChannels()][m_chunkSizeInSamples];
+            m_ringStart = 0;
+            m_ringFill = 0;
+            fillRing();
+            return m_ringFill > 0;
         }
 
-        final AudioFormat audioFormat = m_audioInStream.getFormat();
-        final int bitsPerSample = audioFormat.getSampleSizeInBits();
-        final int bytesPerSample = bitsPerSample / 8;
-        final int nrOfChannels = audioFormat.getChannels();
-
-        final int totalBytesOverlapOffset = m_chunkOverlapOffsetInSamples * bytesPerSample * nrOfChannels;
-
-        LOGGER.debug("totalBytesOverlapOffset: " + totalBytesOverlapOffset);
-        LOGGER.debug("bitsPerSample: " + bitsPerSample);
-        LOGGER.debug("bytesPerSample: " + bytesPerSample);
-        LOGGER.debug("nrOfChannels: " + nrOfChannels);
-        LOGGER.debug("AudioFormat: " + audioFormat.toString());
-
-        m_pointer -= totalBytesOverlapOffset;
-        if (m_pointer < 0) {
-            m_pointer = 0;
-        }
-        LOGGER.debug("m_pointer: " + m_pointer);
-        int chunkSizeInBytes = m_chunkSizeInBytes;
-        final byte[] buf = new byte[chunkSizeInBytes];
-        final int rest = m_samples.length - m_pointer;
-        if (chunkSizeInBytes > rest) {
-            chunkSizeInBytes = rest;
+        if(m_endOfStream){
+            /* The previous chunk already contained the last samples */
+            return false;
         }
 
-        LOGGER.debug("buf.length : " + buf.length);
-        LOGGER.debug("rest: " + rest);
-        LOGGER.debug("chunkSizeInBytes: " + chunkSizeInBytes);
+        final int hop = m_chunkSizeInSamples - m_chunkOverlapOffsetInSamples;
+        m_ringStart = (m_ringStart + hop) % m_chunkSizeInSamples;
+        m_ringFill -= hop;
+        final int overlap = m_ringFill;
+        fillRing();
+        return m_ringFill > overlap;
+    }
 
-        System.arraycopy(m_samples, m_pointer, buf, 0, chunkSizeInBytes);
-        m_pointer += chunkSizeInBytes;
-        final double maxSampleValue = AudioMethods.findMaximumSampleValue(bitsPerSample) + 2.0;
-        LOGGER.debug("maxSampleValue: " + maxSampleValue);
-        final double[][] samples = new double[nrOfChannels][m_chunkSizeInSamples];
-        ByteBuffer byteBuf = ByteBuffer.wrap(buf);
-        if (bitsPerSample == 8) {
-            for (int sample = 0; sample < m_chunkSizeInSamples; sample++) {
-                for (int channel = 0; channel < nrOfChannels; channel++) {
-                    samples[channel][sample] = byteBuf.get() / maxSampleValue;
-                }
+    /* Reads samples from the source until the ring is full or the source has ended */
+    private void fillRing() throws IOException {
+        final int capacity = m_chunkSizeInSamples;
+        while(m_ringFill < capacity){
+            final int pos = (m_ringStart + m_ringFill) % capacity;
+            /* Never read across the end of the ring, the rest is read in the next iteration */
+            final int framesToRead = (int)Math.min(Math.min(capacity - m_ringFill, capacity - pos),
+                getLastFrame() - m_position);
+            if(framesToRead <= 0){
+                m_endOfStream = true;
+                return;
             }
-        } else if (bitsPerSample == 16) {
-            ShortBuffer shortBuf = byteBuf.asShortBuffer();
-            for (int sample = 0; sample < m_chunkSizeInSamples; sample++) {
-                for (int channel = 0; channel < nrOfChannels; channel++) {
-                    samples[channel][sample] = shortBuf.get() / maxSampleValue;
-                }
+            final int framesRead = m_frameSource.read(m_ring, pos, framesToRead);
+            if(framesRead < 0){
+                m_endOfStream = true;
+                return;
             }
+            m_ringFill += framesRead;
+            m_position += framesRead;
         }
-
-        return samples;
     }
 
+    /**
+     * Closes the underlying stream and releases the ring buffer.
+     * @throws IOException
+     */
     public void closeStream() throws IOException {
+        if (m_frameSource != null) {
+            m_frameSource.close();
+            m_frameSource = null;
+        }
         if (m_audioInStream != null) {
             m_audioInStream.close();
             m_audioInStream = null;
@@ -280,168 +622,17 @@ public class SampleChunkFactory {
             m_inStream.close();
             m_inStream = null;
         }
-        m_pointer = 0;
-        m_samples = null;
-    }
-
-    public void reset(){
-        m_pointer = 0;
-    }
-
-//  private int calculateBytesToRead(final int chunkSize, final ChunkType chunkType) {
-//  final AudioFormat audioFormat = m_audioInStream.getFormat();
-//  int bytesToRead = 0;
-//  if (chunkType == ChunkType.BYTE) {
-//      bytesToRead = (int)(chunkSize * audioFormat.getFrameSize() * audioFormat.getFrameRate());
-//  } else if (chunkType == ChunkType.MONO_CHANNEL || chunkType == ChunkType.MULTI_CHANNELS) {
-//      final int normalizedBytes = AudioUtils.normalizeBytesFromBits(audioFormat.getSampleSizeInBits());
-//      bytesToRead = (chunkSize) * audioFormat.getChannels() * normalizedBytes;
-//  }
-//  return bytesToRead;
-//}
-
-//private void openStream() throws UnsupportedAudioFileException, IOException {
-//  if (m_audioInStream == null && m_inStream == null) {
-//      m_inStream = new BufferedInputStream(new FileInputStream(m_audio.getFile()));
-//      if (m_chunkType == ChunkType.BYTE && m_keepOriginalFormat) {
-//          m_audioInStream = AudioSystem.getAudioInputStream(m_inStream);
-//      } else {
-//          final AudioInputStream inStream = AudioSystem.getAudioInputStream(m_inStream);
-//          m_audioInStream = AudioUtils.convertUnsupportedFormat(inStream);
-//          m_samples = AudioUtils.getBytesFromAudioInputStream(m_audioInStream);
-//
-//          // TEST
-////          LOGGER.debug("Create dummy samples");
-////          LOGGER.debug("--------------------");
-////          m_samples = new byte[10000];
-////          new Random().nextBytes(m_samples);
-////          LOGGER.debug("m_samples length: " + m_samples.length);
-////          for (int i = 0; i < 20; i++) {
-////              LOGGER.debug("m_samples[" + i + "] = " + m_samples[i]);
-////          }
-//
-//      }
-//      m_pointer = 0;
-//      m_bytesToRead = calculateBytesToRead(m_chunkSize, m_chunkType);
-//  }
-//}
-
-    //    private SampleChunk nextByteSampleChunk() {
-    //        if(m_pointer >= m_samples.length){
-    //            return null;
-    //        }
-    //
-    ////        final AudioFormat audioFormat = m_stream.getFormat();
-    ////        final int normalizedBytes = AudioUtils.normalizeBytesFromBits(
-    ////            audioFormat.getSampleSizeInBits());
-    ////        int size = m_chunkSize * audioFormat.getChannels() * normalizedBytes;
-    //        int bytesToRead = calculateBytesToRead(m_chunkSize, m_chunkType);
-    //        final int rest = m_samples.length - m_pointer;
-    //        if(bytesToRead > rest){
-    //            bytesToRead = rest;
-    //        }
-    //        final byte[] buf = new byte[bytesToRead];
-    //        System.arraycopy(m_samples, m_pointer, buf, 0, bytesToRead);
-    //        m_pointer += bytesToRead;
-    //
-    //        return new ByteSampleChunk(m_audioInStream.getFormat(), buf);
-    //    }
-
-    //    private SampleChunk nextMonoChannelSampleChunk() throws IOException{
-    //        MultiChannelSampleChunk multiChannelChunk =
-    //                (MultiChannelSampleChunk) nextMultiChannelsSampleChunk();
-    //        if(multiChannelChunk == null){
-    //            return null;
-    //        }
-    //
-    //        final double[][] samples = multiChannelChunk.getSamples();
-    //        final double[] mixedDownSamples = DSPMethods
-    //                .getSamplesMixedDownIntoOneChannel(samples);
-    //
-    //        return new MonoChannelSampleChunk(m_stream.getFormat(), mixedDownSamples);
-    //    }
-
-    //    private SampleChunk nextMultiChannelsSampleChunk() throws IOException {
-    //        final AudioFormat audioFormat = m_audioInStream.getFormat();
-    //        final int bitsPerSample = audioFormat.getSampleSizeInBits();
-    //        final int bytesPerSample = bitsPerSample / 8;
-    //        final int nrOfChannels = audioFormat.getChannels();
-    //
-    //        final byte[] buf = new byte[m_bytesToRead];
-    //        final int totalRead = m_audioInStream.read(buf);
-    //        if(totalRead > 0){
-    //            final double[][] samples = new double[nrOfChannels][(int)m_chunkSize];
-    //            final double maxSampleValue = AudioMethods.findMaximumSampleValue(
-    //                bitsPerSample) + 2.0;
-    //            final ByteBuffer byteBuf = ByteBuffer.wrap(buf);
-    //            if (bitsPerSample == 8) {
-    //                for (int sample = 0; sample < m_chunkSize; sample++) {
-    //                    for (int channel = 0; channel < nrOfChannels; channel++) {
-    //                        try{
-    //                            samples[channel][sample] = byteBuf.get() / maxSampleValue;
-    //                        } catch(BufferUnderflowException ex){
-    //                            samples[channel][sample] = 0;
-    //                        }
-    //                    }
-    //                }
-    //            } else if (bitsPerSample == 16) {
-    //                ShortBuffer shortBuf = byteBuf.asShortBuffer();
-    //                for (int sample = 0; sample < m_chunkSize; sample++) {
-    //                    for (int channel = 0; channel < nrOfChannels; channel++) {
-    //                        try{
-    //                            samples[channel][sample] = shortBuf.get() / maxSampleValue;
-    //                        } catch(BufferUnderflowException ex){
-    //                            samples[channel][sample] = 0;
-    //                        }
-    //                    }
-    //                }
-    //            }
-    //        }
-    //
-    //
-    //        m_pointer = totalRead;
-    //
-    //        final int bytesOverlapOffset = m_chunkOverlapOffset * bytesPerSample * nrOfChannels;
-    //
-    //        return null;
-    //    }
-    //
-    //    private SampleChunk nextMonoChannelSampleChunk() throws IOException {
-    //        return null;
-    //    }
-
-    //    private SampleChunk nextMultiChannelsSampleChunk() throws IOException {
-    //        ByteSampleChunk byteChunk = (ByteSampleChunk) nextByteSampleChunk();
-    //        if(byteChunk == null){
-    //            return null;
-    //        }
-    //        final byte[] byteSamples = byteChunk.getSamples();
-    //        final AudioFormat audioFormat = m_stream.getFormat();
-    //        final int bitPerSample = audioFormat.getSampleSizeInBits();
-    //        final int bytesPerSample = bitPerSample / 8;
-    //        final int nrOfChannels = audioFormat.getChannels();
-    //        final int nrOfSamples = byteSamples.length / bytesPerSample / nrOfChannels;
-    //
-    //        final double[][] samples = new double[nrOfChannels][nrOfSamples];
-    //        final double maxSampleValue = AudioMethods.findMaximumSampleValue(
-    //            bitPerSample) + 2.0;
-    //        ByteBuffer byteBuf = ByteBuffer.wrap(byteSamples);
-    //        if(bitPerSample == 8){
-    //            for(int sample = 0; sample < nrOfSamples; sample++){
-    //                for(int channel = 0; channel < nrOfChannels; channel++){
-    //                    samples[channel][sample] = byteBuf.get() / maxSampleValue;
-    //                }
-    //            }
-    //        }else if(bitPerSample == 16){
-    //            ShortBuffer shortBuf = byteBuf.asShortBuffer();
-    //            for(int sample = 0; sample < nrOfSamples; sample++){
-    //                for(int channel = 0; channel < nrOfChannels; channel++){
-    //                    samples[channel][sample] = shortBuf.get() / maxSampleValue;
-    //                }
-    //            }
-    //        }
-    //
-    //        return new MultiChannelSampleChunk(audioFormat, samples);
-    //    }
+        m_ring = null;
+        m_window = null;
+    }
+
+    /**
+     * Starts again from the beginning of the audio by reopening the underlying stream.
+     * @throws UnsupportedAudioFileException
+     * @throws IOException
+     */
+    public void reset() throws UnsupportedAudioFileException, IOException {
+        seek(0L);
+    }
 
 }
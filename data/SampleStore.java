@@ -0,0 +1,328 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import org.knime.base.node.audio3.data.io.MappedAudioFile;
+
+import jAudioFeatureExtractor.jAudioTools.AudioMethods;
+
+/**
+ * Backing store of the samples of an {@link AudioSamples}. The samples can be
+ * kept in a more compact representation than <code>double</code> and are only
+ * converted when they are read, e.g. window by window.
+ *
+ * All values returned by a store are normalized to the range [-1, 1].
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public abstract class SampleStore {
+
+    /**
+     * Creates a store backed by the given <code>double</code> samples. The arrays are not copied.
+     * @param samples the samples, indexed by [channel][sample]
+     * @return the sample store
+     */
+    public static SampleStore ofDoubles(final double[][] samples) {
+        return new DoubleStore(samples);
+    }
+
+    /**
+     * Creates a store backed by the given <code>float</code> samples. The arrays are not copied.
+     * @param samples the samples, indexed by [channel][sample]
+     * @return the sample store
+     */
+    public static SampleStore ofFloats(final float[][] samples) {
+        return new FloatStore(samples);
+    }
+
+    /**
+     * Creates a store backed by raw signed PCM values of up to 16 bits. The arrays are not copied.
+     * @param samples the raw PCM values, indexed by [channel][sample]
+     * @param bitsPerSample the bit depth of the PCM values (8 or 16)
+     * @return the sample store
+     */
+    public static SampleStore ofPCM(final short[][] samples, final int bitsPerSample) {
+        if (bitsPerSample < 1 || bitsPerSample > 16) {
+            throw new IllegalArgumentException("Only bit depths up to 16 bits can be stored as short values.");
+        }
+        return new ShortStore(samples, bitsPerSample);
+    }
+
+    /**
+     * Creates a store reading the samples directly from the mapped data of the given file.
+     * @param file the memory-mapped audio file
+     * @return the sample store
+     */
+    public static SampleStore ofMappedFile(final MappedAudioFile file) {
+        return new MappedStore(file);
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public abstract int getNumberOfChannels();
+
+    /**
+     * @return the number of samples per channel
+     */
+    public abstract int getNumberOfSamples();
+
+    /**
+     * @param channel the channel
+     * @param index the index of the sample
+     * @return the normalized value of the sample
+     */
+    public abstract double get(int channel, int index);
+
+    /**
+     * Copies samples of one channel into the given array.
+     * @param channel the channel to read
+     * @param offset the index of the first sample to read
+     * @param dest the destination array
+     * @param destPos the position in the destination array
+     * @param length the number of samples to read
+     */
+    public void read(final int channel, final int offset, final double[] dest, final int destPos,
+            final int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = get(channel, offset + i);
+        }
+    }
+
+    /**
+     * Copies samples mixed down into one channel into the given array. The
+     * channels are mixed down by averaging them, like
+     * {@link jAudioFeatureExtractor.jAudioTools.DSPMethods#getSamplesMixedDownIntoOneChannel(double[][])}.
+     * @param offset the index of the first sample to read
+     * @param dest the destination array
+     * @param destPos the position in the destination array
+     * @param length the number of samples to read
+     */
+    public void readMixedDown(final int offset, final double[] dest, final int destPos,
+            final int length) {
+        read(0, offset, dest, destPos, length);
+        final int nrOfChannels = getNumberOfChannels();
+        if (nrOfChannels == 1) {
+            return;
+        }
+        for (int channel = 1; channel < nrOfChannels; channel++) {
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] += get(channel, offset + i);
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] /= nrOfChannels;
+        }
+    }
+
+    /**
+     * @return the samples converted to <code>double</code>, indexed by [channel][sample]
+     */
+    public double[][] toDoubles() {
+        final int nrOfSamples = getNumberOfSamples();
+        final double[][] samples = new double[getNumberOfChannels()][nrOfSamples];
+        for (int channel = 0; channel < samples.length; channel++) {
+            read(channel, 0, samples[channel], 0, nrOfSamples);
+        }
+        return samples;
+    }
+
+    /**
+     * @return the approximate number of bytes held in memory by this store
+     */
+    public abstract long getSizeInBytes();
+
+    private static class DoubleStore extends SampleStore {
+
+        private final double[][] m_samples;
+
+        DoubleStore(final double[][] samples) {
+            m_samples = samples;
+        }
+
+        @Override
+        public int getNumberOfChannels() {
+            return m_samples.length;
+        }
+
+        @Override
+        public int getNumberOfSamples() {
+            return m_samples.length == 0 ? 0 : m_samples[0].length;
+        }
+
+        @Override
+        public double get(final int channel, final int index) {
+            return m_samples[channel][index];
+        }
+
+        @Override
+        public void read(final int channel, final int offset, final double[] dest, final int destPos,
+                final int length) {
+            System.arraycopy(m_samples[channel], offset, dest, destPos, length);
+        }
+
+        @Override
+        public double[][] toDoubles() {
+            return m_samples;
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            return 8L * getNumberOfChannels() * getNumberOfSamples();
+        }
+    }
+
+    private static class FloatStore extends SampleStore {
+
+        private final float[][] m_samples;
+
+        FloatStore(final float[][] samples) {
+            m_samples = samples;
+        }
+
+        @Override
+        public int getNumberOfChannels() {
+            return m_samples.length;
+        }
+
+        @Override
+        public int getNumberOfSamples() {
+            return m_samples.length == 0 ? 0 : m_samples[0].length;
+        }
+
+        @Override
+        public double get(final int channel, final int index) {
+            return m_samples[channel][index];
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            return 4L * getNumberOfChannels() * getNumberOfSamples();
+        }
+    }
+
+    private static class ShortStore extends SampleStore {
+
+        private final short[][] m_samples;
+
+        private final double m_scale;
+
+        ShortStore(final short[][] samples, final int bitsPerSample) {
+            m_samples = samples;
+            /* Same normalization as the one used by jAudio, computed like the PCMDecoder does */
+            m_scale = 1.0 / (AudioMethods.findMaximumSampleValue(bitsPerSample) + 2.0);
+        }
+
+        @Override
+        public int getNumberOfChannels() {
+            return m_samples.length;
+        }
+
+        @Override
+        public int getNumberOfSamples() {
+            return m_samples.length == 0 ? 0 : m_samples[0].length;
+        }
+
+        @Override
+        public double get(final int channel, final int index) {
+            return m_samples[channel][index] * m_scale;
+        }
+
+        @Override
+        public void read(final int channel, final int offset, final double[] dest, final int destPos,
+                final int length) {
+            final short[] samples = m_samples[channel];
+            for (int i = 0; i < length; i++) {
+                dest[destPos + i] = samples[offset + i] * m_scale;
+            }
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            return 2L * getNumberOfChannels() * getNumberOfSamples();
+        }
+    }
+
+    private static class MappedStore extends SampleStore {
+
+        private final MappedAudioFile m_file;
+
+        MappedStore(final MappedAudioFile file) {
+            m_file = file;
+        }
+
+        @Override
+        public int getNumberOfChannels() {
+            return m_file.getFormat().getChannels();
+        }
+
+        @Override
+        public int getNumberOfSamples() {
+            return m_file.getFrameLength();
+        }
+
+        @Override
+        public double get(final int channel, final int index) {
+            return m_file.getSample(channel, index);
+        }
+
+        @Override
+        public void read(final int channel, final int offset, final double[] dest, final int destPos,
+                final int length) {
+            m_file.read(channel, offset, dest, destPos, length);
+        }
+
+        @Override
+        public long getSizeInBytes() {
+            /* The samples live in the page cache and not on the heap */
+            return 0;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * {@link FrameSource} reading the frames from the {@link SampleStore} of an
+ * {@link AudioSamples}, e.g. a memory-mapped file or cached samples.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+class SampleStoreFrameSource implements FrameSource {
+
+    private final AudioFormat m_format;
+
+    private final SampleStore m_store;
+
+    private int m_position;
+
+    /**
+     * @param samples the samples to read from
+     */
+    SampleStoreFrameSource(final AudioSamples samples) {
+        m_format = samples.getAudioFormat();
+        m_store = samples.getStore();
+        m_position = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AudioFormat getFormat() {
+        return m_format;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final double[][] dest, final int destPos, final int frames) {
+        final int available = m_store.getNumberOfSamples() - m_position;
+        if (available <= 0) {
+            return -1;
+        }
+        final int toRead = Math.min(frames, available);
+        for (int channel = 0; channel < dest.length; channel++) {
+            m_store.read(channel, m_position, dest[channel], destPos, toRead);
+        }
+        m_position += toRead;
+        return toRead;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(final long frames) {
+        final int toSkip = (int)Math.max(0, Math.min(frames, m_store.getNumberOfSamples() - m_position));
+        m_position += toSkip;
+        return toSkip;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // nothing to close, the samples are released by the garbage collector
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.knime.base.node.audio3.data.io.PCMDecoder;
+import org.knime.base.node.audio3.util.AudioSampleCache;
+import org.knime.base.node.audio3.util.AudioUtils;
+
+/**
+ * {@link FrameSource} decoding the frames from an {@link AudioInputStream}
+ * containing PCM data supported by the {@link PCMDecoder}.
+ *
+ * If a file is given, the decoded frames are also collected and put into the
+ * {@link AudioSampleCache} once the end of the stream has been reached, so
+ * that the file doesn't have to be decoded again. Collecting stops if the
+ * samples don't fit into the heap budget of the cache. While collecting,
+ * skipped frames are decoded and collected as well.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+class StreamFrameSource implements FrameSource {
+
+    /** Number of frames read from the underlying stream at once */
+    private static final int READ_BLOCK_SIZE_IN_FRAMES = 4096;
+
+    private final AudioInputStream m_audioInStream;
+
+    private final PCMDecoder m_decoder;
+
+    private final byte[] m_readBuffer;
+
+    /* Number of bytes of an incomplete frame left over from the previous read */
+    private int m_leftOver;
+
+    /* The file whose samples are collected for the cache, null if they aren't collected */
+    private File m_cacheFile;
+
+    private short[][] m_cacheShorts;
+
+    private float[][] m_cacheFloats;
+
+    private int m_cacheFrames;
+
+    /**
+     * @param audioInStream the stream to read from, must contain PCM data supported by the {@link PCMDecoder}
+     */
+    StreamFrameSource(final AudioInputStream audioInStream) {
+        this(audioInStream, null);
+    }
+
+    /**
+     * @param audioInStream the stream to read from, must contain PCM data supported by the {@link PCMDecoder}
+     * @param cacheFile the file the stream has been opened from, whose samples are put into the
+     * {@link AudioSampleCache}, or <code>null</code> if they shouldn't be cached
+     */
+    StreamFrameSource(final AudioInputStream audioInStream, final File cacheFile) {
+        m_audioInStream = audioInStream;
+        m_decoder = new PCMDecoder(audioInStream.getFormat());
+        m_readBuffer = new byte[READ_BLOCK_SIZE_IN_FRAMES * m_decoder.getFrameSize()];
+        m_leftOver = 0;
+        final long frameLength = audioInStream.getFrameLength();
+        if (cacheFile != null && (frameLength < 0 || fitsIntoCache(frameLength))) {
+            final int capacity = frameLength > 0 ? (int)frameLength : READ_BLOCK_SIZE_IN_FRAMES;
+            final int nrOfChannels = m_decoder.getNumberOfChannels();
+            m_cacheFile = cacheFile;
+            if (m_decoder.isShortCompatible()) {
+                m_cacheShorts = new short[nrOfChannels][capacity];
+            } else {
+                m_cacheFloats = new float[nrOfChannels][capacity];
+            }
+            m_cacheFrames = 0;
+        }
+    }
+
+    private boolean fitsIntoCache(final long frames) {
+        final long bytesPerSample = m_decoder.isShortCompatible() ? 2 : 4;
+        return frames <= Integer.MAX_VALUE && frames * bytesPerSample * m_decoder.getNumberOfChannels()
+                <= AudioSampleCache.getInstance().getHeapBudget();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AudioFormat getFormat() {
+        return m_audioInStream.getFormat();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final double[][] dest, final int destPos, final int frames) throws IOException {
+        final int frameSize = m_decoder.getFrameSize();
+        final int bytesToRead = Math.min(frames, READ_BLOCK_SIZE_IN_FRAMES) * frameSize - m_leftOver;
+        final int bytesRead = m_audioInStream.read(m_readBuffer, m_leftOver, bytesToRead);
+        if(bytesRead < 0){
+            putIntoCache();
+            return -1;
+        }
+        final int available = m_leftOver + bytesRead;
+        final int framesRead = available / frameSize;
+        m_decoder.decode(m_readBuffer, 0, dest, destPos, framesRead);
+        if(m_cacheFile != null){
+            collect(dest, destPos, framesRead);
+        }
+        m_leftOver = available - framesRead * frameSize;
+        System.arraycopy(m_readBuffer, framesRead * frameSize, m_readBuffer, 0, m_leftOver);
+        return framesRead;
+    }
+
+    /* Appends the frames just decoded into the read buffer and the given arrays to the collected samples */
+    private void collect(final double[][] decoded, final int decodedPos, final int frames) {
+        final int capacity = m_cacheShorts != null ? m_cacheShorts[0].length : m_cacheFloats[0].length;
+        if (m_cacheFrames + frames > capacity) {
+            final long newCapacity = Math.max(2L * capacity, (long)m_cacheFrames + frames);
+            if (!fitsIntoCache((long)m_cacheFrames + frames)) {
+                stopCollecting();
+                return;
+            }
+            for (int channel = 0; channel < m_decoder.getNumberOfChannels(); channel++) {
+                if (m_cacheShorts != null) {
+                    m_cacheShorts[channel] = Arrays.copyOf(m_cacheShorts[channel],
+                        (int)Math.min(newCapacity, Integer.MAX_VALUE));
+                } else {
+                    m_cacheFloats[channel] = Arrays.copyOf(m_cacheFloats[channel],
+                        (int)Math.min(newCapacity, Integer.MAX_VALUE));
+                }
+            }
+        }
+        if (m_cacheShorts != null) {
+            m_decoder.decodeRaw(ByteBuffer.wrap(m_readBuffer), 0, m_cacheShorts, m_cacheFrames, frames);
+        } else {
+            for (int channel = 0; channel < m_cacheFloats.length; channel++) {
+                final float[] channelCache = m_cacheFloats[channel];
+                final double[] channelDecoded = decoded[channel];
+                for (int i = 0; i < frames; i++) {
+                    channelCache[m_cacheFrames + i] = (float)channelDecoded[decodedPos + i];
+                }
+            }
+        }
+        m_cacheFrames += frames;
+    }
+
+    private void putIntoCache() {
+        if (m_cacheFile == null) {
+            return;
+        }
+        final AudioFormat format = getFormat();
+        final AudioSampleCache cache = AudioSampleCache.getInstance();
+        if (m_cacheShorts != null) {
+            for (int channel = 0; channel < m_cacheShorts.length; channel++) {
+                if (m_cacheShorts[channel].length != m_cacheFrames) {
+                    m_cacheShorts[channel] = Arrays.copyOf(m_cacheShorts[channel], m_cacheFrames);
+                }
+            }
+            cache.put(m_cacheFile, format, m_cacheShorts,
+                AudioUtils.normalizeBitDepthFromBits(format.getSampleSizeInBits()));
+        } else {
+            for (int channel = 0; channel < m_cacheFloats.length; channel++) {
+                if (m_cacheFloats[channel].length != m_cacheFrames) {
+                    m_cacheFloats[channel] = Arrays.copyOf(m_cacheFloats[channel], m_cacheFrames);
+                }
+            }
+            cache.put(m_cacheFile, format, m_cacheFloats);
+        }
+        stopCollecting();
+    }
+
+    private void stopCollecting() {
+        m_cacheFile = null;
+        m_cacheShorts = null;
+        m_cacheFloats = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Skips the bytes in the underlying stream, which doesn't decode them if the
+     * stream reads uncompressed data from a file. While the samples are collected
+     * for the cache, the skipped frames are decoded instead.
+     */
+    @Override
+    public long skip(final long frames) throws IOException {
+        if(m_cacheFile != null){
+            /* The skipped frames have to be decoded to be collected */
+            return FrameSource.super.skip(frames);
+        }
+        if(m_leftOver != 0){
+            /* The stream isn't aligned to a frame anymore */
+            return FrameSource.super.skip(frames);
+        }
+        final int frameSize = m_decoder.getFrameSize();
+        long remaining = frames * frameSize;
+        while(remaining > 0){
+            long skipped = m_audioInStream.skip(remaining);
+            if(skipped <= 0){
+                /* Not every stream supports skipping, read the bytes instead */
+                skipped = m_audioInStream.read(m_readBuffer, 0, (int)Math.min(remaining, m_readBuffer.length));
+                if(skipped < 0){
+                    break;
+                }
+            }
+            remaining -= skipped;
+        }
+        return frames - (remaining + frameSize - 1) / frameSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        m_audioInStream.close();
+    }
+
+}
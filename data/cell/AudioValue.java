@@ -54,6 +54,7 @@ import javax.swing.Icon;
 import javax.swing.ImageIcon;
 
 import org.knime.base.node.audio3.data.Audio;
+import org.knime.base.node.audio3.data.AudioHeader;
 import org.knime.core.data.DataValue;
 import org.knime.core.data.DataValueComparator;
 import org.knime.core.data.ExtensibleUtilityFactory;
@@ -69,6 +70,15 @@ public interface AudioValue extends DataValue {
      */
     Audio getAudio();
 
+    /**
+     * @return the header of the audio file holding its sample rate, number of
+     * channels, sample size, encoding and length, or <code>null</code> if it is
+     * not available
+     */
+    default AudioHeader getAudioHeader(){
+        return getAudio().getHeader();
+    }
+
     /**
      * Returns whether the two audio values have the same content.
      *
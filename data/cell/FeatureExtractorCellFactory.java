@@ -48,31 +48,58 @@
  */
 package org.knime.base.node.audio3.data.cell;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedHashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
 
 import org.apache.commons.lang.StringUtils;
 import org.knime.base.node.audio3.data.Audio;
-import org.knime.base.node.audio3.data.AudioSamples;
+import org.knime.base.node.audio3.data.AudioWindow;
+import org.knime.base.node.audio3.data.SampleChunkFactory;
 import org.knime.base.node.audio3.data.feature.FeatureExtractor;
 import org.knime.base.node.audio3.data.feature.FeatureType;
+import org.knime.base.node.audio3.data.feature.RealFFT;
+import org.knime.base.node.audio3.data.feature.Spectrum;
+import org.knime.base.node.audio3.data.io.MappedSpectrogram;
 import org.knime.base.node.audio3.util.AudioUtils;
-import org.knime.base.node.audio3.util.MathUtils;
+import org.knime.base.node.audio3.util.FeatureCache;
+import org.knime.base.node.audio3.util.SpectrogramCache;
+import org.knime.base.node.audio3.util.StreamingStatistics;
 import org.knime.core.data.DataCell;
 import org.knime.core.data.DataColumnSpec;
 import org.knime.core.data.DataRow;
+import org.knime.core.data.RowKey;
 import org.knime.core.data.container.AbstractCellFactory;
+import org.knime.core.data.def.DefaultRow;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.core.node.BufferedDataContainer;
+import org.knime.core.node.CanceledExecutionException;
+import org.knime.core.node.ExecutionMonitor;
 import org.knime.core.node.NodeLogger;
 
 /**
  * The {@link AbstractCellFactory} implementation of the AudioFeatureExtractor node
  * that creates a cell for each selected document property.
  *
+ * Each row is processed with its own chunk factory and only reads the configuration
+ * of this factory, so rows can be processed in parallel by enabling
+ * {@link #setParallelProcessing(boolean, int, int)}. Otherwise long audio files
+ * with random access are split into ranges of windows that are processed by
+ * fork/join tasks, and independent extractors are applied concurrently. Neither
+ * is done if the rows are processed in parallel, which already keeps the cores busy.
+ *
+ * The features are aggregated while the windows are read, so only the features
+ * of the current window are kept in memory. The statistics of the window ranges
+ * are merged in a fixed order, so the result doesn't depend on the scheduling
+ * of the tasks.
+ *
  * @author Budi Yanto, KNIME.com
  */
 public class FeatureExtractorCellFactory extends AbstractCellFactory{
@@ -80,12 +107,33 @@ public class FeatureExtractorCellFactory extends AbstractCellFactory{
     private static final NodeLogger LOGGER = NodeLogger.getLogger(
         FeatureExtractorCellFactory.class);
 
+    /* Part of the cache keys, to be increased whenever the extracted values change */
+    private static final String CACHE_VERSION = "4";
+
+    /* Number of windows between the cancellation checks of the per window output */
+    private static final int WINDOWS_PER_PROGRESS = 64;
+
+    /* Minimum number of windows extracted by one fork/join task */
+    private static final int MIN_WINDOWS_PER_TASK = 1024;
+
     private final int m_audioColIdx;
     private final FeatureExtractor[] m_extractors;
     private final int m_windowSizeInSamples;
     private final int m_windowsOverlapInPercent;
-    private final FeatureExtractor.Aggregator m_aggregator;
-    private final Set<FeatureExtractor> m_sortedExtractors;
+    private final FeatureExtractor.Aggregator[] m_aggregators;
+    private final boolean m_computeQuantiles;
+    private final int m_targetSampleRate;
+    private double m_startTimeInSeconds = 0;
+    private double m_endTimeInSeconds = 0;
+    private boolean m_vectorOutput = false;
+    private boolean m_matrixOutput = false;
+    private boolean m_compressMatrix = false;
+    private FileStoreFactory m_fileStoreFactory = null;
+    private FeatureCache m_featureCache = null;
+    private SpectrogramCache m_spectrogramCache = null;
+    private boolean m_parallelRows = false;
+    /* Extractors including the ones of the dependencies */
+    private final FeatureGraph m_graph;
 
     /**
      *
@@ -100,20 +148,154 @@ public class FeatureExtractorCellFactory extends AbstractCellFactory{
             final DataColumnSpec[] colSpecs, final FeatureExtractor[] extractors,
             final int windowSizeInSamples, final int windowsOverlapInPercent,
             final String aggregatorMethod){
+        this(audioColIdx, colSpecs, extractors, windowSizeInSamples, windowsOverlapInPercent,
+            aggregatorMethod, SampleChunkFactory.ORIGINAL_SAMPLE_RATE);
+    }
+
+    /**
+     *
+     * @param audioColIdx
+     * @param colSpecs
+     * @param extractors
+     * @param windowSizeInSamples
+     * @param windowsOverlapInPercent
+     * @param aggregatorMethod
+     * @param targetSampleRate the sample rate the audio is resampled to before
+     * the features are extracted, {@link SampleChunkFactory#ORIGINAL_SAMPLE_RATE}
+     * to keep the original sample rate
+     */
+    public FeatureExtractorCellFactory(final int audioColIdx,
+            final DataColumnSpec[] colSpecs, final FeatureExtractor[] extractors,
+            final int windowSizeInSamples, final int windowsOverlapInPercent,
+            final String aggregatorMethod, final int targetSampleRate){
+        this(audioColIdx, colSpecs, extractors, windowSizeInSamples, windowsOverlapInPercent,
+            new String[]{aggregatorMethod}, targetSampleRate);
+    }
+
+    /**
+     * Creates a factory that aggregates the features with several aggregators in
+     * one pass. The cells contain the features of all extractors for the first
+     * aggregator, followed by the features of all extractors for the next one.
+     *
+     * @param audioColIdx
+     * @param colSpecs
+     * @param extractors
+     * @param windowSizeInSamples
+     * @param windowsOverlapInPercent
+     * @param aggregatorMethods the names of the aggregators
+     * @param targetSampleRate the sample rate the audio is resampled to before
+     * the features are extracted, {@link SampleChunkFactory#ORIGINAL_SAMPLE_RATE}
+     * to keep the original sample rate
+     */
+    public FeatureExtractorCellFactory(final int audioColIdx,
+            final DataColumnSpec[] colSpecs, final FeatureExtractor[] extractors,
+            final int windowSizeInSamples, final int windowsOverlapInPercent,
+            final String[] aggregatorMethods, final int targetSampleRate){
         super(colSpecs);
         if (audioColIdx < 0) {
             throw new IllegalArgumentException("Invalid audio column");
         }
 
-        if(StringUtils.isBlank(aggregatorMethod)){
+        if(aggregatorMethods == null || aggregatorMethods.length == 0){
             throw new IllegalArgumentException("Aggregator method cannot be empty");
         }
+        m_aggregators = new FeatureExtractor.Aggregator[aggregatorMethods.length];
+        boolean computeQuantiles = false;
+        for(int i = 0; i < aggregatorMethods.length; i++){
+            if(StringUtils.isBlank(aggregatorMethods[i])){
+                throw new IllegalArgumentException("Aggregator method cannot be empty");
+            }
+            m_aggregators[i] = FeatureExtractor.getAggregator(aggregatorMethods[i]);
+            if(m_aggregators[i] == null){
+                throw new IllegalArgumentException("Unknown aggregator method: " + aggregatorMethods[i]);
+            }
+            computeQuantiles |= m_aggregators[i].isQuantile();
+        }
+        m_computeQuantiles = computeQuantiles;
         m_audioColIdx = audioColIdx;
         m_extractors = extractors;
         m_windowSizeInSamples = windowSizeInSamples;
         m_windowsOverlapInPercent = windowsOverlapInPercent;
-        m_aggregator = FeatureExtractor.getAggregator(aggregatorMethod);
-        m_sortedExtractors = sortExtractors(extractors);
+        m_targetSampleRate = targetSampleRate;
+        m_graph = new FeatureGraph(extractors);
+    }
+
+    /**
+     * Restricts the feature extraction to a time range of the audio. Only the
+     * samples within this range are decoded.
+     * @param startTimeInSeconds the start of the range in seconds
+     * @param endTimeInSeconds the end of the range in seconds, 0 to extract
+     * until the end of the audio
+     */
+    public void setTimeRange(final double startTimeInSeconds, final double endTimeInSeconds){
+        if(startTimeInSeconds < 0 || endTimeInSeconds < 0){
+            throw new IllegalArgumentException("Start and end time cannot be negative");
+        }
+        if(endTimeInSeconds > 0 && endTimeInSeconds <= startTimeInSeconds){
+            throw new IllegalArgumentException("End time must be after the start time");
+        }
+        m_startTimeInSeconds = startTimeInSeconds;
+        m_endTimeInSeconds = endTimeInSeconds;
+    }
+
+    /**
+     * Sets whether each feature is put into a single vector cell instead of
+     * one cell per dimension. The column specs must match this setting.
+     * @param vectorOutput <code>true</code> to create one vector cell per feature
+     */
+    public void setVectorOutput(final boolean vectorOutput){
+        m_vectorOutput = vectorOutput;
+    }
+
+    /**
+     * Sets whether a cell containing the features of all windows as a
+     * {@link FeatureMatrixValue} is created for each extractor. These cells
+     * follow the aggregated features. The matrices are written to file stores
+     * of the given factory and accessed memory-mapped, or kept in the table if
+     * no factory is given. The column specs must match this setting.
+     *
+     * @param matrixOutput <code>true</code> to create the feature matrix cells
+     * @param compress <code>true</code> to compress the matrices kept in the table
+     * @param fileStoreFactory the factory of the file stores, <code>null</code> to
+     * keep the matrices in the table
+     */
+    public void setMatrixOutput(final boolean matrixOutput, final boolean compress,
+            final FileStoreFactory fileStoreFactory){
+        m_matrixOutput = matrixOutput;
+        m_compressMatrix = compress;
+        m_fileStoreFactory = fileStoreFactory;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The windows of a row are only processed concurrently if the rows aren't.
+     */
+    @Override
+    public void setParallelProcessing(final boolean parallelProcessing, final int maxParallelWorkers,
+            final int maxQueueSize){
+        super.setParallelProcessing(parallelProcessing, maxParallelWorkers, maxQueueSize);
+        m_parallelRows = parallelProcessing && maxParallelWorkers > 1;
+    }
+
+    /**
+     * Sets the cache of the aggregated features. The features of audio files
+     * which haven't changed since they were cached are not extracted again.
+     * Feature matrices are never cached.
+     * @param featureCache the cache or <code>null</code> to always extract the features
+     */
+    public void setFeatureCache(final FeatureCache featureCache){
+        m_featureCache = featureCache;
+    }
+
+    /**
+     * Sets the cache of the power spectra of the windows. The spectra of
+     * audio files which haven't changed since they were cached are read from the
+     * cache instead of being computed, e.g. if only the parameters of the
+     * extractors depending on them have changed.
+     * @param spectrogramCache the cache or <code>null</code> to always compute the spectra
+     */
+    public void setSpectrogramCache(final SpectrogramCache spectrogramCache){
+        m_spectrogramCache = spectrogramCache;
     }
 
     /**
@@ -129,160 +311,490 @@ public class FeatureExtractorCellFactory extends AbstractCellFactory{
 
         final Audio audio = ((AudioCell) cell).getAudio();
 
+        SampleChunkFactory chunkFactory = null;
+        FeatureMatrixBuilder[] matrixBuilders = null;
+        MappedSpectrogram.Writer spectrogramWriter = null;
         try {
-            final AudioSamples audioSamples = AudioUtils.getAudioSamples(audio);
-            final int windowOverlapOffset = (int)((m_windowsOverlapInPercent / 100f)
-                    * m_windowSizeInSamples);
-
-            /* Get chunk start indices */
-            LOGGER.debug("Get chunk start indices");
-            final List<Integer> chunkIndices = getChunkStartIndices(audioSamples,
-                m_windowSizeInSamples, windowOverlapOffset);
-
-            /* Sort the feature extractors */
-//            LOGGER.debug("Sort the feature extractors");
-//            final Set<FeatureExtractor> sortedExtractors = sortExtractors(m_extractors);
-
-            /* Extract features per chunk */
-            LOGGER.debug("Extract features per chunk");
-            final Map<FeatureType, List<double[]>> featuresPerChunk =
-                    extractFeaturesPerChunk(m_sortedExtractors, chunkIndices,
-                        audioSamples, m_windowSizeInSamples);
-
-            /* Aggregate all of the features */
-            LOGGER.debug("Aggregate the features");
-            final Map<FeatureType, double[]> aggregatedFeatures =
-                    aggregateFeatures(featuresPerChunk, m_aggregator);
-
-            /* Put extracted features into DoubleCell */
+            /* The aggregated features of unchanged files are taken from the cache */
+            final String cacheKey = m_featureCache != null && !m_matrixOutput
+                    ? FeatureCache.createKey(audio.getFile(), getCacheConfiguration()) : null;
+            double[][] aggregatedFeatures = cacheKey != null ? m_featureCache.get(cacheKey) : null;
+            if(aggregatedFeatures == null){
+                if(m_matrixOutput){
+                    matrixBuilders = createMatrixBuilders();
+                }
+
+                /* The spectra are read from the spectrogram cache or written into it */
+                MappedSpectrogram spectrogram = null;
+                if(m_spectrogramCache != null && m_graph.usesSpectrum()){
+                    final float sampleRate = getWindowSampleRate(audio);
+                    final String configuration = getSpectrogramConfiguration();
+                    spectrogram = m_spectrogramCache.get(audio.getFile(), configuration);
+                    if(spectrogram != null && (spectrogram.getSampleRate() != sampleRate
+                            || spectrogram.getWindowSize() != m_windowSizeInSamples)){
+                        spectrogram = null;
+                    }
+                    if(spectrogram == null){
+                        spectrogramWriter = m_spectrogramCache.create(audio.getFile(), configuration,
+                            sampleRate, m_windowSizeInSamples,
+                            RealFFT.ensureIsPowerOfTwo(m_windowSizeInSamples));
+                    }
+                }
+
+                /* Extract the features per chunk and aggregate them on the fly */
+                final StreamingStatistics[] statistics;
+                final FeatureGraph.Execution execution = m_graph.createExecution(!m_parallelRows);
+                if(spectrogram != null){
+                    execution.prepare(spectrogram.getSampleRate(), spectrogram.getWindowSize());
+                }
+                if(spectrogram != null && !execution.needsWindow()){
+                    /* Nothing but the spectra is needed, so the audio isn't opened at all */
+                    LOGGER.debug("Extract features of the cached spectrogram of '" + audio.getName() + "'");
+                    statistics = extractFeatures(execution, spectrogram, matrixBuilders);
+                }else{
+                    /* Stream the audio window by window instead of decoding the whole file */
+                    chunkFactory = createChunkFactory(audio);
+                    final long nrOfWindows = chunkFactory.getNumberOfWindows();
+                    if(!m_parallelRows && matrixBuilders == null && nrOfWindows >= 2 * MIN_WINDOWS_PER_TASK
+                            && nrOfWindows <= Integer.MAX_VALUE){
+                        LOGGER.debug("Extract features of " + nrOfWindows + " chunks in parallel");
+                        closeQuietly(chunkFactory);
+                        chunkFactory = null;
+                        statistics = ForkJoinPool.commonPool().invoke(
+                            new WindowRangeTask(audio, 0, (int)nrOfWindows, spectrogram, spectrogramWriter));
+                    }else{
+                        /* The frames of the feature matrices are written in window order by a single pass */
+                        LOGGER.debug("Extract features per chunk");
+                        statistics = extractFeatures(execution, chunkFactory, matrixBuilders,
+                            spectrogram, spectrogramWriter);
+                    }
+                }
+                if(spectrogramWriter != null && !spectrogramWriter.isClosed()){
+                    try{
+                        spectrogramWriter.commit();
+                    }catch(IOException ex){
+                        LOGGER.debug("Cannot cache the spectrogram of '" + audio.getName() + "': "
+                                + ex.getMessage());
+                    }
+                }
+
+                /* One group of features per aggregator */
+                aggregatedFeatures = new double[m_aggregators.length * m_extractors.length][];
+                for(int a = 0; a < m_aggregators.length; a++){
+                    for(int i = 0; i < m_extractors.length; i++){
+                        aggregatedFeatures[a * m_extractors.length + i] =
+                                aggregate(statistics[i], m_aggregators[a]);
+                    }
+                }
+                if(cacheKey != null){
+                    m_featureCache.put(cacheKey, aggregatedFeatures);
+                }
+            }else{
+                LOGGER.debug("Take the features of '" + audio.getName() + "' from the cache");
+            }
+
+            /* Put extracted features into DoubleCell, one group of cells per aggregator */
             int cellIdx = 0;
-            for(FeatureExtractor extractor : m_extractors){
-                final double[] features = aggregatedFeatures.get(extractor.getType());
-
-                final DataCell[] featureCells = extractor.getType()
-                        .getDataCells(features);
-                final int totalCells = featureCells.length;
-                LOGGER.debug("Put features of '" + extractor.getType().getName()
-                    + "' into cell location " + cellIdx + " - "
-                        + (cellIdx + totalCells - 1));
-                System.arraycopy(featureCells, 0, cells, cellIdx, totalCells);
-                cellIdx += totalCells;
+            for(int a = 0; a < m_aggregators.length; a++){
+                final FeatureExtractor.Aggregator aggregator = m_aggregators[a];
+                for(int i = 0; i < m_extractors.length; i++){
+                    final FeatureExtractor extractor = m_extractors[i];
+                    final double[] features = aggregatedFeatures[a * m_extractors.length + i];
+
+                    final DataCell[] featureCells = createCells(extractor.getType(), features);
+                    final int totalCells = featureCells.length;
+                    LOGGER.debug("Put " + aggregator.getName() + " of '" + extractor.getType().getName()
+                        + "' into cell location " + cellIdx + " - "
+                            + (cellIdx + totalCells - 1));
+                    System.arraycopy(featureCells, 0, cells, cellIdx, totalCells);
+                    cellIdx += totalCells;
+                }
+            }
+
+            /* Put the feature matrices after the aggregated features */
+            if(matrixBuilders != null){
+                for(int i = 0; i < matrixBuilders.length; i++){
+                    cells[cellIdx++] = matrixBuilders[i].build();
+                }
+                matrixBuilders = null;
             }
         } catch (Exception ex) {
             LOGGER.error(ex);
+        } finally {
+            closeQuietly(chunkFactory);
+            closeQuietly(spectrogramWriter);
+            if(matrixBuilders != null){
+                for(FeatureMatrixBuilder builder : matrixBuilders){
+                    if(builder != null){
+                        builder.discard();
+                    }
+                }
+            }
         }
 
         return cells;
     }
 
-    private Set<FeatureExtractor> sortExtractors(final FeatureExtractor[] extractors) {
-        LOGGER.debug("Sort the feature extractors");
-        final Set<FeatureExtractor> result = new LinkedHashSet<FeatureExtractor>();
-        final Map<FeatureType, FeatureExtractor> temp = new HashMap<FeatureType, FeatureExtractor>();
+    /**
+     * Extracts the features of each window of the audio in the given row and adds
+     * one row per window to the given container as soon as the window has been
+     * processed, so nothing is kept per audio. The rows contain the key of the given
+     * row, the index and the start time in seconds of the window, followed by the
+     * features of the extractors in their order. The aggregators are ignored.
+     *
+     * @param row the row containing the audio
+     * @param container the container receiving the rows of the windows
+     * @param exec the monitor to report the progress within the audio and to
+     * check for cancellation
+     * @return the number of rows added to the container
+     * @throws CanceledExecutionException if the execution has been canceled
+     * @throws IllegalStateException if the features cannot be extracted, the
+     * rows of the windows processed so far remain in the container
+     */
+    public long addWindowRows(final DataRow row, final BufferedDataContainer container,
+            final ExecutionMonitor exec) throws CanceledExecutionException {
+        final DataCell cell = row.getCell(m_audioColIdx);
+        if(!cell.getType().isCompatible(AudioValue.class)){
+            throw new IllegalStateException("Invalid column type");
+        }
 
-        final Set<FeatureType> orderedTypes = new LinkedHashSet<FeatureType>();
-        for (FeatureExtractor ext : extractors) {
-            temp.put(ext.getType(), ext);
-            sortFeatureType(ext.getType(), orderedTypes);
+        final Audio audio = ((AudioCell) cell).getAudio();
+        final String rowKey = row.getKey().getString();
+        final DataCell rowKeyCell = new StringCell(rowKey);
+        final int nrOfCells = getColumnSpecs().length + 3;
+        long nrOfRows = 0;
+
+        SampleChunkFactory chunkFactory = null;
+        try {
+            chunkFactory = createChunkFactory(audio);
+            final FeatureGraph.Execution execution = m_graph.createExecution(!m_parallelRows);
+            final long nrOfWindows = chunkFactory.getNumberOfWindows();
+            AudioWindow window;
+            while ((window = chunkFactory.nextWindow()) != null) {
+                if(nrOfRows % WINDOWS_PER_PROGRESS == 0){
+                    exec.checkCanceled();
+                    if(nrOfWindows > 0){
+                        exec.setProgress(nrOfRows / (double)nrOfWindows);
+                    }
+                }
+                execution.extract(window);
+                final DataCell[] cells = new DataCell[nrOfCells];
+                cells[0] = rowKeyCell;
+                cells[1] = new IntCell(window.getIndex());
+                cells[2] = new DoubleCell(window.getStartFrame()
+                    / (double)window.getAudioFormat().getSampleRate());
+                int cellIdx = 3;
+                for(int i = 0; i < m_extractors.length; i++){
+                    final DataCell[] featureCells = createCells(m_extractors[i].getType(),
+                        execution.getFeatures(i));
+                    System.arraycopy(featureCells, 0, cells, cellIdx, featureCells.length);
+                    cellIdx += featureCells.length;
+                }
+                container.addRowToTable(new DefaultRow(
+                    new RowKey(rowKey + "#" + window.getIndex()), cells));
+                nrOfRows++;
+            }
+        } catch (CanceledExecutionException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException("Cannot extract the features of row '" + rowKey
+                + "' after " + nrOfRows + " windows: " + ex.getMessage(), ex);
+        } finally {
+            closeQuietly(chunkFactory);
         }
+        return nrOfRows;
+    }
 
-        for (FeatureType type : orderedTypes) {
-            if (temp.containsKey(type)) {
-                result.add(temp.get(type));
-            } else {
-                result.add(FeatureExtractor.getFeatureExtractor(type));
+    private FeatureMatrixBuilder[] createMatrixBuilders() throws IOException{
+        final FeatureMatrixBuilder[] builders = new FeatureMatrixBuilder[m_extractors.length];
+        try{
+            for(int i = 0; i < builders.length; i++){
+                if(m_fileStoreFactory == null){
+                    builders[i] = new FeatureMatrixBuilder(m_compressMatrix);
+                }else{
+                    final FileStore fileStore;
+                    /* Rows may be processed in parallel */
+                    synchronized(m_fileStoreFactory){
+                        fileStore = m_fileStoreFactory.createFileStore(
+                            "feature-matrix-" + UUID.randomUUID().toString());
+                    }
+                    builders[i] = new FeatureMatrixBuilder(fileStore);
+                }
             }
+        }catch(IOException ex){
+            for(FeatureMatrixBuilder builder : builders){
+                if(builder != null){
+                    builder.discard();
+                }
+            }
+            throw ex;
         }
+        return builders;
+    }
 
-        return result;
+    private DataCell[] createCells(final FeatureType type, final double[] features){
+        if(m_vectorOutput){
+            return new DataCell[]{FeatureType.getVectorCell(features)};
+        }
+        return type.getDataCells(features);
+    }
+
+    /* The sample rate of the windows, determined without decoding the audio */
+    private float getWindowSampleRate(final Audio audio) throws UnsupportedAudioFileException, IOException{
+        if(m_targetSampleRate != SampleChunkFactory.ORIGINAL_SAMPLE_RATE){
+            return m_targetSampleRate;
+        }
+        return AudioUtils.getSampleRate(audio);
     }
 
-    private static void sortFeatureType(final FeatureType type, final Set<FeatureType> set) {
-        for (final FeatureType ft : type.getDependencies()) {
-            sortFeatureType(ft, set);
+    private SampleChunkFactory createChunkFactory(final Audio audio)
+            throws UnsupportedAudioFileException, IOException{
+        final SampleChunkFactory chunkFactory = new SampleChunkFactory(audio, m_windowSizeInSamples,
+            m_windowsOverlapInPercent, false, m_targetSampleRate);
+        if(m_startTimeInSeconds > 0){
+            chunkFactory.seek(m_startTimeInSeconds);
         }
-        set.add(type);
+        if(m_endTimeInSeconds > 0){
+            chunkFactory.setEnd(m_endTimeInSeconds);
+        }
+        return chunkFactory;
     }
 
-    private List<Integer> getChunkStartIndices(final AudioSamples wholeSamples, final int chunkSize,
-        final int chunkOverlapOffset) {
-        final double[] samples = wholeSamples.getSamplesMixedDownIntoOneChannel();
-        final List<Integer> result = new ArrayList<Integer>();
-        int position = 0;
-        while (position < samples.length) {
-            position -= chunkOverlapOffset;
-            if (position < 0) {
-                position = 0;
+    /**
+     * Extracts the features of a range of windows with its own chunk factory,
+     * splitting the range as long as it contains more than
+     * {@link FeatureExtractorCellFactory#MIN_WINDOWS_PER_TASK} windows. The
+     * statistics of the halves are merged in window order, so the result is
+     * deterministic but agrees with the single pass only up to rounding, the
+     * quantiles up to the accuracy of the digests.
+     */
+    private final class WindowRangeTask extends RecursiveTask<StreamingStatistics[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Audio m_audio;
+        private final int m_from;
+        private final int m_to;
+        private final MappedSpectrogram m_spectrogram;
+        private final MappedSpectrogram.Writer m_spectrogramWriter;
+
+        WindowRangeTask(final Audio audio, final int from, final int to,
+                final MappedSpectrogram spectrogram, final MappedSpectrogram.Writer spectrogramWriter){
+            m_audio = audio;
+            m_from = from;
+            m_to = to;
+            m_spectrogram = spectrogram;
+            m_spectrogramWriter = spectrogramWriter;
+        }
+
+        @Override
+        protected StreamingStatistics[] compute() {
+            if(m_to - m_from <= MIN_WINDOWS_PER_TASK){
+                return computeDirectly();
             }
-            result.add(position);
-            position += chunkSize;
+            final int mid = (m_from + m_to) >>> 1;
+            final WindowRangeTask left = new WindowRangeTask(m_audio, m_from, mid,
+                m_spectrogram, m_spectrogramWriter);
+            left.fork();
+            final StreamingStatistics[] right = new WindowRangeTask(m_audio, mid, m_to,
+                m_spectrogram, m_spectrogramWriter).compute();
+            final StreamingStatistics[] result = left.join();
+            for(int i = 0; i < result.length; i++){
+                result[i].merge(right[i]);
+            }
+            return result;
         }
-        return result;
+
+        private StreamingStatistics[] computeDirectly() {
+            SampleChunkFactory chunkFactory = null;
+            try{
+                chunkFactory = createChunkFactory(m_audio);
+                chunkFactory.setWindowRange(m_from, m_to);
+                return extractFeatures(m_graph.createExecution(false), chunkFactory, null,
+                    m_spectrogram, m_spectrogramWriter);
+            } catch(Exception ex){
+                throw new IllegalStateException("Cannot extract the features of chunks "
+                        + m_from + " - " + (m_to - 1) + ": " + ex.getMessage(), ex);
+            } finally {
+                closeQuietly(chunkFactory);
+            }
+        }
+    }
+
+    /* Describes everything the aggregated features depend on besides the audio file */
+    private String getCacheConfiguration(){
+        final StringBuilder sb = new StringBuilder(CACHE_VERSION);
+        for(FeatureExtractor extractor : m_extractors){
+            sb.append('|').append(extractor.getType().name());
+            for(String parameter : extractor.getType().getParameters()){
+                sb.append(':').append(extractor.getParameterValue(parameter));
+            }
+        }
+        sb.append("|window=").append(m_windowSizeInSamples);
+        sb.append("|overlap=").append(m_windowsOverlapInPercent);
+        sb.append("|sampleRate=").append(m_targetSampleRate);
+        sb.append("|range=").append(m_startTimeInSeconds).append('-').append(m_endTimeInSeconds);
+        for(FeatureExtractor.Aggregator aggregator : m_aggregators){
+            sb.append('|').append(aggregator.name());
+        }
+        return sb.toString();
     }
 
-    private Map<FeatureType, List<double[]>> extractFeaturesPerChunk(final Set<FeatureExtractor> sortedExtractors,
-        final List<Integer> chunkIndices, final AudioSamples wholeSamples, final int chunkSize) throws Exception {
+    /* Describes everything the spectra depend on besides the audio file */
+    private String getSpectrogramConfiguration(){
+        return CACHE_VERSION + "|window=" + m_windowSizeInSamples + "|overlap=" + m_windowsOverlapInPercent
+                + "|sampleRate=" + m_targetSampleRate + "|range=" + m_startTimeInSeconds + '-'
+                + m_endTimeInSeconds;
+    }
 
-        final Map<FeatureType, List<double[]>> result = new HashMap<FeatureType, List<double[]>>();
-        final double[] samples = wholeSamples.getSamplesMixedDownIntoOneChannel();
-        int toRead = chunkSize;
-        for (int i = 0; i < chunkIndices.size(); i++) {
-            if (i == chunkIndices.size() - 1) {
-                /* Last index, only read the rest of the samples */
-                toRead = samples.length - chunkIndices.get(i);
+    private static void closeQuietly(final MappedSpectrogram.Writer spectrogramWriter){
+        if(spectrogramWriter != null){
+            try {
+                spectrogramWriter.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Cannot discard spectrogram: " + ex.getMessage());
             }
-            final double[] buf = new double[chunkSize];
-            System.arraycopy(samples, chunkIndices.get(i), buf, 0, toRead);
-            final AudioSamples chunk = new AudioSamples(buf, wholeSamples.getAudioFormat());
-            for (FeatureExtractor extractor : sortedExtractors) {
-                final FeatureType type = extractor.getType();
-                final FeatureType[] dependencies = type.getDependencies();
-                double[][] additionalValues = new double[dependencies.length][];
-                for (int j = 0; j < dependencies.length; j++) {
-                    additionalValues[j] = result.get(dependencies[j]).get(i);
-                }
-                if (!type.hasDependencies()) {
-                    additionalValues = null;
-                }
-                final double[] features = extractor.extractFeature(chunk, additionalValues);
-                List<double[]> list = result.get(type);
-                if (list == null) {
-                    list = new ArrayList<double[]>();
-                    list.add(features);
-                    result.put(type, list);
+        }
+    }
+
+    private static void closeQuietly(final SampleChunkFactory chunkFactory){
+        if(chunkFactory != null){
+            try {
+                chunkFactory.closeStream();
+            } catch (IOException ex) {
+                LOGGER.debug("Cannot close audio stream: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Extracts the features of all windows of the given factory and adds the
+     * features of the selected extractors to their statistics.
+     *
+     * @param execution the execution of the feature graph
+     * @param chunkFactory the factory providing the windows
+     * @param matrixBuilders the builders receiving the features of each window
+     * for each selected extractor, <code>null</code> if no matrices are created
+     * @param spectrogram the cached spectra of the windows or <code>null</code>
+     * @param spectrogramWriter the writer receiving the spectra of the windows
+     * or <code>null</code>
+     * @return the statistics of each selected extractor
+     */
+    private StreamingStatistics[] extractFeatures(final FeatureGraph.Execution execution,
+            final SampleChunkFactory chunkFactory, final FeatureMatrixBuilder[] matrixBuilders,
+            final MappedSpectrogram spectrogram, final MappedSpectrogram.Writer spectrogramWriter)
+                    throws Exception {
+        final StreamingStatistics[] result = createStatistics();
+        /* The power spectra are read from or written into the spectrogram */
+        final double[] power = m_spectrogramCache != null && m_graph.usesSpectrum()
+                ? new double[RealFFT.ensureIsPowerOfTwo(m_windowSizeInSamples) / 2] : null;
+        /* The window views the ring buffer of the factory and caches its mono mixdown,
+         * so the extractors share one mixdown per window and nothing is copied per window */
+        AudioWindow window;
+        while ((window = chunkFactory.nextWindow()) != null) {
+            if (power == null) {
+                execution.extract(window);
+            } else {
+                if (spectrogram != null && window.getIndex() < spectrogram.getNumberOfFrames()) {
+                    spectrogram.readFrame(window.getIndex(), power, 0);
                 } else {
-                    list.add(features);
+                    computePowerSpectrum(window, power);
                 }
+                execution.extract(window, power);
+            }
+            addFeatures(execution, result, matrixBuilders);
+            if (spectrogramWriter != null && !spectrogramWriter.isClosed()) {
+                writeFrame(spectrogramWriter, window.getIndex(), power);
             }
         }
 
         return result;
     }
 
-    private Map<FeatureType, double[]> aggregateFeatures(final Map<FeatureType, List<double[]>> featuresPerChunk,
-        final FeatureExtractor.Aggregator aggregator) {
-        final Map<FeatureType, double[]> result = new HashMap<FeatureType, double[]>();
-
-        for (Entry<FeatureType, List<double[]>> entry : featuresPerChunk.entrySet()) {
-            final String text = "Aggregate feature of '" + entry.getKey().getName() + "' with ";
-            double[] aggregation = new double[0];
-            final double[][] values = entry.getValue().toArray(new double[entry.getValue().size()][]);
-            switch (aggregator) {
-                case MEAN:
-                    LOGGER.debug(text + "'" + FeatureExtractor.Aggregator.MEAN.getName() + "'");
-                    aggregation = MathUtils.mean(values);
-                    break;
-                case STD_DEVIATION:
-                    LOGGER.debug(text + "'" + FeatureExtractor.Aggregator.STD_DEVIATION.getName() + "'");
-                    aggregation = MathUtils.standardDeviation(values);
-                    break;
-                default:
-                    break;
-            }
-            result.put(entry.getKey(), aggregation);
+    /**
+     * Extracts the features of all frames of the given spectrogram without
+     * decoding the audio. Only applicable if no extractor needs the windows.
+     *
+     * @param execution the prepared execution of the feature graph
+     * @param spectrogram the cached spectra of the windows
+     * @param matrixBuilders the builders receiving the features of each window
+     * for each selected extractor, <code>null</code> if no matrices are created
+     * @return the statistics of each selected extractor
+     * @see FeatureGraph.Execution#needsWindow()
+     */
+    private StreamingStatistics[] extractFeatures(final FeatureGraph.Execution execution,
+            final MappedSpectrogram spectrogram, final FeatureMatrixBuilder[] matrixBuilders) throws Exception {
+        final StreamingStatistics[] result = createStatistics();
+        final double[] power = new double[spectrogram.getNumberOfBins()];
+        for (int frame = 0; frame < spectrogram.getNumberOfFrames(); frame++) {
+            spectrogram.readFrame(frame, power, 0);
+            execution.extract(null, power);
+            addFeatures(execution, result, matrixBuilders);
         }
+        return result;
+    }
 
+    private StreamingStatistics[] createStatistics() {
+        final StreamingStatistics[] result = new StreamingStatistics[m_extractors.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new StreamingStatistics(m_computeQuantiles);
+        }
         return result;
     }
 
+    /* Only the features of the current window are kept */
+    private static void addFeatures(final FeatureGraph.Execution execution,
+            final StreamingStatistics[] statistics, final FeatureMatrixBuilder[] matrixBuilders)
+                    throws IOException {
+        for (int o = 0; o < statistics.length; o++) {
+            statistics[o].add(execution.getFeatures(o));
+        }
+        if (matrixBuilders != null) {
+            for (int o = 0; o < statistics.length; o++) {
+                matrixBuilders[o].addFrame(execution.getFeatures(o));
+            }
+        }
+    }
+
+    private static void computePowerSpectrum(final AudioWindow window, final double[] power) {
+        System.arraycopy(Spectrum.of(window).getPowerSpectrum(), 0, power, 0, power.length);
+    }
+
+    /* The spectrogram is discarded if a frame cannot be written, the features are extracted anyway */
+    private static void writeFrame(final MappedSpectrogram.Writer spectrogramWriter, final int frame,
+            final double[] power) {
+        try {
+            spectrogramWriter.writeFrame(frame, power);
+        } catch (IOException ex) {
+            LOGGER.debug("Cannot cache spectrogram: " + ex.getMessage());
+            closeQuietly(spectrogramWriter);
+        }
+    }
+
+    private static double[] aggregate(final StreamingStatistics statistics,
+        final FeatureExtractor.Aggregator aggregator) {
+        switch (aggregator) {
+            case MEAN:
+                return statistics.getMean();
+            case STD_DEVIATION:
+                return statistics.getStandardDeviation();
+            case MEDIAN:
+                return statistics.getQuantile(0.5);
+            case PERCENTILE_10:
+                return statistics.getQuantile(0.1);
+            case PERCENTILE_90:
+                return statistics.getQuantile(0.9);
+            case MIN:
+                return statistics.getMinimum();
+            case MAX:
+                return statistics.getMaximum();
+            case SKEWNESS:
+                return statistics.getSkewness();
+            case KURTOSIS:
+                return statistics.getKurtosis();
+            default:
+                return new double[0];
+        }
+    }
+
 }
@@ -0,0 +1,533 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.cell;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+
+import org.knime.base.node.audio3.data.AudioWindow;
+import org.knime.base.node.audio3.data.feature.CompiledFeatureExtractor;
+import org.knime.base.node.audio3.data.feature.FeatureExtractor;
+import org.knime.base.node.audio3.data.feature.FeatureType;
+import org.knime.base.node.audio3.data.feature.SharedKernels;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Dependency graph of the feature extractors applied to the windows of an audio.
+ * The nodes are the selected extractors and the extractors of their dependencies
+ * which have not been selected. Only the features of the selected extractors are
+ * outputs, the features of the other nodes are only kept until their last
+ * consumer has been applied. The nodes are grouped into levels of independent
+ * extractors, which are applied concurrently if the windows are large enough.
+ * Computations needed by several extractors, e.g. the time-domain statistics
+ * or the transform of the power and magnitude spectrum, are done once per
+ * window by {@link SharedKernels}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class FeatureGraph {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(FeatureGraph.class);
+
+    /* Minimum number of samples per window to apply independent extractors concurrently */
+    private static final int MIN_CONCURRENT_WINDOW_SIZE = 2048;
+
+    /* Extractors in topological order */
+    private final FeatureExtractor[] m_nodes;
+
+    /* Positions of the dependencies of each node */
+    private final int[][] m_dependencies;
+
+    /* Node of each selected extractor */
+    private final int[] m_outputs;
+
+    private final boolean[] m_isOutput;
+
+    /* Nodes whose features are no longer needed once the node has been applied */
+    private final int[][] m_released;
+
+    /* Nodes of each level, the nodes of a level only depend on nodes of lower levels */
+    private final int[][] m_levels;
+
+    /* Nodes of the magnitude and the power spectrum, -1 if not part of the graph */
+    private final int m_magnitudeNode;
+
+    private final int m_powerNode;
+
+    /**
+     * @param extractors the selected extractors
+     */
+    public FeatureGraph(final FeatureExtractor[] extractors) {
+        final Set<FeatureExtractor> sortedExtractors = sortExtractors(extractors);
+        m_nodes = sortedExtractors.toArray(new FeatureExtractor[sortedExtractors.size()]);
+        final List<FeatureType> sortedTypes = new ArrayList<FeatureType>();
+        for (FeatureExtractor extractor : m_nodes) {
+            sortedTypes.add(extractor.getType());
+        }
+        m_magnitudeNode = sortedTypes.indexOf(FeatureType.MAGNITUDE_SPECTRUM);
+        m_powerNode = sortedTypes.indexOf(FeatureType.POWER_SPECTRUM);
+
+        m_isOutput = new boolean[m_nodes.length];
+        m_outputs = new int[extractors.length];
+        for (int i = 0; i < extractors.length; i++) {
+            m_outputs[i] = sortedTypes.indexOf(extractors[i].getType());
+            m_isOutput[m_outputs[i]] = true;
+        }
+
+        m_dependencies = new int[m_nodes.length][];
+        final int[] lastConsumer = new int[m_nodes.length];
+        final int[] level = new int[m_nodes.length];
+        int nrOfLevels = 0;
+        for (int i = 0; i < m_nodes.length; i++) {
+            lastConsumer[i] = -1;
+            final FeatureType[] dependencies = m_nodes[i].getType().getDependencies();
+            m_dependencies[i] = new int[dependencies.length];
+            for (int j = 0; j < dependencies.length; j++) {
+                final int dependency = sortedTypes.indexOf(dependencies[j]);
+                m_dependencies[i][j] = dependency;
+                lastConsumer[dependency] = i;
+                level[i] = Math.max(level[i], level[dependency] + 1);
+            }
+            nrOfLevels = Math.max(nrOfLevels, level[i] + 1);
+        }
+
+        final List<List<Integer>> released = new ArrayList<List<Integer>>();
+        final List<List<Integer>> levels = new ArrayList<List<Integer>>();
+        for (int i = 0; i < m_nodes.length; i++) {
+            released.add(new ArrayList<Integer>());
+        }
+        for (int l = 0; l < nrOfLevels; l++) {
+            levels.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < m_nodes.length; i++) {
+            if (!m_isOutput[i] && lastConsumer[i] >= 0) {
+                released.get(lastConsumer[i]).add(Integer.valueOf(i));
+            }
+            levels.get(level[i]).add(Integer.valueOf(i));
+        }
+        m_released = toArrays(released);
+        m_levels = toArrays(levels);
+    }
+
+    private static int[][] toArrays(final List<List<Integer>> lists) {
+        final int[][] arrays = new int[lists.size()][];
+        for (int i = 0; i < arrays.length; i++) {
+            final List<Integer> list = lists.get(i);
+            arrays[i] = new int[list.size()];
+            for (int j = 0; j < arrays[i].length; j++) {
+                arrays[i][j] = list.get(j).intValue();
+            }
+        }
+        return arrays;
+    }
+
+    private static Set<FeatureExtractor> sortExtractors(final FeatureExtractor[] extractors) {
+        LOGGER.debug("Sort the feature extractors");
+        final Set<FeatureExtractor> result = new LinkedHashSet<FeatureExtractor>();
+        final Map<FeatureType, FeatureExtractor> temp = new HashMap<FeatureType, FeatureExtractor>();
+
+        final Set<FeatureType> orderedTypes = new LinkedHashSet<FeatureType>();
+        for (FeatureExtractor ext : extractors) {
+            temp.put(ext.getType(), ext);
+            sortFeatureType(ext.getType(), orderedTypes);
+        }
+
+        for (FeatureType type : orderedTypes) {
+            if (temp.containsKey(type)) {
+                result.add(temp.get(type));
+            } else {
+                result.add(FeatureExtractor.getFeatureExtractor(type));
+            }
+        }
+
+        return result;
+    }
+
+    private static void sortFeatureType(final FeatureType type, final Set<FeatureType> set) {
+        for (final FeatureType ft : type.getDependencies()) {
+            sortFeatureType(ft, set);
+        }
+        set.add(type);
+    }
+
+    /**
+     * @return <code>true</code> if the magnitude or the power spectrum is
+     * computed, i.e. the extractors can be applied to a stored spectrogram
+     * @see Execution#extract(AudioWindow, double[])
+     */
+    public boolean usesSpectrum() {
+        return m_magnitudeNode >= 0 || m_powerNode >= 0;
+    }
+
+    private boolean isSpectrum(final int node) {
+        return node == m_magnitudeNode || node == m_powerNode;
+    }
+
+    /* Copies the source into the destination, which is replaced if its length differs */
+    private static double[] copy(final double[] source, final double[] dest) {
+        final double[] result = dest != null && dest.length == source.length ? dest : new double[source.length];
+        System.arraycopy(source, 0, result, 0, source.length);
+        return result;
+    }
+
+    /**
+     * Creates the state for extracting the features of the windows of one audio.
+     *
+     * @param concurrent <code>true</code> if independent extractors may be applied
+     * concurrently, <code>false</code> if the caller already runs in parallel
+     * @return the new execution, only to be used by one thread
+     */
+    public Execution createExecution(final boolean concurrent) {
+        return new Execution(concurrent);
+    }
+
+    /**
+     * Applies the extractors of the graph to windows one after another. The
+     * arrays of the compiled extractors are reused for all windows.
+     */
+    public final class Execution {
+
+        private final boolean m_concurrentRequested;
+
+        private final double[][] m_features = new double[m_nodes.length][];
+
+        private CompiledFeatureExtractor[] m_compiled;
+
+        /* Computed for each window before the extractors reading from them are applied */
+        private SharedKernels m_kernels;
+
+        /* Tasks of the compiled nodes, reused for each window */
+        private NodeTask[] m_tasks;
+
+        /* Magnitude spectrum derived from the power spectrum if the graph has no magnitude node */
+        private double[] m_magnitudes;
+
+        /* True while the spectra are taken from a stored spectrogram */
+        private boolean m_spectrumGiven;
+
+        private boolean m_needsWindow;
+
+        private Execution(final boolean concurrent) {
+            m_concurrentRequested = concurrent;
+        }
+
+        /**
+         * Compiles the extractors for windows of the given format. This happens
+         * with the first window otherwise, but must be done before extracting
+         * features without a window.
+         *
+         * @param sampleRate the sample rate of the windows
+         * @param windowSize the number of samples per window
+         */
+        public void prepare(final float sampleRate, final int windowSize) {
+            if (m_compiled == null) {
+                compile(sampleRate, windowSize);
+            }
+        }
+
+        /**
+         * @return <code>true</code> if the samples of the windows are needed even
+         * if the spectra are given, i.e. an extractor doesn't depend on the spectra
+         * or cannot be compiled
+         * @see #prepare(float, int)
+         */
+        public boolean needsWindow() {
+            if (m_compiled == null) {
+                throw new IllegalStateException("The extractors have not been compiled yet");
+            }
+            return m_needsWindow;
+        }
+
+        /**
+         * Extracts the features of the given window.
+         *
+         * @param window the window
+         * @throws Exception if a feature cannot be extracted
+         */
+        public void extract(final AudioWindow window) throws Exception {
+            extract(window, null);
+        }
+
+        /**
+         * Extracts the features of a window whose power spectrum is already
+         * known, e.g. from a {@link org.knime.base.node.audio3.data.io.MappedSpectrogram}.
+         * The power and the magnitude spectrum are not computed but taken from
+         * the given power spectrum, the magnitudes are derived from it with the
+         * same values as the ones of the transform.
+         *
+         * @param window the window, may be <code>null</code> if the spectrum is
+         * given and the window isn't needed, see {@link #needsWindow()}
+         * @param power the power spectrum of the window or <code>null</code>
+         * to compute it from the window
+         * @throws Exception if a feature cannot be extracted
+         */
+        public void extract(final AudioWindow window, final double[] power) throws Exception {
+            /* The mixdown is cached by the window and must exist before nodes run concurrently */
+            final double[] mono = window == null ? null : window.getSamplesMixedDownIntoOneChannel();
+            if (m_compiled == null) {
+                if (mono == null) {
+                    throw new IllegalStateException("The extractors have not been compiled yet");
+                }
+                compile(window.getAudioFormat().getSampleRate(), mono.length);
+            }
+            if (window == null && (power == null || m_needsWindow)) {
+                throw new IllegalArgumentException("The extractors need the samples of the window");
+            }
+            m_spectrumGiven = power != null;
+            if (m_spectrumGiven) {
+                setSpectrum(power);
+            }
+            if (m_kernels != null && mono != null) {
+                m_kernels.compute(mono, 0, mono.length, !m_spectrumGiven);
+            }
+            for (int[] level : m_levels) {
+                if (m_tasks != null) {
+                    extractConcurrently(window, mono, level);
+                } else {
+                    for (int node : level) {
+                        extract(window, mono, node);
+                    }
+                }
+                for (int node : level) {
+                    /* Dependencies not computed by compiled extractors are dropped */
+                    for (int released : m_released[node]) {
+                        if (m_compiled[released] == null) {
+                            m_features[released] = null;
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * @return the magnitude spectrum of the last window or <code>null</code> if
+         * the graph doesn't compute a spectrum, the array is overwritten by the
+         * next window
+         * @see FeatureGraph#usesSpectrum()
+         */
+        public double[] getMagnitudeSpectrum() {
+            if (m_magnitudeNode >= 0) {
+                return m_features[m_magnitudeNode];
+            }
+            if (m_powerNode < 0 || m_features[m_powerNode] == null) {
+                return null;
+            }
+            final double[] power = m_features[m_powerNode];
+            if (m_magnitudes == null || m_magnitudes.length != power.length) {
+                m_magnitudes = new double[power.length];
+            }
+            /* power = |X|^2 / n and magnitude = |X| / n with n = 2 * bins */
+            final double size = 2 * power.length;
+            for (int i = 0; i < power.length; i++) {
+                m_magnitudes[i] = Math.sqrt(power[i] / size);
+            }
+            return m_magnitudes;
+        }
+
+        private void setSpectrum(final double[] power) {
+            if (m_powerNode >= 0) {
+                m_features[m_powerNode] = copy(power, m_features[m_powerNode]);
+            }
+            if (m_magnitudeNode >= 0) {
+                final double[] magnitudes = copy(power, m_features[m_magnitudeNode]);
+                /* sqrt(power / n) = sqrt(|X|^2) / n exactly, since n is a power of two */
+                final double size = 2 * magnitudes.length;
+                for (int i = 0; i < magnitudes.length; i++) {
+                    magnitudes[i] = Math.sqrt(magnitudes[i] / size);
+                }
+                m_features[m_magnitudeNode] = magnitudes;
+            }
+        }
+
+        /**
+         * @param output the position of the selected extractor
+         * @return the features of the selected extractor for the last window,
+         * the array is overwritten by the next window
+         */
+        public double[] getFeatures(final int output) {
+            return m_features[m_outputs[output]];
+        }
+
+        /* Compiles the extractors for the audio and allocates the arrays the compiled
+         * extractors write their features into, extractors which cannot be compiled
+         * are left null */
+        private void compile(final float sampleRate, final int windowSize) {
+            m_compiled = new CompiledFeatureExtractor[m_nodes.length];
+            final SharedKernels kernels = SharedKernels.create(m_nodes, windowSize);
+            m_kernels = kernels.isEmpty() ? null : kernels;
+            for (int i = 0; i < m_nodes.length; i++) {
+                /* The input of a compiled extractor is a single array */
+                if (m_dependencies[i].length <= 1) {
+                    m_compiled[i] = m_nodes[i].compile(sampleRate, windowSize, kernels);
+                }
+                if (m_compiled[i] != null) {
+                    m_features[i] = new double[m_compiled[i].getDimension()];
+                }
+                if (!isSpectrum(i) && (m_compiled[i] == null || m_dependencies[i].length == 0)) {
+                    m_needsWindow = true;
+                }
+            }
+            if (!m_concurrentRequested || windowSize < MIN_CONCURRENT_WINDOW_SIZE) {
+                return;
+            }
+            for (int[] level : m_levels) {
+                int nrOfCompiled = 0;
+                for (int node : level) {
+                    if (m_compiled[node] != null) {
+                        nrOfCompiled++;
+                    }
+                }
+                if (nrOfCompiled > 1) {
+                    m_tasks = new NodeTask[m_nodes.length];
+                    break;
+                }
+            }
+            if (m_tasks != null) {
+                for (int i = 0; i < m_nodes.length; i++) {
+                    if (m_compiled[i] != null) {
+                        m_tasks[i] = new NodeTask(i);
+                    }
+                }
+            }
+        }
+
+        /* Forks the compiled nodes of the level except for the first one, the
+         * other nodes may use the window and are applied by the calling thread */
+        private void extractConcurrently(final AudioWindow window, final double[] mono,
+                final int[] level) throws Exception {
+            int first = -1;
+            for (int node : level) {
+                if (m_tasks[node] == null) {
+                    continue;
+                }
+                if (first < 0) {
+                    first = node;
+                } else {
+                    m_tasks[node].reinitialize();
+                    m_tasks[node].m_mono = mono;
+                    m_tasks[node].fork();
+                }
+            }
+            Exception exception = null;
+            try {
+                for (int node : level) {
+                    if (m_tasks[node] == null || node == first) {
+                        extract(window, mono, node);
+                    }
+                }
+            } catch (Exception ex) {
+                exception = ex;
+            }
+            for (int node : level) {
+                if (m_tasks[node] != null && node != first) {
+                    m_tasks[node].join();
+                    if (exception == null) {
+                        exception = m_tasks[node].m_exception;
+                    }
+                    m_tasks[node].m_exception = null;
+                    m_tasks[node].m_mono = null;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        private void extract(final AudioWindow window, final double[] mono, final int node)
+                throws Exception {
+            if (m_spectrumGiven && isSpectrum(node)) {
+                return;
+            }
+            final int[] dependencies = m_dependencies[node];
+            if (m_compiled[node] != null) {
+                final double[] in = dependencies.length == 0 ? mono : m_features[dependencies[0]];
+                m_compiled[node].extract(in, 0, in.length, m_features[node], 0);
+                return;
+            }
+            double[][] additionalValues = null;
+            if (dependencies.length > 0) {
+                additionalValues = new double[dependencies.length][];
+                for (int j = 0; j < dependencies.length; j++) {
+                    additionalValues[j] = m_features[dependencies[j]];
+                }
+            }
+            m_features[node] = m_nodes[node].extractFeature(window, additionalValues);
+        }
+
+        /* Applies a compiled extractor in the fork/join pool */
+        private final class NodeTask extends RecursiveAction {
+
+            private static final long serialVersionUID = 1L;
+
+            private final int m_node;
+
+            private double[] m_mono;
+
+            private Exception m_exception;
+
+            private NodeTask(final int node) {
+                m_node = node;
+            }
+
+            @Override
+            protected void compute() {
+                try {
+                    extract(null, m_mono, m_node);
+                } catch (Exception ex) {
+                    m_exception = ex;
+                }
+            }
+        }
+    }
+}
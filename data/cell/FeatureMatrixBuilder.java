@@ -0,0 +1,180 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.cell;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.filestore.FileStore;
+
+/**
+ * Collects the features of the windows of an audio frame by frame and creates a
+ * {@link FeatureMatrixValue} cell from them. The values are either kept in memory
+ * and stored as {@link FeatureMatrixCell}, optionally compressed, or written to a
+ * file store while the frames are added and accessed memory-mapped as
+ * {@link FeatureMatrixFileStoreCell}.
+ *
+ * The dimension of the matrix is the length of the first frame. Shorter frames
+ * are padded with NaN, values beyond the dimension are dropped.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class FeatureMatrixBuilder {
+
+    private final FileStore m_fileStore;
+
+    private final boolean m_compress;
+
+    private OutputStream m_out;
+
+    private byte[] m_frameBytes;
+
+    private float[] m_values;
+
+    private int m_frames;
+
+    private int m_dimension = -1;
+
+    /**
+     * Creates a builder keeping the values in memory.
+     *
+     * @param compress <code>true</code> if the values should be compressed when the cell is stored
+     */
+    public FeatureMatrixBuilder(final boolean compress){
+        m_fileStore = null;
+        m_compress = compress;
+        m_values = new float[0];
+    }
+
+    /**
+     * Creates a builder writing the values to the given file store.
+     *
+     * @param fileStore the file store to write the values to
+     * @throws IOException if the file of the file store cannot be created
+     */
+    public FeatureMatrixBuilder(final FileStore fileStore) throws IOException{
+        if(fileStore == null){
+            throw new IllegalArgumentException("File store cannot be null");
+        }
+        m_fileStore = fileStore;
+        m_compress = false;
+        m_out = new BufferedOutputStream(new FileOutputStream(fileStore.getFile()));
+    }
+
+    /**
+     * Adds the features of the next window.
+     *
+     * @param features the features of the window, <code>null</code> is treated as an empty frame
+     * @throws IOException if the values cannot be written to the file store
+     */
+    public void addFrame(final double[] features) throws IOException{
+        final double[] values = features == null ? new double[0] : features;
+        if(m_dimension < 0){
+            m_dimension = values.length;
+        }
+        if(m_out != null){
+            if(m_frameBytes == null){
+                m_frameBytes = new byte[4 * m_dimension];
+            }
+            for(int i = 0; i < m_dimension; i++){
+                final int bits = Float.floatToIntBits(i < values.length ? (float)values[i] : Float.NaN);
+                m_frameBytes[4 * i] = (byte)bits;
+                m_frameBytes[4 * i + 1] = (byte)(bits >>> 8);
+                m_frameBytes[4 * i + 2] = (byte)(bits >>> 16);
+                m_frameBytes[4 * i + 3] = (byte)(bits >>> 24);
+            }
+            m_out.write(m_frameBytes);
+        }else{
+            final int offset = m_frames * m_dimension;
+            if(offset + m_dimension > m_values.length){
+                m_values = Arrays.copyOf(m_values, Math.max(2 * m_values.length, offset + m_dimension));
+            }
+            for(int i = 0; i < m_dimension; i++){
+                m_values[offset + i] = i < values.length ? (float)values[i] : Float.NaN;
+            }
+        }
+        m_frames++;
+    }
+
+    /**
+     * Creates the cell containing all frames added so far, the builder must not
+     * be used afterwards.
+     *
+     * @return the feature matrix cell
+     * @throws IOException if the file store cannot be completed
+     */
+    public DataCell build() throws IOException{
+        final int dimension = Math.max(0, m_dimension);
+        if(m_out != null){
+            m_out.close();
+            m_out = null;
+            return new FeatureMatrixFileStoreCell(m_fileStore, m_frames, dimension);
+        }
+        return new FeatureMatrixCell(Arrays.copyOf(m_values, m_frames * dimension),
+            m_frames, dimension, m_compress);
+    }
+
+    /**
+     * Closes the file of the file store without creating a cell, e.g. after a failure.
+     */
+    public void discard(){
+        if(m_out != null){
+            try{
+                m_out.close();
+            }catch(IOException ex){
+                // nothing to do, the file store is not referenced by any cell
+            }
+            m_out = null;
+        }
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.cell;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+import org.knime.core.data.StringValue;
+
+/**
+ * Cell holding a feature matrix in memory as floats. The values can be stored
+ * compressed, the compression is lossless: the bytes of the floats are grouped
+ * by their significance before they are deflated, since the sign and exponent
+ * bytes of neighbouring values are usually similar.
+ *
+ * A new cell should only be created using {@link FeatureMatrixBuilder}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class FeatureMatrixCell extends DataCell implements FeatureMatrixValue, StringValue{
+
+    /**
+     * Serializer for <code>FeatureMatrixCell</code>s.
+     * @noreference This class is not intended to be referenced by clients.
+     */
+    public static final class FeatureMatrixSerializer implements DataCellSerializer<FeatureMatrixCell> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(final FeatureMatrixCell cell, final DataCellDataOutput output) throws IOException {
+            output.writeInt(cell.m_frames);
+            output.writeInt(cell.m_dimension);
+            output.writeBoolean(cell.m_compressed);
+            final byte[] bytes = cell.m_compressed ? compress(cell.m_values) : toBytes(cell.m_values);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FeatureMatrixCell deserialize(final DataCellDataInput input) throws IOException {
+            final int frames = input.readInt();
+            final int dimension = input.readInt();
+            final boolean compressed = input.readBoolean();
+            final byte[] bytes = new byte[input.readInt()];
+            input.readFully(bytes);
+            final float[] values = compressed ? decompress(bytes, frames * dimension) : fromBytes(bytes);
+            return new FeatureMatrixCell(values, frames, dimension, compressed);
+        }
+
+    }
+
+    /**
+     * Automatically generated Version UID
+     */
+    private static final long serialVersionUID = -4587014251097468013L;
+
+    /**
+     * Convenience access member for
+     * <code>DataType.getType(FeatureMatrixCell.class)</code>.
+     *
+     * @see DataType#getType(Class)
+     */
+    public static final DataType TYPE = DataType.getType(FeatureMatrixCell.class);
+
+    private final float[] m_values;
+
+    private final int m_frames;
+
+    private final int m_dimension;
+
+    private final boolean m_compressed;
+
+    /**
+     * @param values the values of all frames one after another, not copied
+     * @param frames the number of frames
+     * @param dimension the number of values per frame
+     * @param compressed <code>true</code> if the values should be compressed when the cell is stored
+     */
+    FeatureMatrixCell(final float[] values, final int frames, final int dimension,
+            final boolean compressed){
+        if(values == null || values.length != frames * dimension){
+            throw new IllegalArgumentException("The number of values must match the size of the matrix.");
+        }
+        m_values = values;
+        m_frames = frames;
+        m_dimension = dimension;
+        m_compressed = compressed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfFrames() {
+        return m_frames;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDimension() {
+        return m_dimension;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getValue(final int frame, final int dimension) {
+        if(dimension < 0 || dimension >= m_dimension){
+            throw new IndexOutOfBoundsException("Invalid dimension: " + dimension);
+        }
+        return m_values[frame * m_dimension + dimension];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float[] getFrame(final int frame) {
+        final int from = frame * m_dimension;
+        return Arrays.copyOfRange(m_values, from, from + m_dimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStringValue() {
+        return "Feature Matrix[" + m_frames + " x " + m_dimension + "]";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getStringValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean equalsDataCell(final DataCell dc) {
+        final FeatureMatrixCell cell = (FeatureMatrixCell) dc;
+        return m_frames == cell.m_frames && m_dimension == cell.m_dimension
+                && Arrays.equals(m_values, cell.m_values);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * m_frames + m_dimension) + Arrays.hashCode(m_values);
+    }
+
+    private static byte[] toBytes(final float[] values){
+        final byte[] bytes = new byte[4 * values.length];
+        for(int i = 0; i < values.length; i++){
+            final int bits = Float.floatToRawIntBits(values[i]);
+            bytes[4 * i] = (byte)(bits >>> 24);
+            bytes[4 * i + 1] = (byte)(bits >>> 16);
+            bytes[4 * i + 2] = (byte)(bits >>> 8);
+            bytes[4 * i + 3] = (byte)bits;
+        }
+        return bytes;
+    }
+
+    private static float[] fromBytes(final byte[] bytes){
+        final float[] values = new float[bytes.length / 4];
+        for(int i = 0; i < values.length; i++){
+            values[i] = Float.intBitsToFloat(((bytes[4 * i] & 0xFF) << 24)
+                | ((bytes[4 * i + 1] & 0xFF) << 16) | ((bytes[4 * i + 2] & 0xFF) << 8)
+                | (bytes[4 * i + 3] & 0xFF));
+        }
+        return values;
+    }
+
+    private static byte[] compress(final float[] values){
+        /* Group the bytes by significance, the most significant bytes first */
+        final int n = values.length;
+        final byte[] planes = new byte[4 * n];
+        for(int i = 0; i < n; i++){
+            final int bits = Float.floatToRawIntBits(values[i]);
+            planes[i] = (byte)(bits >>> 24);
+            planes[n + i] = (byte)(bits >>> 16);
+            planes[2 * n + i] = (byte)(bits >>> 8);
+            planes[3 * n + i] = (byte)bits;
+        }
+        final Deflater deflater = new Deflater();
+        try{
+            deflater.setInput(planes);
+            deflater.finish();
+            final byte[] buffer = new byte[4096];
+            byte[] result = new byte[Math.max(64, planes.length / 2)];
+            int length = 0;
+            while(!deflater.finished()){
+                final int count = deflater.deflate(buffer);
+                if(length + count > result.length){
+                    result = Arrays.copyOf(result, Math.max(2 * result.length, length + count));
+                }
+                System.arraycopy(buffer, 0, result, length, count);
+                length += count;
+            }
+            return Arrays.copyOf(result, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static float[] decompress(final byte[] bytes, final int n) throws IOException{
+        final byte[] planes = new byte[4 * n];
+        final Inflater inflater = new Inflater();
+        try{
+            inflater.setInput(bytes);
+            int length = 0;
+            while(length < planes.length && !inflater.finished()){
+                final int count = inflater.inflate(planes, length, planes.length - length);
+                if(count == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+                    break;
+                }
+                length += count;
+            }
+            if(length != planes.length){
+                throw new IOException("Feature matrix is corrupt");
+            }
+        } catch(DataFormatException ex){
+            throw new IOException("Feature matrix is corrupt: " + ex.getMessage(), ex);
+        } finally {
+            inflater.end();
+        }
+        final float[] values = new float[n];
+        for(int i = 0; i < n; i++){
+            values[i] = Float.intBitsToFloat(((planes[i] & 0xFF) << 24)
+                | ((planes[n + i] & 0xFF) << 16) | ((planes[2 * n + i] & 0xFF) << 8)
+                | (planes[3 * n + i] & 0xFF));
+        }
+        return values;
+    }
+
+}
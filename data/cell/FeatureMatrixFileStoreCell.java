@@ -0,0 +1,231 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.cell;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.knime.core.data.DataCell;
+import org.knime.core.data.DataCellDataInput;
+import org.knime.core.data.DataCellDataOutput;
+import org.knime.core.data.DataCellSerializer;
+import org.knime.core.data.DataType;
+import org.knime.core.data.StringValue;
+import org.knime.core.data.filestore.FileStore;
+import org.knime.core.data.filestore.FileStoreCell;
+
+/**
+ * Cell keeping a feature matrix in a file store. The file contains the values of
+ * all frames one after another as little-endian floats and is memory-mapped
+ * the first time a value is read, so the matrix is never copied into the heap.
+ *
+ * A new cell should only be created using {@link FeatureMatrixBuilder}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class FeatureMatrixFileStoreCell extends FileStoreCell implements FeatureMatrixValue, StringValue{
+
+    /**
+     * Serializer for <code>FeatureMatrixFileStoreCell</code>s.
+     * @noreference This class is not intended to be referenced by clients.
+     */
+    public static final class FeatureMatrixFileStoreSerializer
+            implements DataCellSerializer<FeatureMatrixFileStoreCell> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void serialize(final FeatureMatrixFileStoreCell cell, final DataCellDataOutput output)
+                throws IOException {
+            output.writeInt(cell.m_frames);
+            output.writeInt(cell.m_dimension);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public FeatureMatrixFileStoreCell deserialize(final DataCellDataInput input) throws IOException {
+            final int frames = input.readInt();
+            final int dimension = input.readInt();
+            return new FeatureMatrixFileStoreCell(frames, dimension);
+        }
+
+    }
+
+    /**
+     * Automatically generated Version UID
+     */
+    private static final long serialVersionUID = 6171380845312296507L;
+
+    /**
+     * Convenience access member for
+     * <code>DataType.getType(FeatureMatrixFileStoreCell.class)</code>.
+     *
+     * @see DataType#getType(Class)
+     */
+    public static final DataType TYPE = DataType.getType(FeatureMatrixFileStoreCell.class);
+
+    private final int m_frames;
+
+    private final int m_dimension;
+
+    /* Mapped content of the file store, created when first needed */
+    private transient FloatBuffer m_values;
+
+    /**
+     * @param fileStore the file store containing the values
+     * @param frames the number of frames
+     * @param dimension the number of values per frame
+     */
+    FeatureMatrixFileStoreCell(final FileStore fileStore, final int frames, final int dimension){
+        super(fileStore);
+        m_frames = frames;
+        m_dimension = dimension;
+    }
+
+    /* Used by the serializer, the file store is set by the framework */
+    private FeatureMatrixFileStoreCell(final int frames, final int dimension){
+        super();
+        m_frames = frames;
+        m_dimension = dimension;
+    }
+
+    private synchronized FloatBuffer getValues(){
+        if(m_values == null){
+            try (FileChannel channel = FileChannel.open(getFileStore().getFile().toPath(),
+                    StandardOpenOption.READ)) {
+                /* The mapping stays valid after the channel is closed */
+                m_values = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4L * m_frames * m_dimension)
+                        .order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Cannot read the feature matrix: " + ex.getMessage(), ex);
+            }
+        }
+        return m_values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getNumberOfFrames() {
+        return m_frames;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getDimension() {
+        return m_dimension;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float getValue(final int frame, final int dimension) {
+        if(dimension < 0 || dimension >= m_dimension){
+            throw new IndexOutOfBoundsException("Invalid dimension: " + dimension);
+        }
+        return getValues().get(frame * m_dimension + dimension);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public float[] getFrame(final int frame) {
+        final float[] values = new float[m_dimension];
+        final FloatBuffer buffer = getValues().duplicate();
+        buffer.position(frame * m_dimension);
+        buffer.get(values);
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getStringValue() {
+        return "Feature Matrix[" + m_frames + " x " + m_dimension + "]";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return getStringValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean equalsDataCell(final DataCell dc) {
+        final FeatureMatrixFileStoreCell cell = (FeatureMatrixFileStoreCell) dc;
+        return m_frames == cell.m_frames && m_dimension == cell.m_dimension
+                && getFileStore().equals(cell.getFileStore());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * m_frames + m_dimension) + getFileStore().hashCode();
+    }
+
+}
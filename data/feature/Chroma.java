@@ -48,6 +48,8 @@
  */
 package org.knime.base.node.audio3.data.feature;
 
+import java.util.Arrays;
+
 import org.knime.base.node.audio3.data.AudioSamples;
 
 /**
@@ -56,6 +58,8 @@ import org.knime.base.node.audio3.data.AudioSamples;
  */
 public class Chroma extends FeatureExtractor {
 
+    private static final int NR_OF_PITCH_CLASSES = 12;
+
     /**
      *
      */
@@ -65,14 +69,75 @@ public class Chroma extends FeatureExtractor {
 
     /**
      * {@inheritDoc}
+     * The constant-Q transform of the values is looked up by the number of
+     * bins, compiled extractors use the transform of their dependency instead.
      */
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        final jAudioFeatureExtractor.AudioFeatures.Chroma chroma =
-                new jAudioFeatureExtractor.AudioFeatures.Chroma();
-        return chroma.extractFeature(samples.getSamplesMixedDownIntoOneChannel(),
-            samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
+        final double[] constantQ = additionalFeatureValues[0];
+        final double[] chroma = new double[NR_OF_PITCH_CLASSES];
+        fold(find(samples.getAudioFormat().getSampleRate(), samples.getSamplesMixedDownIntoOneChannel().length,
+            constantQ.length), constantQ, 0, constantQ.length, chroma, 0);
+        return chroma;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return compile(sampleRate, windowSize, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The constant-Q transform is the one of the {@link ConstantQ} extractor
+     * of the kernels, it is looked up by the number of bins without one.
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        final FeatureExtractor dependency = kernels == null ? null : kernels.getExtractor(FeatureType.CONSTANTQ);
+        final ConstantQTransform resolved = dependency instanceof ConstantQ ? ConstantQTransform.getInstance(
+            sampleRate, windowSize, ((ConstantQ)dependency).getAlpha()) : null;
+        return new CompiledFeatureExtractor(getType(), NR_OF_PITCH_CLASSES) {
+
+            /* Transform of the constant-Q values, looked up with the first window if unresolved */
+            private ConstantQTransform m_transform = resolved;
+
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                if (m_transform == null || m_transform.getFrequencies().length != len) {
+                    if (resolved != null) {
+                        throw new IllegalArgumentException("Expected " + resolved.getFrequencies().length
+                            + " constant-Q bins instead of " + len);
+                    }
+                    m_transform = find(sampleRate, windowSize, len);
+                }
+                Arrays.fill(out, outOff, outOff + NR_OF_PITCH_CLASSES, 0);
+                fold(m_transform, in, off, len, out, outOff);
+            }
+        };
+    }
+
+    private static ConstantQTransform find(final float sampleRate, final int windowSize, final int nrOfBins) {
+        final ConstantQTransform transform = ConstantQTransform.find(sampleRate, windowSize, nrOfBins);
+        if (transform == null) {
+            throw new IllegalStateException("No constant-Q transform with " + nrOfBins + " bins for windows of "
+                    + windowSize + " samples at " + sampleRate + " Hz");
+        }
+        return transform;
+    }
+
+    /* Folds the constant-Q bins into the pitch classes */
+    private static void fold(final ConstantQTransform transform, final double[] constantQ,
+            final int offset, final int length, final double[] chroma, final int chromaPos) {
+        final int[] pitchClasses = transform.getPitchClasses();
+        for (int k = 0; k < length; k++) {
+            chroma[chromaPos + pitchClasses[k]] += constantQ[offset + k];
+        }
     }
 
     /**
@@ -80,7 +145,7 @@ public class Chroma extends FeatureExtractor {
      */
     @Override
     public int getDimension(final int windowSize) {
-        return 12;
+        return NR_OF_PITCH_CLASSES;
     }
 
 }
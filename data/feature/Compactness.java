@@ -75,6 +75,28 @@ public class Compactness extends FeatureExtractor {
             samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                /* Distance of each bin from the mean of its neighbourhood in decibels, as in jAudio */
+                double compactness = 0;
+                for (int i = off + 1; i < off + len - 1; i++) {
+                    if (in[i - 1] > 0 && in[i] > 0 && in[i + 1] > 0) {
+                        compactness += Math.abs(20 * Math.log(in[i])
+                            - 20 * (Math.log(in[i - 1]) + Math.log(in[i]) + Math.log(in[i + 1])) / 3);
+                    }
+                }
+                out[outOff] = compactness;
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
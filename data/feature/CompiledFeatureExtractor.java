@@ -0,0 +1,128 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+/**
+ * Feature extractor whose parameters have been resolved once for a fixed sample
+ * rate and window size, see {@link FeatureExtractor#compile(float, int)}. The
+ * input of a feature without dependencies is the window mixed down into one
+ * channel, the input of any other feature are the values of its dependency. The
+ * values are written into an array owned by the caller, so extracting the feature
+ * of a window does not create any objects. An instance may keep scratch buffers
+ * and must therefore only be used by one thread.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public abstract class CompiledFeatureExtractor {
+
+    private final FeatureType m_type;
+
+    private final int m_dimension;
+
+    /**
+     * @param type the feature type
+     * @param dimension the number of values written per window
+     */
+    protected CompiledFeatureExtractor(final FeatureType type, final int dimension) {
+        if (type == null) {
+            throw new IllegalArgumentException("Feature type cannot be null");
+        }
+        if (dimension < 0) {
+            throw new IllegalArgumentException("Dimension cannot be negative: " + dimension);
+        }
+        m_type = type;
+        m_dimension = dimension;
+    }
+
+    /**
+     * @return the feature type of this extractor
+     */
+    public FeatureType getType() {
+        return m_type;
+    }
+
+    /**
+     * @return the number of values written per window
+     */
+    public int getDimension() {
+        return m_dimension;
+    }
+
+    /**
+     * Extracts the feature of one window.
+     *
+     * @param in the samples of the window or the values of the dependency
+     * @param off the position of the first input value
+     * @param len the number of input values
+     * @param out the array receiving the {@link #getDimension()} values of the feature
+     * @param outOff the position of the first value in the output array
+     * @throws Exception if the feature cannot be extracted
+     */
+    public abstract void extract(final double[] in, final int off, final int len,
+        final double[] out, final int outOff) throws Exception;
+
+    /**
+     * Returns the given input range as an array of its own, for extractors
+     * which can only process whole arrays. The input itself is returned if the
+     * range covers all of it, which is the case within the feature extraction.
+     *
+     * @param in the input
+     * @param off the position of the first input value
+     * @param len the number of input values
+     * @return the input itself or a copy of the range
+     */
+    protected static double[] asArray(final double[] in, final int off, final int len) {
+        if (off == 0 && len == in.length) {
+            return in;
+        }
+        final double[] array = new double[len];
+        System.arraycopy(in, off, array, 0, len);
+        return array;
+    }
+}
@@ -72,11 +72,30 @@ public class ConstantQ extends FeatureExtractor {
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        final jAudioFeatureExtractor.AudioFeatures.ConstantQ cq =
-                new jAudioFeatureExtractor.AudioFeatures.ConstantQ();
-        cq.setElement(0, Double.toString(getParameterValue(ALPHA)));
-        return cq.extractFeature(samples.getSamplesMixedDownIntoOneChannel(),
-            samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
+        final double[] mono = samples.getSamplesMixedDownIntoOneChannel();
+        return ConstantQTransform.getInstance(samples.getAudioFormat().getSampleRate(), mono.length,
+            getParameterValue(ALPHA)).transform(mono);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        final ConstantQTransform transform = ConstantQTransform.getInstance(sampleRate, windowSize,
+            getParameterValue(ALPHA));
+        return new CompiledFeatureExtractor(getType(), transform.getFrequencies().length) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                transform.transform(in, off, len, out, outOff);
+            }
+        };
+    }
+
+    /* The distance of the bins in semitones */
+    double getAlpha() {
+        return getParameterValue(ALPHA).doubleValue();
     }
 
     /**
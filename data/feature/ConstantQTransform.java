@@ -0,0 +1,420 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Constant-Q transform with sparse spectral kernels. The bins are spaced by a
+ * fraction of a semitone from <code>sampleRate / windowSize</code> up to the
+ * Nyquist frequency, as in jAudio. The bins are processed octave by octave: the
+ * signal is low-pass filtered and decimated by two for each lower octave, so all
+ * octaves use short kernels and small FFTs instead of kernels spanning the whole
+ * window. The kernels only depend on sample rate, window size and semitone
+ * fraction, they are computed once and cached.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class ConstantQTransform {
+
+    /* Spectral kernel values below this fraction of the maximum are dropped */
+    private static final double KERNEL_THRESHOLD = 0.0054;
+
+    /* Half-band low-pass filter applied before each decimation by two */
+    private static final double[] HALF_BAND = createHalfBand(16);
+
+    private static final ConcurrentMap<String, ConstantQTransform> CACHE =
+            new ConcurrentHashMap<String, ConstantQTransform>();
+
+    /* Transform used last by the thread, usually the one of the next window as well */
+    private static final ThreadLocal<ConstantQTransform> LAST = new ThreadLocal<ConstantQTransform>();
+
+    /* Decimated signals, FFT input and output of the thread */
+    private static final ThreadLocal<double[][]> SCRATCH = new ThreadLocal<double[][]>();
+
+    private final float m_sampleRate;
+
+    private final int m_windowSize;
+
+    private final double m_alpha;
+
+    private final double[] m_frequencies;
+
+    private final int[] m_pitchClasses;
+
+    /* Index 0 is the highest octave, which is not decimated */
+    private final Octave[] m_octaves;
+
+    private final int m_maxFftSize;
+
+    /* Sparse spectral kernels of the bins of one octave */
+    private static final class Octave {
+        private final int m_fftSize;
+        private final int[] m_bins;
+        private final int[][] m_indices;
+        private final double[][] m_real;
+        private final double[][] m_imaginary;
+
+        private Octave(final int fftSize, final int[] bins, final int[][] indices,
+                final double[][] real, final double[][] imaginary) {
+            m_fftSize = fftSize;
+            m_bins = bins;
+            m_indices = indices;
+            m_real = real;
+            m_imaginary = imaginary;
+        }
+    }
+
+    private ConstantQTransform(final float sampleRate, final int windowSize, final double alpha) {
+        m_sampleRate = sampleRate;
+        m_windowSize = windowSize;
+        m_alpha = alpha;
+
+        /* Same frequencies as jAudio */
+        final double ratio = Math.pow(2, alpha / 12.0);
+        final double q = 1 / (ratio - 1);
+        final double minFreq = (double)sampleRate / windowSize;
+        final double maxFreq = sampleRate / 2.0;
+        final int nrOfBins = Math.max(0,
+            (int)Math.floor(Math.log(maxFreq / minFreq) / Math.log(2) * 12 / alpha));
+        m_frequencies = new double[nrOfBins];
+        m_pitchClasses = new int[nrOfBins];
+        double freq = minFreq;
+        for (int k = 0; k < nrOfBins; k++) {
+            m_frequencies[k] = freq;
+            /* Pitch class relative to C, with A at 440 Hz */
+            final int semitones = (int)Math.round(12 * Math.log(freq / 440) / Math.log(2));
+            m_pitchClasses[k] = ((semitones + 9) % 12 + 12) % 12;
+            freq *= ratio;
+        }
+
+        /* Assign the bins to octaves below the Nyquist frequency */
+        final int maxOctave = Math.max(0, 31 - Integer.numberOfLeadingZeros(windowSize) - 1);
+        final List<List<Integer>> binsPerOctave = new ArrayList<List<Integer>>();
+        for (int k = 0; k < nrOfBins; k++) {
+            final int octave = Math.min(maxOctave, Math.max(0,
+                (int)Math.floor(Math.log(maxFreq / m_frequencies[k]) / Math.log(2))));
+            while (binsPerOctave.size() <= octave) {
+                binsPerOctave.add(new ArrayList<Integer>());
+            }
+            binsPerOctave.get(octave).add(Integer.valueOf(k));
+        }
+
+        m_octaves = new Octave[binsPerOctave.size()];
+        int maxFftSize = 2;
+        int length = windowSize;
+        for (int o = 0; o < m_octaves.length; o++) {
+            if (o > 0) {
+                length = (length + 1) / 2;
+            }
+            m_octaves[o] = createOctave(binsPerOctave.get(o), sampleRate / (double)(1 << o), length, q);
+            maxFftSize = Math.max(maxFftSize, m_octaves[o].m_fftSize);
+        }
+        m_maxFftSize = maxFftSize;
+    }
+
+    private Octave createOctave(final List<Integer> binList, final double sampleRate,
+            final int length, final double q) {
+        final int[] bins = new int[binList.size()];
+        final int[] kernelLengths = new int[bins.length];
+        int maxLength = 1;
+        for (int b = 0; b < bins.length; b++) {
+            bins[b] = binList.get(b).intValue();
+            kernelLengths[b] = (int)Math.max(1,
+                Math.min(length, Math.ceil(q * sampleRate / m_frequencies[bins[b]])));
+            maxLength = Math.max(maxLength, kernelLengths[b]);
+        }
+        final int fftSize = Math.max(2, RealFFT.ensureIsPowerOfTwo(maxLength));
+        final int half = fftSize / 2;
+
+        final int[][] indices = new int[bins.length][];
+        final double[][] real = new double[bins.length][];
+        final double[][] imaginary = new double[bins.length][];
+        final double[] spectrumRe = new double[half + 1];
+        final double[] spectrumIm = new double[half + 1];
+        for (int b = 0; b < bins.length; b++) {
+            /* Hamming windowed complex exponential centered in the FFT frame */
+            final int nk = kernelLengths[b];
+            final int start = (fftSize - nk) / 2;
+            final double omega = 2 * Math.PI * m_frequencies[bins[b]] / sampleRate;
+            double max = 0;
+            for (int m = 0; m <= half; m++) {
+                double re = 0;
+                double im = 0;
+                for (int j = 0; j < nk; j++) {
+                    final double window = (0.54 - 0.46 * Math.cos(2 * Math.PI * j / nk)) / nk;
+                    final double angle = omega * j - 2 * Math.PI * (double)m * (start + j) / fftSize;
+                    re += window * Math.cos(angle);
+                    im += window * Math.sin(angle);
+                }
+                spectrumRe[m] = re;
+                spectrumIm[m] = im;
+                max = Math.max(max, Math.hypot(re, im));
+            }
+            /* Keep the significant values, conjugated and scaled for the inner product */
+            int count = 0;
+            for (int m = 0; m <= half; m++) {
+                if (Math.hypot(spectrumRe[m], spectrumIm[m]) >= KERNEL_THRESHOLD * max) {
+                    count++;
+                }
+            }
+            indices[b] = new int[count];
+            real[b] = new double[count];
+            imaginary[b] = new double[count];
+            int idx = 0;
+            for (int m = 0; m <= half; m++) {
+                if (Math.hypot(spectrumRe[m], spectrumIm[m]) >= KERNEL_THRESHOLD * max) {
+                    indices[b][idx] = m;
+                    real[b][idx] = spectrumRe[m] / fftSize;
+                    imaginary[b][idx] = -spectrumIm[m] / fftSize;
+                    idx++;
+                }
+            }
+        }
+        return new Octave(fftSize, bins, indices, real, imaginary);
+    }
+
+    /**
+     * Returns the transform for the given configuration, creating it the first
+     * time it is requested.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param windowSize the number of samples per window
+     * @param alpha the distance of the bins in semitones
+     * @return the transform
+     */
+    public static ConstantQTransform getInstance(final float sampleRate, final int windowSize,
+            final double alpha) {
+        if (sampleRate <= 0 || windowSize < 1 || !(alpha > 0)) {
+            throw new IllegalArgumentException("Sample rate, window size and semitone fraction "
+                    + "must be positive");
+        }
+        final ConstantQTransform last = LAST.get();
+        if (last != null && last.m_sampleRate == sampleRate && last.m_windowSize == windowSize
+                && last.m_alpha == alpha) {
+            return last;
+        }
+        final String key = sampleRate + "_" + windowSize + "_" + alpha;
+        ConstantQTransform transform = CACHE.get(key);
+        if (transform == null) {
+            final ConstantQTransform created = new ConstantQTransform(sampleRate, windowSize, alpha);
+            transform = CACHE.putIfAbsent(key, created);
+            if (transform == null) {
+                transform = created;
+            }
+        }
+        LAST.set(transform);
+        return transform;
+    }
+
+    /**
+     * Returns a transform that has already been created for the given sample rate
+     * and window size and has the given number of bins. Only use this if the
+     * semitone fraction is unknown, different fractions may result in the same
+     * number of bins.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param windowSize the number of samples per window
+     * @param nrOfBins the number of bins
+     * @return the transform or <code>null</code> if there is none
+     * @throws IllegalStateException if transforms with different semitone
+     * fractions have the given number of bins
+     */
+    public static ConstantQTransform find(final float sampleRate, final int windowSize,
+            final int nrOfBins) {
+        ConstantQTransform result = null;
+        for (ConstantQTransform transform : CACHE.values()) {
+            if (transform.m_sampleRate == sampleRate && transform.m_windowSize == windowSize
+                    && transform.m_frequencies.length == nrOfBins) {
+                if (result != null) {
+                    throw new IllegalStateException("The semitone fractions " + result.m_alpha + " and "
+                            + transform.m_alpha + " both result in " + nrOfBins + " constant-Q bins");
+                }
+                result = transform;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the center frequencies of the bins in ascending order, must not be modified
+     */
+    public double[] getFrequencies() {
+        return m_frequencies;
+    }
+
+    /**
+     * @return the pitch class of each bin, 0 for C up to 11 for B, must not be modified
+     */
+    public int[] getPitchClasses() {
+        return m_pitchClasses;
+    }
+
+    /**
+     * Computes the magnitudes of the constant-Q bins of the given samples.
+     *
+     * @param samples the samples, must have the window size of this transform
+     * @return the magnitude of each bin in ascending order of frequency
+     */
+    public double[] transform(final double[] samples) {
+        final double[] result = new double[m_frequencies.length];
+        transform(samples, 0, samples.length, result, 0);
+        return result;
+    }
+
+    /**
+     * Computes the magnitudes of the constant-Q bins of a range of the given samples
+     * and writes them into the given array.
+     *
+     * @param samples the samples
+     * @param offset the position of the first sample
+     * @param length the number of samples, must be the window size of this transform
+     * @param dest the array receiving the magnitude of each bin in ascending order of frequency
+     * @param destPos the position of the first bin in the array
+     */
+    public void transform(final double[] samples, final int offset, final int length,
+            final double[] dest, final int destPos) {
+        if (length != m_windowSize) {
+            throw new IllegalArgumentException("The window must have " + m_windowSize
+                    + " samples: " + length);
+        }
+        if (m_frequencies.length == 0) {
+            return;
+        }
+        final double[][] scratch = getScratch();
+        double[] signal = samples;
+        int start = offset;
+        int signalLength = length;
+        final double[] segment = scratch[2];
+        final double[] re = scratch[3];
+        final double[] im = scratch[4];
+        for (int o = 0; o < m_octaves.length; o++) {
+            if (o > 0) {
+                /* Alternate between the two buffers, the samples are never written */
+                final double[] next = signal == scratch[0] ? scratch[1] : scratch[0];
+                signalLength = decimate(signal, start, signalLength, next);
+                signal = next;
+                start = 0;
+            }
+            final Octave octave = m_octaves[o];
+            if (octave.m_bins.length == 0) {
+                continue;
+            }
+            /* Frame of the FFT size around the center of the signal */
+            final int fftSize = octave.m_fftSize;
+            final int first = signalLength / 2 - fftSize / 2;
+            for (int t = 0; t < fftSize; t++) {
+                final int pos = first + t;
+                segment[t] = pos >= 0 && pos < signalLength ? signal[start + pos] : 0;
+            }
+            RealFFT.getInstance(fftSize).transform(segment, 0, fftSize, false, re, im);
+            for (int b = 0; b < octave.m_bins.length; b++) {
+                final int[] indices = octave.m_indices[b];
+                final double[] kr = octave.m_real[b];
+                final double[] ki = octave.m_imaginary[b];
+                double sumRe = 0;
+                double sumIm = 0;
+                for (int j = 0; j < indices.length; j++) {
+                    final int m = indices[j];
+                    sumRe += kr[j] * re[m] - ki[j] * im[m];
+                    sumIm += kr[j] * im[m] + ki[j] * re[m];
+                }
+                dest[destPos + octave.m_bins[b]] = Math.hypot(sumRe, sumIm);
+            }
+        }
+    }
+
+    private double[][] getScratch() {
+        double[][] scratch = SCRATCH.get();
+        if (scratch == null || scratch[0].length < m_windowSize || scratch[2].length < m_maxFftSize) {
+            final int signalLength = Math.max(m_windowSize, scratch == null ? 0 : scratch[0].length);
+            final int fftSize = Math.max(m_maxFftSize, scratch == null ? 0 : scratch[2].length);
+            scratch = new double[][]{new double[signalLength], new double[signalLength],
+                new double[fftSize], new double[fftSize / 2 + 1], new double[fftSize / 2 + 1]};
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /* Low-pass filters and decimates the signal by two, returns the new length */
+    private static int decimate(final double[] signal, final int offset, final int length,
+            final double[] dest) {
+        final int taps = HALF_BAND.length / 2;
+        final int newLength = (length + 1) / 2;
+        for (int m = 0; m < newLength; m++) {
+            final int center = 2 * m;
+            double sum = 0;
+            final int from = Math.max(-taps, -center);
+            final int to = Math.min(taps, length - 1 - center);
+            for (int k = from; k <= to; k++) {
+                sum += HALF_BAND[k + taps] * signal[offset + center + k];
+            }
+            dest[m] = sum;
+        }
+        return newLength;
+    }
+
+    private static double[] createHalfBand(final int taps) {
+        final double[] filter = new double[2 * taps + 1];
+        double sum = 0;
+        for (int k = -taps; k <= taps; k++) {
+            final double sinc = k == 0 ? 1 : Math.sin(Math.PI * k / 2) / (Math.PI * k / 2);
+            final double window = 0.54 + 0.46 * Math.cos(Math.PI * k / (taps + 1));
+            filter[k + taps] = 0.5 * sinc * window;
+            sum += filter[k + taps];
+        }
+        for (int i = 0; i < filter.length; i++) {
+            filter[i] /= sum;
+        }
+        return filter;
+    }
+}
@@ -140,6 +140,39 @@ public abstract class FeatureExtractor {
      */
     public abstract int getDimension(final int windowSize);
 
+    /**
+     * Compiles this extractor for the given sample rate and window size. The
+     * parameters are read once and the returned extractor writes the values of
+     * each window into an array owned by the caller instead of creating new
+     * objects per window. The values are the same as the ones of
+     * {@link #extractFeature(AudioSamples, double[][])}.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param windowSize the number of samples per window
+     * @return the compiled extractor or <code>null</code> if the feature can only
+     * be extracted with {@link #extractFeature(AudioSamples, double[][])}, e.g.
+     * because the number of values differs from window to window
+     */
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize){
+        return null;
+    }
+
+    /**
+     * Compiles this extractor like {@link #compile(float, int)}, but lets it
+     * read its values from the given kernels shared with other extractors. The
+     * caller computes the kernels for each window before applying the returned
+     * extractor. Extractors which don't use the kernels ignore them.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param windowSize the number of samples per window
+     * @param kernels the kernels computed for each window, may be <code>null</code>
+     * @return the compiled extractor or <code>null</code>, see {@link #compile(float, int)}
+     */
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels){
+        return compile(sampleRate, windowSize);
+    }
+
     /**
      *
      * @param type
@@ -191,13 +224,24 @@ public abstract class FeatureExtractor {
     }
 
     public static Aggregator getAggregator(final String aggregator){
-        if(aggregator.equals(Aggregator.MEAN.getName())){
-            return Aggregator.MEAN;
-        }else if(aggregator.equals(Aggregator.STD_DEVIATION.getName())){
-            return Aggregator.STD_DEVIATION;
-        }else{
-            return null;
+        for(Aggregator agg : Aggregator.values()){
+            if(agg.getName().equals(aggregator)){
+                return agg;
+            }
         }
+        return null;
+    }
+
+    /**
+     * @return the names of all aggregators
+     */
+    public static String[] getAggregatorNames(){
+        final Aggregator[] aggregators = Aggregator.values();
+        final String[] names = new String[aggregators.length];
+        for(int i = 0; i < names.length; i++){
+            names[i] = aggregators[i].getName();
+        }
+        return names;
     }
 
     /**
@@ -245,7 +289,21 @@ public abstract class FeatureExtractor {
     public enum Aggregator{
         MEAN("Mean"),
 
-        STD_DEVIATION("Standard Deviation");
+        STD_DEVIATION("Standard Deviation"),
+
+        MEDIAN("Median"),
+
+        PERCENTILE_10("10th Percentile"),
+
+        PERCENTILE_90("90th Percentile"),
+
+        MIN("Minimum"),
+
+        MAX("Maximum"),
+
+        SKEWNESS("Skewness"),
+
+        KURTOSIS("Kurtosis");
 
         private final String m_name;
         private Aggregator(final String name){
@@ -256,6 +314,13 @@ public abstract class FeatureExtractor {
             return m_name;
         }
 
+        /**
+         * @return <code>true</code> if the aggregator needs quantile estimates
+         */
+        public boolean isQuantile(){
+            return this == MEDIAN || this == PERCENTILE_10 || this == PERCENTILE_90;
+        }
+
         /**
          * {@inheritDoc}
          */
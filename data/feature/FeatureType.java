@@ -56,6 +56,7 @@ import org.knime.core.data.DataType;
 import org.knime.core.data.collection.CollectionCellFactory;
 import org.knime.core.data.collection.ListCell;
 import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.vector.doublevector.DoubleVectorCellFactory;
 
 /**
  *
@@ -409,6 +410,28 @@ public enum FeatureType {
         return m_cellExtractor.getDataType();
     }
 
+    /**
+     * Creates a single cell containing all values of the feature, backed by a
+     * primitive array.
+     *
+     * @param featureValues the feature values
+     * @return the vector cell, a missing cell if there are no values
+     * @see #getVectorDataType()
+     */
+    public static DataCell getVectorCell(final double[] featureValues){
+        if(featureValues == null || featureValues.length == 0){
+            return DataType.getMissingCell();
+        }
+        return DoubleVectorCellFactory.createCell(featureValues);
+    }
+
+    /**
+     * @return the {@link DataType} of the cells created by {@link #getVectorCell(double[])}
+     */
+    public static DataType getVectorDataType(){
+        return DoubleVectorCellFactory.TYPE;
+    }
+
     /**
      * {@inheritDoc}
      */
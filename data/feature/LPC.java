@@ -51,6 +51,10 @@ package org.knime.base.node.audio3.data.feature;
 import org.knime.base.node.audio3.data.AudioSamples;
 
 /**
+ * Linear prediction coefficients of the window mixed down into one channel,
+ * computed from the autocorrelation of a {@link TimeDomainKernel} with the
+ * Levinson-Durbin recursion. The autocorrelation is frequency warped if lambda
+ * is not 0.
  *
  * @author Budi Yanto, KNIME.com
  */
@@ -75,12 +79,50 @@ public class LPC extends FeatureExtractor {
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        final jAudioFeatureExtractor.AudioFeatures.LPC lpc =
-                new jAudioFeatureExtractor.AudioFeatures.LPC();
-        lpc.setLambda(getParameterValue(LAMBDA));
-        lpc.setNumDimensions(getParameterValue(COEFFICIENTS).intValue());
-        return lpc.extractFeature(samples.getSamplesMixedDownIntoOneChannel(),
-            samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
+        final int coefficients = getNumberOfCoefficients();
+        final double[] mono = samples.getSamplesMixedDownIntoOneChannel();
+        final TimeDomainKernel kernel = new TimeDomainKernel(coefficients, getLambda());
+        kernel.compute(mono, 0, mono.length);
+        final double[] values = new double[coefficients];
+        TimeDomainKernel.levinsonDurbin(kernel.getAutocorrelation(), coefficients,
+            new double[coefficients], values, 0);
+        return values;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return compile(sampleRate, windowSize, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        final TimeDomainKernel kernel = kernels == null ? null : kernels.getTimeDomainKernel();
+        final int coefficients = getNumberOfCoefficients();
+        final boolean shared = kernel != null && kernel.getNumberOfLags() >= coefficients
+                && kernel.getLambda() == getLambda();
+        /* Without a shared kernel the extractor computes its own for each window */
+        final TimeDomainKernel source = shared ? kernel : new TimeDomainKernel(coefficients, getLambda());
+        return new CompiledFeatureExtractor(getType(), coefficients) {
+
+            private final double[] m_scratch = new double[coefficients];
+
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                if (!shared) {
+                    source.compute(in, off, len);
+                }
+                TimeDomainKernel.levinsonDurbin(source.getAutocorrelation(), coefficients, m_scratch,
+                    out, outOff);
+            }
+        };
     }
 
     /**
@@ -88,7 +130,15 @@ public class LPC extends FeatureExtractor {
      */
     @Override
     public int getDimension(final int windowSize) {
+        return getNumberOfCoefficients();
+    }
+
+    int getNumberOfCoefficients() {
         return getParameterValue(COEFFICIENTS).intValue();
     }
 
+    double getLambda() {
+        return getParameterValue(LAMBDA).doubleValue();
+    }
+
 }
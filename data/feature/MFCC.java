@@ -49,7 +49,6 @@
 package org.knime.base.node.audio3.data.feature;
 
 import org.knime.base.node.audio3.data.AudioSamples;
-import org.oc.ocvolume.dsp.featureExtraction;
 
 /**
  *
@@ -73,15 +72,26 @@ public class MFCC extends FeatureExtractor{
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        final featureExtraction extractor = new featureExtraction();
-        extractor.numCepstra = getParameterValue(PARAMETER_NAME).intValue();
-        final int[] cbin = extractor.fftBinIndices(
-            samples.getAudioFormat().getSampleRate(),
-            additionalFeatureValues[0].length);
-        final double[] fbank = extractor.melFilter(additionalFeatureValues[0], cbin);
-        final double[] f = extractor.nonLinearTransformation(fbank);
-        final double[] cepc = extractor.cepCoefficients(f);
-        return cepc;
+        /* The filter bank only depends on the configuration and is shared by all windows */
+        return MelFilterBank.getInstance(samples.getAudioFormat().getSampleRate(),
+            additionalFeatureValues[0].length, getParameterValue(PARAMETER_NAME).intValue())
+                .getCepstralCoefficients(additionalFeatureValues[0]);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        final MelFilterBank filterBank = MelFilterBank.getInstance(sampleRate,
+            RealFFT.ensureIsPowerOfTwo(windowSize) / 2, getParameterValue(PARAMETER_NAME).intValue());
+        return new CompiledFeatureExtractor(getType(), filterBank.getNumberOfCoefficients()) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                filterBank.getCepstralCoefficients(in, off, len, out, outOff);
+            }
+        };
     }
 
     /**
@@ -71,10 +71,25 @@ public class MagnitudeSpectrum extends FeatureExtractor{
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        return new jAudioFeatureExtractor.AudioFeatures.MagnitudeSpectrum()
-                .extractFeature(samples.getSamplesMixedDownIntoOneChannel(),
-                    samples.getAudioFormat().getSampleRate(),
-                    additionalFeatureValues);
+        /* Power and magnitude spectrum share one transform per window */
+        return Spectrum.of(samples).getMagnitudeSpectrum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return Spectrum.compile(getType(), windowSize, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        return Spectrum.compile(getType(), windowSize, false, kernels);
     }
 
     /**
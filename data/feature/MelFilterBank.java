@@ -0,0 +1,232 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.oc.ocvolume.dsp.featureExtraction;
+
+/**
+ * Mel filter bank and cepstral transform of the Orange Cow MFCC implementation,
+ * precomputed once per sample rate, spectrum length and number of coefficients.
+ * Both steps of the Orange Cow code are linear, so their weights are obtained by
+ * applying them once to each unit vector. The filters are stored sparsely as the
+ * range of spectrum bins they cover, which gives the same coefficients as
+ * {@link featureExtraction} up to rounding without setting it up per window.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class MelFilterBank {
+
+    /* Floor of the logarithm of the filter bank energies, as in Orange Cow */
+    private static final double LOG_FLOOR = -50;
+
+    private static final ConcurrentMap<String, MelFilterBank> CACHE =
+            new ConcurrentHashMap<String, MelFilterBank>();
+
+    private static final ThreadLocal<double[]> SCRATCH = new ThreadLocal<double[]>();
+
+    /* Filter bank used last by the thread, usually the one of the next window as well */
+    private static final ThreadLocal<MelFilterBank> LAST = new ThreadLocal<MelFilterBank>();
+
+    private final float m_sampleRate;
+
+    private final int m_spectrumLength;
+
+    private final int m_numCepstra;
+
+    /* First spectrum bin and weights of each filter */
+    private final int[] m_filterStart;
+    private final double[][] m_filterWeights;
+
+    /* Cepstral transform, indexed by [coefficient][filter] */
+    private final double[][] m_dct;
+
+    private MelFilterBank(final float sampleRate, final int spectrumLength, final int numCepstra) {
+        final featureExtraction extractor = new featureExtraction();
+        extractor.numCepstra = numCepstra;
+        final int[] cbin = extractor.fftBinIndices(sampleRate, spectrumLength);
+        final int nrOfFilters = cbin.length - 2;
+        m_sampleRate = sampleRate;
+        m_spectrumLength = spectrumLength;
+        m_numCepstra = numCepstra;
+
+        /* Weight of bin i in filter k is the response of filter k to the unit vector of bin i */
+        final double[][] weights = new double[nrOfFilters][spectrumLength];
+        final double[] unit = new double[spectrumLength];
+        for (int i = 0; i < spectrumLength; i++) {
+            unit[i] = 1;
+            final double[] response = extractor.melFilter(unit, cbin);
+            for (int k = 0; k < nrOfFilters; k++) {
+                weights[k][i] = response[k];
+            }
+            unit[i] = 0;
+        }
+        m_filterStart = new int[nrOfFilters];
+        m_filterWeights = new double[nrOfFilters][];
+        for (int k = 0; k < nrOfFilters; k++) {
+            int from = 0;
+            while (from < spectrumLength && weights[k][from] == 0) {
+                from++;
+            }
+            int to = spectrumLength;
+            while (to > from && weights[k][to - 1] == 0) {
+                to--;
+            }
+            m_filterStart[k] = from;
+            m_filterWeights[k] = Arrays.copyOfRange(weights[k], from, to);
+        }
+
+        final double[] unitFilter = new double[nrOfFilters];
+        m_dct = new double[numCepstra][nrOfFilters];
+        for (int j = 0; j < nrOfFilters; j++) {
+            unitFilter[j] = 1;
+            final double[] response = extractor.cepCoefficients(unitFilter);
+            for (int c = 0; c < numCepstra; c++) {
+                m_dct[c][j] = response[c];
+            }
+            unitFilter[j] = 0;
+        }
+    }
+
+    /**
+     * Returns the filter bank for the given configuration, creating it the first
+     * time it is requested.
+     *
+     * @param sampleRate the sample rate of the audio
+     * @param spectrumLength the length of the magnitude spectrum
+     * @param numCepstra the number of cepstral coefficients
+     * @return the filter bank
+     */
+    public static MelFilterBank getInstance(final float sampleRate, final int spectrumLength,
+            final int numCepstra) {
+        if (spectrumLength < 1 || numCepstra < 1) {
+            throw new IllegalArgumentException("Spectrum length and number of coefficients "
+                    + "must be positive");
+        }
+        final MelFilterBank last = LAST.get();
+        if (last != null && last.m_sampleRate == sampleRate && last.m_spectrumLength == spectrumLength
+                && last.m_numCepstra == numCepstra) {
+            return last;
+        }
+        final String key = sampleRate + "_" + spectrumLength + "_" + numCepstra;
+        MelFilterBank bank = CACHE.get(key);
+        if (bank == null) {
+            final MelFilterBank created = new MelFilterBank(sampleRate, spectrumLength, numCepstra);
+            bank = CACHE.putIfAbsent(key, created);
+            if (bank == null) {
+                bank = created;
+            }
+        }
+        LAST.set(bank);
+        return bank;
+    }
+
+    /**
+     * Computes the cepstral coefficients of the given magnitude spectrum.
+     *
+     * @param magnitudeSpectrum the magnitude spectrum, must have the length of this filter bank
+     * @return the cepstral coefficients
+     */
+    public double[] getCepstralCoefficients(final double[] magnitudeSpectrum) {
+        final double[] result = new double[m_dct.length];
+        getCepstralCoefficients(magnitudeSpectrum, 0, magnitudeSpectrum.length, result, 0);
+        return result;
+    }
+
+    /**
+     * @return the number of cepstral coefficients
+     */
+    public int getNumberOfCoefficients() {
+        return m_dct.length;
+    }
+
+    /**
+     * Computes the cepstral coefficients of a range of the given magnitude spectrum
+     * and writes them into the given array.
+     *
+     * @param magnitudeSpectrum the magnitude spectrum
+     * @param offset the position of the first bin
+     * @param length the number of bins, must be the length of this filter bank
+     * @param dest the array receiving the coefficients
+     * @param destPos the position of the first coefficient in the array
+     */
+    public void getCepstralCoefficients(final double[] magnitudeSpectrum, final int offset,
+            final int length, final double[] dest, final int destPos) {
+        if (length != m_spectrumLength) {
+            throw new IllegalArgumentException("The spectrum must have " + m_spectrumLength
+                    + " bins: " + length);
+        }
+        final int nrOfFilters = m_filterWeights.length;
+        double[] logEnergies = SCRATCH.get();
+        if (logEnergies == null || logEnergies.length < nrOfFilters) {
+            logEnergies = new double[nrOfFilters];
+            SCRATCH.set(logEnergies);
+        }
+        for (int k = 0; k < nrOfFilters; k++) {
+            final double[] weights = m_filterWeights[k];
+            final int start = m_filterStart[k];
+            double energy = 0;
+            for (int i = 0; i < weights.length; i++) {
+                energy += weights[i] * magnitudeSpectrum[offset + start + i];
+            }
+            logEnergies[k] = Math.max(LOG_FLOOR, Math.log(energy));
+        }
+        for (int c = 0; c < m_dct.length; c++) {
+            final double[] row = m_dct[c];
+            double sum = 0;
+            for (int k = 0; k < nrOfFilters; k++) {
+                sum += row[k] * logEnergies[k];
+            }
+            dest[destPos + c] = sum;
+        }
+    }
+}
@@ -71,10 +71,25 @@ public class PowerSpectrum extends FeatureExtractor{
     @Override
     public double[] extractFeature(final AudioSamples samples,
             final double[][] additionalFeatureValues) throws Exception {
-        return new jAudioFeatureExtractor.AudioFeatures.PowerSpectrum()
-                .extractFeature(samples.getSamplesMixedDownIntoOneChannel(),
-                    samples.getAudioFormat().getSampleRate(),
-                    additionalFeatureValues);
+        /* Power and magnitude spectrum share one transform per window */
+        return Spectrum.of(samples).getPowerSpectrum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return Spectrum.compile(getType(), windowSize, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        return Spectrum.compile(getType(), windowSize, true, kernels);
     }
 
     /**
@@ -0,0 +1,264 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fast Fourier transform of real input. The samples are packed into a complex
+ * sequence of half the size, transformed with a radix-2 FFT and split into the
+ * spectrum of the real input afterwards. Twiddle factors, bit reversal
+ * permutation and Hanning window are computed once per size and shared by all
+ * threads, the packed sequence is kept in thread-local scratch buffers.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class RealFFT {
+
+    private static final ConcurrentMap<Integer, RealFFT> PLANS =
+            new ConcurrentHashMap<Integer, RealFFT>();
+
+    private static final ThreadLocal<double[][]> SCRATCH = new ThreadLocal<double[][]>();
+
+    private final int m_size;
+
+    /* Size of the packed complex sequence */
+    private final int m_half;
+
+    /* exp(2 pi i k / m_half) for k < m_half / 2 */
+    private final double[] m_cos;
+    private final double[] m_sin;
+
+    /* exp(2 pi i k / m_size) for k <= m_half, used to split the packed spectrum */
+    private final double[] m_splitCos;
+    private final double[] m_splitSin;
+
+    private final int[] m_bitReverse;
+
+    private final double[] m_hanning;
+
+    private RealFFT(final int size) {
+        m_size = size;
+        m_half = size / 2;
+
+        m_cos = new double[m_half / 2];
+        m_sin = new double[m_half / 2];
+        for (int k = 0; k < m_cos.length; k++) {
+            final double angle = 2 * Math.PI * k / m_half;
+            m_cos[k] = Math.cos(angle);
+            m_sin[k] = Math.sin(angle);
+        }
+
+        m_splitCos = new double[m_half + 1];
+        m_splitSin = new double[m_half + 1];
+        for (int k = 0; k <= m_half; k++) {
+            final double angle = 2 * Math.PI * k / size;
+            m_splitCos[k] = Math.cos(angle);
+            m_splitSin[k] = Math.sin(angle);
+        }
+
+        m_bitReverse = new int[m_half];
+        final int bits = Integer.numberOfTrailingZeros(Math.max(1, m_half));
+        for (int i = 0; i < m_half; i++) {
+            m_bitReverse[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+
+        /* Same window as jAudio applies before its FFT */
+        m_hanning = new double[size];
+        for (int i = 0; i < size; i++) {
+            m_hanning[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / size);
+        }
+    }
+
+    /**
+     * Returns the transform of the given size, creating it the first time it is requested.
+     *
+     * @param size the size of the transform, must be a power of two and at least 2
+     * @return the transform of the given size
+     */
+    public static RealFFT getInstance(final int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("The size of the FFT must be a power of two "
+                    + "and at least 2: " + size);
+        }
+        final Integer key = Integer.valueOf(size);
+        RealFFT fft = PLANS.get(key);
+        if (fft == null) {
+            final RealFFT created = new RealFFT(size);
+            fft = PLANS.putIfAbsent(key, created);
+            if (fft == null) {
+                fft = created;
+            }
+        }
+        return fft;
+    }
+
+    /**
+     * @return the size of the transform
+     */
+    public int getSize() {
+        return m_size;
+    }
+
+    /**
+     * Computes the spectrum of the given samples. Samples beyond the size of the
+     * transform are ignored, missing samples are zero.
+     *
+     * @param samples the real input
+     * @param applyHanningWindow <code>true</code> if a Hanning window should be
+     * applied to the samples before the transform
+     * @param real array receiving the real parts of the first bins, the number of
+     * bins computed is the length of the array, but at most <code>size / 2 + 1</code>
+     * @param imaginary array receiving the imaginary parts, must have the same
+     * length as the array of the real parts
+     */
+    public void transform(final double[] samples, final boolean applyHanningWindow,
+            final double[] real, final double[] imaginary) {
+        transform(samples, 0, samples.length, applyHanningWindow, real, imaginary);
+    }
+
+    /**
+     * Computes the spectrum of a range of the given samples. Samples beyond the
+     * size of the transform are ignored, missing samples are zero.
+     *
+     * @param samples the real input
+     * @param offset the position of the first sample
+     * @param length the number of samples
+     * @param applyHanningWindow <code>true</code> if a Hanning window should be
+     * applied to the samples before the transform
+     * @param real array receiving the real parts of the first bins, the number of
+     * bins computed is the length of the array, but at most <code>size / 2 + 1</code>
+     * @param imaginary array receiving the imaginary parts, must have the same
+     * length as the array of the real parts
+     */
+    public void transform(final double[] samples, final int offset, final int length,
+            final boolean applyHanningWindow, final double[] real, final double[] imaginary) {
+        if (real.length != imaginary.length) {
+            throw new IllegalArgumentException("Real and imaginary parts must have the same length");
+        }
+        final int half = m_half;
+        final double[][] scratch = getScratch(half);
+        final double[] zr = scratch[0];
+        final double[] zi = scratch[1];
+
+        /* Pack even samples into the real and odd samples into the imaginary part
+         * in bit reversed order */
+        final int available = Math.min(length, m_size);
+        for (int k = 0; k < half; k++) {
+            final int even = 2 * k;
+            final int odd = even + 1;
+            double re = even < available ? samples[offset + even] : 0;
+            double im = odd < available ? samples[offset + odd] : 0;
+            if (applyHanningWindow) {
+                re *= m_hanning[even];
+                im *= m_hanning[odd];
+            }
+            final int target = m_bitReverse[k];
+            zr[target] = re;
+            zi[target] = im;
+        }
+
+        /* Radix-2 butterflies */
+        for (int len = 2; len <= half; len <<= 1) {
+            final int halfLen = len >> 1;
+            final int step = half / len;
+            for (int i = 0; i < half; i += len) {
+                for (int j = 0; j < halfLen; j++) {
+                    final double wr = m_cos[j * step];
+                    final double wi = -m_sin[j * step];
+                    final int a = i + j;
+                    final int b = a + halfLen;
+                    final double tr = wr * zr[b] - wi * zi[b];
+                    final double ti = wr * zi[b] + wi * zr[b];
+                    zr[b] = zr[a] - tr;
+                    zi[b] = zi[a] - ti;
+                    zr[a] += tr;
+                    zi[a] += ti;
+                }
+            }
+        }
+
+        /* Split the packed spectrum into the spectrum of the even and odd samples
+         * and combine them to the spectrum of the real input */
+        final int bins = Math.min(real.length, half + 1);
+        for (int k = 0; k < bins; k++) {
+            final int p = k == half ? 0 : k;
+            final int q = k == 0 ? 0 : half - k;
+            final double er = 0.5 * (zr[p] + zr[q]);
+            final double ei = 0.5 * (zi[p] - zi[q]);
+            final double or = 0.5 * (zi[p] + zi[q]);
+            final double oi = -0.5 * (zr[p] - zr[q]);
+            final double wr = m_splitCos[k];
+            final double wi = -m_splitSin[k];
+            real[k] = er + wr * or - wi * oi;
+            imaginary[k] = ei + wr * oi + wi * or;
+        }
+    }
+
+    private static double[][] getScratch(final int length) {
+        double[][] scratch = SCRATCH.get();
+        if (scratch == null || scratch[0].length < length) {
+            scratch = new double[2][length];
+            SCRATCH.set(scratch);
+        }
+        return scratch;
+    }
+
+    /**
+     * @param value a positive number
+     * @return the smallest power of two that is greater or equal to the given value
+     */
+    public static int ensureIsPowerOfTwo(final int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+}
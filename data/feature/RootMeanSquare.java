@@ -76,6 +76,43 @@ public class RootMeanSquare extends FeatureExtractor {
             samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                double sum = 0;
+                for (int i = off; i < off + len; i++) {
+                    sum += in[i] * in[i];
+                }
+                out[outOff] = Math.sqrt(sum / len);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        final TimeDomainKernel kernel = kernels == null ? null : kernels.getTimeDomainKernel();
+        if (kernel == null) {
+            return compile(sampleRate, windowSize);
+        }
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                out[outOff] = Math.sqrt(kernel.getSumOfSquares() / kernel.getLength());
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
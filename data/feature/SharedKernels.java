@@ -0,0 +1,144 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Computations shared by the compiled extractors applied to the same windows,
+ * see {@link FeatureExtractor#compile(float, int, SharedKernels)}. The owner of
+ * the extractors, e.g. the feature graph, computes the kernels once per window
+ * before applying the extractors, which then only read their values from them.
+ * Besides the kernels, the extractors of the other features are available, so
+ * an extractor can resolve the parameters of its dependencies. An instance must
+ * only be used by one thread.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class SharedKernels {
+
+    private final Map<FeatureType, FeatureExtractor> m_extractors =
+            new EnumMap<FeatureType, FeatureExtractor>(FeatureType.class);
+
+    private final TimeDomainKernel m_timeDomainKernel;
+
+    private final Spectrum m_spectrum;
+
+    private SharedKernels(final FeatureExtractor[] extractors, final int windowSize) {
+        for (FeatureExtractor extractor : extractors) {
+            m_extractors.put(extractor.getType(), extractor);
+        }
+        m_timeDomainKernel = TimeDomainKernel.create(extractors);
+        /* A single transform is only worth sharing if both spectra are extracted */
+        m_spectrum = m_extractors.containsKey(FeatureType.POWER_SPECTRUM)
+                && m_extractors.containsKey(FeatureType.MAGNITUDE_SPECTRUM) ? new Spectrum(windowSize) : null;
+    }
+
+    /**
+     * Creates the kernels shared by the given extractors.
+     *
+     * @param extractors all extractors applied to the same windows, including
+     * the ones of the dependencies
+     * @param windowSize the number of samples per window
+     * @return the shared kernels
+     */
+    public static SharedKernels create(final FeatureExtractor[] extractors, final int windowSize) {
+        return new SharedKernels(extractors, windowSize);
+    }
+
+    /**
+     * Computes the kernels for the given window.
+     *
+     * @param samples the samples of the window mixed down into one channel
+     * @param offset the position of the first sample
+     * @param length the number of samples
+     * @param spectrum <code>false</code> if the spectrum isn't needed, e.g.
+     * because the spectra of the window are already known
+     */
+    public void compute(final double[] samples, final int offset, final int length,
+            final boolean spectrum) {
+        if (m_timeDomainKernel != null) {
+            m_timeDomainKernel.compute(samples, offset, length);
+        }
+        if (spectrum && m_spectrum != null) {
+            m_spectrum.compute(samples, offset, length);
+        }
+    }
+
+    /**
+     * @return <code>true</code> if {@link #compute(double[], int, int, boolean)}
+     * has anything to compute
+     */
+    public boolean isEmpty() {
+        return m_timeDomainKernel == null && m_spectrum == null;
+    }
+
+    /**
+     * @param type the feature type
+     * @return the extractor of the given type applied to the same windows or
+     * <code>null</code> if there is none
+     */
+    public FeatureExtractor getExtractor(final FeatureType type) {
+        return m_extractors.get(type);
+    }
+
+    /**
+     * @return the time-domain statistics of the window or <code>null</code>
+     * if they are not shared
+     */
+    public TimeDomainKernel getTimeDomainKernel() {
+        return m_timeDomainKernel;
+    }
+
+    /* The power and magnitude spectrum of the window or null if they are not shared */
+    Spectrum getSpectrum() {
+        return m_spectrum;
+    }
+}
@@ -75,6 +75,26 @@ public class SpectralCentroid extends FeatureExtractor {
                     additionalFeatureValues);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                double total = 0;
+                double weightedTotal = 0;
+                for (int bin = 0; bin < len; bin++) {
+                    weightedTotal += bin * in[off + bin];
+                    total += in[off + bin];
+                }
+                out[outOff] = total != 0 ? weightedTotal / total : 0;
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -81,6 +81,35 @@ public class SpectralRolloffPoint extends FeatureExtractor {
             samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        final double cutoff = getParameterValue(PARAMETER_NAME).doubleValue();
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                double total = 0;
+                for (int bin = 0; bin < len; bin++) {
+                    total += in[off + bin];
+                }
+                final double threshold = total * cutoff;
+                double sum = 0;
+                int point = 0;
+                for (int bin = 0; bin < len; bin++) {
+                    sum += in[off + bin];
+                    if (sum >= threshold) {
+                        point = bin;
+                        break;
+                    }
+                }
+                out[outOff] = (double)point / len;
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,196 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import org.knime.base.node.audio3.data.AudioSamples;
+import org.knime.base.node.audio3.data.AudioWindow;
+
+/**
+ * Power and magnitude spectrum of the samples mixed down into one channel,
+ * computed with a single {@link RealFFT} the same way jAudio does: the samples
+ * are zero-padded to the next power of two and a Hanning window is applied. For an
+ * {@link AudioWindow} the spectrum is computed once per window position and
+ * shared by all extractors.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class Spectrum {
+
+    /* Key of the spectrum in the cache of the audio window */
+    private static final Object CACHE_KEY = Spectrum.class;
+
+    private final double[] m_power;
+
+    private final double[] m_magnitude;
+
+    private Spectrum(final double[] samples) {
+        this(samples.length);
+        compute(samples, 0, samples.length);
+    }
+
+    /* Creates the arrays of a spectrum of windows of the given size, see compute */
+    Spectrum(final int windowSize) {
+        final int size = RealFFT.ensureIsPowerOfTwo(windowSize);
+        m_power = new double[size / 2];
+        m_magnitude = new double[size / 2];
+    }
+
+    /* Computes the spectrum of the given samples with a single transform, only used
+     * for the spectra shared by compiled extractors, see SharedKernels */
+    void compute(final double[] samples, final int offset, final int length) {
+        final int size = 2 * m_power.length;
+        if (size < 2) {
+            return;
+        }
+        /* The real and imaginary parts are written into the result arrays directly */
+        RealFFT.getInstance(size).transform(samples, offset, length, true, m_power, m_magnitude);
+        for (int i = 0; i < m_power.length; i++) {
+            final double re = m_power[i];
+            final double im = m_magnitude[i];
+            final double squared = re * re + im * im;
+            m_power[i] = squared / size;
+            m_magnitude[i] = Math.sqrt(squared) / size;
+        }
+    }
+
+    /**
+     * Returns the spectrum of the given samples.
+     *
+     * @param samples the samples
+     * @return the spectrum of the samples mixed down into one channel
+     */
+    public static Spectrum of(final AudioSamples samples) {
+        if (samples instanceof AudioWindow) {
+            final AudioWindow window = (AudioWindow)samples;
+            Spectrum spectrum = (Spectrum)window.getCachedValue(CACHE_KEY);
+            if (spectrum == null) {
+                spectrum = new Spectrum(window.getSamplesMixedDownIntoOneChannel());
+                window.setCachedValue(CACHE_KEY, spectrum);
+            }
+            return spectrum;
+        }
+        return new Spectrum(samples.getSamplesMixedDownIntoOneChannel());
+    }
+
+    /**
+     * Returns an extractor computing the power or the magnitude spectrum of
+     * windows of the given size, with the same values as {@link #of(AudioSamples)}.
+     *
+     * @param type the feature type of the extractor
+     * @param windowSize the number of samples per window
+     * @param power <code>true</code> for the power spectrum, <code>false</code>
+     * for the magnitude spectrum
+     * @return the compiled extractor
+     */
+    static CompiledFeatureExtractor compile(final FeatureType type, final int windowSize,
+            final boolean power) {
+        return compile(type, windowSize, power, null);
+    }
+
+    /**
+     * Returns an extractor like {@link #compile(FeatureType, int, boolean)},
+     * which copies the values of the given shared spectrum if there is one.
+     *
+     * @param type the feature type of the extractor
+     * @param windowSize the number of samples per window
+     * @param power <code>true</code> for the power spectrum, <code>false</code>
+     * for the magnitude spectrum
+     * @param kernels the computations shared with the other extractors, may be <code>null</code>
+     * @return the compiled extractor
+     */
+    static CompiledFeatureExtractor compile(final FeatureType type, final int windowSize,
+            final boolean power, final SharedKernels kernels) {
+        final Spectrum shared = kernels == null ? null : kernels.getSpectrum();
+        if (shared != null) {
+            /* Both spectra of a window are taken from one transform */
+            final double[] values = power ? shared.m_power : shared.m_magnitude;
+            return new CompiledFeatureExtractor(type, values.length) {
+                @Override
+                public void extract(final double[] in, final int off, final int len,
+                        final double[] out, final int outOff) {
+                    System.arraycopy(values, 0, out, outOff, values.length);
+                }
+            };
+        }
+        final int size = RealFFT.ensureIsPowerOfTwo(windowSize);
+        return new CompiledFeatureExtractor(type, size / 2) {
+
+            private final double[] m_real = new double[size / 2];
+
+            private final double[] m_imaginary = new double[size / 2];
+
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                if (size < 2) {
+                    return;
+                }
+                RealFFT.getInstance(size).transform(in, off, len, true, m_real, m_imaginary);
+                for (int i = 0; i < m_real.length; i++) {
+                    final double squared = m_real[i] * m_real[i] + m_imaginary[i] * m_imaginary[i];
+                    out[outOff + i] = power ? squared / size : Math.sqrt(squared) / size;
+                }
+            }
+        };
+    }
+
+    /**
+     * @return the power spectrum, the array must not be modified
+     */
+    public double[] getPowerSpectrum() {
+        return m_power;
+    }
+
+    /**
+     * @return the magnitude spectrum, the array must not be modified
+     */
+    public double[] getMagnitudeSpectrum() {
+        return m_magnitude;
+    }
+}
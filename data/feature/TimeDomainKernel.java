@@ -0,0 +1,312 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import java.util.Arrays;
+
+/**
+ * Computes the time-domain statistics of a window in a single pass over its
+ * samples: the sum of squares for the {@link RootMeanSquare}, the number of
+ * zero crossings for the {@link ZeroCrossings} and the autocorrelation for the
+ * {@link LPC}. Extractors compiled with a kernel read their values from it, so
+ * the samples of a window are read once for all of them. The autocorrelation
+ * is frequency warped by a chain of first-order allpass filters if lambda is
+ * not 0, as for warped linear prediction. An instance keeps the values of the last
+ * window and must only be used by one thread.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class TimeDomainKernel {
+
+    /* Number of samples processed at once, 2KB of doubles */
+    private static final int BLOCK_SIZE = 256;
+
+    private final int m_nrOfLags;
+
+    private final double m_lambda;
+
+    private final double[] m_autocorrelation;
+
+    /* Outputs of the allpass chain for the previous sample, only used if warped */
+    private final double[] m_delays;
+
+    private double m_sumOfSquares;
+
+    private long m_zeroCrossings;
+
+    private int m_length;
+
+    /**
+     * @param nrOfLags the largest lag of the autocorrelation, 0 if only
+     * the sum of squares and the zero crossings are needed
+     * @param lambda the warping factor of the autocorrelation, 0 for none
+     */
+    public TimeDomainKernel(final int nrOfLags, final double lambda) {
+        if (nrOfLags < 0) {
+            throw new IllegalArgumentException("Number of lags cannot be negative: " + nrOfLags);
+        }
+        m_nrOfLags = nrOfLags;
+        m_lambda = lambda;
+        m_autocorrelation = new double[nrOfLags + 1];
+        m_delays = new double[nrOfLags + 1];
+    }
+
+    /**
+     * Creates the kernel shared by the given extractors if at least two of
+     * them can be computed by it.
+     *
+     * @param extractors the extractors applied to the same windows
+     * @return the kernel or <code>null</code> if it isn't worth sharing
+     */
+    public static TimeDomainKernel create(final FeatureExtractor[] extractors) {
+        int nrOfUsers = 0;
+        int nrOfLags = 0;
+        double lambda = 0;
+        for (FeatureExtractor extractor : extractors) {
+            if (extractor instanceof RootMeanSquare || extractor instanceof ZeroCrossings) {
+                nrOfUsers++;
+            } else if (extractor instanceof LPC) {
+                nrOfUsers++;
+                nrOfLags = ((LPC)extractor).getNumberOfCoefficients();
+                lambda = ((LPC)extractor).getLambda();
+            }
+        }
+        return nrOfUsers > 1 ? new TimeDomainKernel(nrOfLags, lambda) : null;
+    }
+
+    /**
+     * Computes the statistics of the given samples.
+     *
+     * @param in the samples
+     * @param off the position of the first sample
+     * @param len the number of samples
+     */
+    public void compute(final double[] in, final int off, final int len) {
+        Arrays.fill(m_autocorrelation, 0);
+        m_sumOfSquares = 0;
+        m_zeroCrossings = 0;
+        m_length = len;
+        /* The samples are processed in blocks small enough to stay in the cache
+         * while all statistics are updated, so they are fetched from memory once */
+        final int end = off + len;
+        for (int start = off; start < end; start += BLOCK_SIZE) {
+            final int stop = Math.min(end, start + BLOCK_SIZE);
+            computeEnergy(in, off, start, stop);
+            if (m_lambda == 0) {
+                computeAutocorrelation(in, off, start, stop);
+            } else {
+                computeWarpedAutocorrelation(in, off, start, stop);
+            }
+        }
+        m_autocorrelation[0] = m_sumOfSquares;
+    }
+
+    private void computeEnergy(final double[] in, final int off, final int start, final int stop) {
+        double sum = m_sumOfSquares;
+        long crossings = m_zeroCrossings;
+        for (int k = start; k < stop; k++) {
+            final double x = in[k];
+            sum += x * x;
+            /* Counted like jAudio, leaving zero counts as a crossing as well */
+            if (k > off) {
+                final double previous = in[k - 1];
+                if ((previous > 0 && x < 0) || (previous < 0 && x > 0) || (previous == 0 && x != 0)) {
+                    crossings++;
+                }
+            }
+        }
+        m_sumOfSquares = sum;
+        m_zeroCrossings = crossings;
+    }
+
+    /* Adds the products of the block to the lags. Each lag is still summed up in
+     * the order of the samples, but four lags are summed up at the same time so
+     * their additions don't wait for each other */
+    private void computeAutocorrelation(final double[] in, final int off, final int start, final int stop) {
+        final double[] r = m_autocorrelation;
+        int lag = 1;
+        for (; lag + 3 <= m_nrOfLags; lag += 4) {
+            double r0 = r[lag];
+            double r1 = r[lag + 1];
+            double r2 = r[lag + 2];
+            double r3 = r[lag + 3];
+            /* The smaller lags start with the earlier samples */
+            final int first = Math.max(start, off + lag + 3);
+            for (int k = Math.max(start, off + lag); k < Math.min(first, stop); k++) {
+                final double x = in[k];
+                r0 += in[k - lag] * x;
+                if (k >= off + lag + 1) {
+                    r1 += in[k - lag - 1] * x;
+                }
+                if (k >= off + lag + 2) {
+                    r2 += in[k - lag - 2] * x;
+                }
+            }
+            for (int k = first; k < stop; k++) {
+                final double x = in[k];
+                r0 += in[k - lag] * x;
+                r1 += in[k - lag - 1] * x;
+                r2 += in[k - lag - 2] * x;
+                r3 += in[k - lag - 3] * x;
+            }
+            r[lag] = r0;
+            r[lag + 1] = r1;
+            r[lag + 2] = r2;
+            r[lag + 3] = r3;
+        }
+        for (; lag <= m_nrOfLags; lag++) {
+            double acc = r[lag];
+            for (int k = Math.max(start, off + lag); k < stop; k++) {
+                acc += in[k - lag] * in[k];
+            }
+            r[lag] = acc;
+        }
+    }
+
+    /* Feeds the samples of the block through the allpass chain, stage i of the
+     * chain delays the output of stage i - 1 */
+    private void computeWarpedAutocorrelation(final double[] in, final int off, final int start,
+            final int stop) {
+        final double[] r = m_autocorrelation;
+        final double[] d = m_delays;
+        if (start == off) {
+            Arrays.fill(d, 0);
+        }
+        for (int k = start; k < stop; k++) {
+            final double x = in[k];
+            double input = x;
+            for (int i = 1; i <= m_nrOfLags; i++) {
+                final double output = d[i - 1] - m_lambda * (input - d[i]);
+                d[i - 1] = input;
+                input = output;
+                r[i] += output * x;
+            }
+            d[m_nrOfLags] = input;
+        }
+    }
+
+    /**
+     * @return the number of samples of the last window
+     */
+    public int getLength() {
+        return m_length;
+    }
+
+    /**
+     * @return the sum of the squared samples of the last window
+     */
+    public double getSumOfSquares() {
+        return m_sumOfSquares;
+    }
+
+    /**
+     * @return the number of zero crossings of the last window
+     */
+    public long getZeroCrossings() {
+        return m_zeroCrossings;
+    }
+
+    /**
+     * @return the largest lag of the autocorrelation
+     */
+    public int getNumberOfLags() {
+        return m_nrOfLags;
+    }
+
+    /**
+     * @return the warping factor of the autocorrelation
+     */
+    public double getLambda() {
+        return m_lambda;
+    }
+
+    /**
+     * @return the autocorrelation of the last window for the lags 0 to
+     * {@link #getNumberOfLags()}, the array must not be modified
+     */
+    public double[] getAutocorrelation() {
+        return m_autocorrelation;
+    }
+
+    /**
+     * Computes the coefficients of the linear predictor from the
+     * autocorrelation with the Levinson-Durbin recursion, i.e. the coefficients
+     * a<sub>1</sub> to a<sub>order</sub> predicting x[n] by the sum of
+     * a<sub>i</sub> * x[n - i]. The coefficients of orders the recursion cannot
+     * reach, e.g. for a silent window, are 0.
+     *
+     * @param r the autocorrelation with at least order + 1 lags
+     * @param order the number of coefficients
+     * @param scratch array of at least order + 1 values used by the recursion
+     * @param out the array receiving the coefficients
+     * @param outOff the position of the first coefficient
+     */
+    static void levinsonDurbin(final double[] r, final int order, final double[] scratch,
+            final double[] out, final int outOff) {
+        /* The coefficients of the current order are built in out, the previous ones in scratch */
+        Arrays.fill(out, outOff, outOff + order, 0);
+        double error = r[0];
+        for (int i = 1; i <= order; i++) {
+            if (!(error > 0)) {
+                return;
+            }
+            double acc = r[i];
+            for (int j = 1; j < i; j++) {
+                acc -= out[outOff + j - 1] * r[i - j];
+            }
+            final double reflection = acc / error;
+            System.arraycopy(out, outOff, scratch, 0, i - 1);
+            out[outOff + i - 1] = reflection;
+            for (int j = 1; j < i; j++) {
+                out[outOff + j - 1] = scratch[j - 1] - reflection * scratch[i - j - 1];
+            }
+            error *= 1 - reflection * reflection;
+        }
+    }
+}
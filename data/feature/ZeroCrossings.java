@@ -75,6 +75,49 @@ public class ZeroCrossings extends FeatureExtractor {
             samples.getAudioFormat().getSampleRate(), additionalFeatureValues);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize) {
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                /* Counted like jAudio, leaving zero counts as a crossing as well */
+                long count = 0;
+                for (int i = off; i < off + len - 1; i++) {
+                    final double current = in[i];
+                    final double next = in[i + 1];
+                    if ((current > 0 && next < 0) || (current < 0 && next > 0)
+                            || (current == 0 && next != 0)) {
+                        count++;
+                    }
+                }
+                out[outOff] = count;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledFeatureExtractor compile(final float sampleRate, final int windowSize,
+            final SharedKernels kernels) {
+        final TimeDomainKernel kernel = kernels == null ? null : kernels.getTimeDomainKernel();
+        if (kernel == null) {
+            return compile(sampleRate, windowSize);
+        }
+        return new CompiledFeatureExtractor(getType(), 1) {
+            @Override
+            public void extract(final double[] in, final int off, final int len,
+                    final double[] out, final int outOff) {
+                out[outOff] = kernel.getZeroCrossings();
+            }
+        };
+    }
+
     /**
      * {@inheritDoc}
      */
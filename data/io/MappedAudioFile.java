@@ -0,0 +1,250 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.knime.base.node.audio3.util.AudioHeaderParser;
+
+/**
+ * Reader for uncompressed PCM and IEEE float WAV and AIFF files that parses the file header
+ * with the {@link AudioHeaderParser} and memory-maps the audio data, so no {@link javax.sound.sampled.AudioSystem}
+ * provider lookup and no format conversion stream is involved.
+ *
+ * The samples are decoded directly from the mapped data, i.e. the file content
+ * is never copied into an intermediate byte array.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class MappedAudioFile {
+
+    private final AudioFileFormat.Type m_type;
+
+    private final AudioFormat m_format;
+
+    private final ByteBuffer m_data;
+
+    private final int m_frameLength;
+
+    private final PCMDecoder m_decoder;
+
+    private MappedAudioFile(final AudioFileFormat.Type type, final AudioFormat format,
+            final ByteBuffer data) {
+        m_type = type;
+        m_format = format;
+        m_data = data;
+        m_frameLength = data.remaining() / format.getFrameSize();
+        m_decoder = new PCMDecoder(format);
+    }
+
+    /**
+     * Opens the given file and memory-maps its audio data.
+     *
+     * @param file the audio file to open
+     * @return the mapped audio file or <code>null</code> if the file isn't an
+     * uncompressed WAV or AIFF file that can be decoded by the {@link PCMDecoder}
+     * @throws IOException if the file cannot be read
+     */
+    public static MappedAudioFile open(final File file) throws IOException {
+        final AudioHeaderParser.FileHeader header = AudioHeaderParser.parse(file);
+        if (header == null || !PCMDecoder.isSupported(header.getFormat())
+                || header.getDataLength() > Integer.MAX_VALUE) {
+            return null;
+        }
+        final AudioFormat format = header.getFormat();
+        /* Only the audio data is mapped, the header has already been parsed */
+        final ByteBuffer data;
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r");
+                final FileChannel channel = raf.getChannel()) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, header.getDataOffset(), header.getDataLength());
+        }
+        data.order(format.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        return new MappedAudioFile(header.getType(), format, data);
+    }
+
+    /**
+     * @return the type of the audio file
+     */
+    public AudioFileFormat.Type getType() {
+        return m_type;
+    }
+
+    /**
+     * @return the format of the audio data
+     */
+    public AudioFormat getFormat() {
+        return m_format;
+    }
+
+    /**
+     * @return the number of sample frames
+     */
+    public int getFrameLength() {
+        return m_frameLength;
+    }
+
+    /**
+     * @return a read-only view of the mapped audio data, positioned at the first frame
+     */
+    public ByteBuffer getData() {
+        return m_data.asReadOnlyBuffer().order(m_data.order());
+    }
+
+    /**
+     * Decodes the given range of frames into the given arrays. The values are
+     * normalized as described in {@link PCMDecoder}.
+     *
+     * @param firstFrame the index of the first frame to decode
+     * @param dest the destination arrays, indexed by [channel][sample]
+     * @param destPos the position in the destination arrays to start writing to
+     * @param frames the number of frames to decode
+     */
+    public void read(final int firstFrame, final double[][] dest, final int destPos,
+            final int frames) {
+        for (int channel = 0; channel < dest.length; channel++) {
+            read(channel, firstFrame, dest[channel], destPos, frames);
+        }
+    }
+
+    /**
+     * Decodes the given range of frames of one channel into the given array.
+     *
+     * @param channel the channel to decode
+     * @param firstFrame the index of the first frame to decode
+     * @param dest the destination array
+     * @param destPos the position in the destination array to start writing to
+     * @param frames the number of frames to decode
+     */
+    public void read(final int channel, final int firstFrame, final double[] dest, final int destPos,
+            final int frames) {
+        m_decoder.decode(m_data, firstFrame * m_format.getFrameSize(), channel, dest, destPos, frames);
+    }
+
+    /**
+     * @param channel the channel
+     * @param frame the index of the frame
+     * @return the normalized value of the sample
+     */
+    public double getSample(final int channel, final int frame) {
+        return m_decoder.decode(m_data, frame * m_format.getFrameSize(), channel);
+    }
+
+    /**
+     * @return all samples of the file, indexed by [channel][sample]
+     */
+    public double[][] readAll() {
+        final double[][] samples = new double[m_format.getChannels()][m_frameLength];
+        read(0, samples, 0, m_frameLength);
+        return samples;
+    }
+
+    /**
+     * @return an <code>AudioInputStream</code> reading the raw bytes directly from the mapped data
+     */
+    public AudioInputStream getAudioInputStream() {
+        return new AudioInputStream(new ByteBufferInputStream(getData()), m_format, m_frameLength);
+    }
+
+    /**
+     * @return the <code>AudioFileFormat</code> of the file
+     */
+    public AudioFileFormat getAudioFileFormat() {
+        return new AudioFileFormat(m_type, m_format, m_frameLength);
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer m_buf;
+
+        ByteBufferInputStream(final ByteBuffer buf) {
+            m_buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return m_buf.hasRemaining() ? (m_buf.get() & 0xff) : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!m_buf.hasRemaining()) {
+                return -1;
+            }
+            final int toRead = Math.min(len, m_buf.remaining());
+            m_buf.get(b, off, toRead);
+            return toRead;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int toSkip = (int)Math.max(0, Math.min(n, m_buf.remaining()));
+            m_buf.position(m_buf.position() + toSkip);
+            return toSkip;
+        }
+
+        @Override
+        public int available() {
+            return m_buf.remaining();
+        }
+    }
+
+}
@@ -0,0 +1,352 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.io;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Power spectra of the windows of an audio, stored as a memory-mapped
+ * matrix of little-endian doubles with one frame per window, so reading a
+ * spectrum gives exactly the values that have been written. The header
+ * identifies the source file by its size and modification time, so readers
+ * can detect that the source has changed since the frames were written.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class MappedSpectrogram {
+
+    private static final int MAGIC = 0x4B535446;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 48;
+
+    private final long m_sourceSize;
+
+    private final long m_sourceLastModified;
+
+    private final float m_sampleRate;
+
+    private final int m_windowSize;
+
+    private final int m_fftSize;
+
+    private final int m_nrOfFrames;
+
+    private final int m_nrOfBins;
+
+    private final DoubleBuffer m_frames;
+
+    private MappedSpectrogram(final ByteBuffer header, final DoubleBuffer frames) {
+        m_sourceSize = header.getLong(8);
+        m_sourceLastModified = header.getLong(16);
+        m_sampleRate = header.getFloat(24);
+        m_windowSize = header.getInt(28);
+        m_fftSize = header.getInt(32);
+        m_nrOfBins = header.getInt(36);
+        m_nrOfFrames = header.getInt(40);
+        m_frames = frames;
+    }
+
+    /**
+     * Opens the spectrogram stored in the given file.
+     *
+     * @param file the file
+     * @return the spectrogram
+     * @throws IOException if the file cannot be read or isn't a complete spectrogram
+     */
+    public static MappedSpectrogram open(final File file) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final FileChannel channel = raf.getChannel();
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException("Incomplete spectrogram " + file);
+                }
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported spectrogram " + file);
+            }
+            final long dataLength = 8L * header.getInt(36) * header.getInt(40);
+            if (header.getInt(36) < 0 || header.getInt(40) < 0
+                    || HEADER_SIZE + dataLength > channel.size() || dataLength > Integer.MAX_VALUE) {
+                throw new IOException("Incomplete spectrogram " + file);
+            }
+            /* The mapping stays valid after the channel has been closed */
+            final DoubleBuffer frames = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, dataLength)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            return new MappedSpectrogram(header, frames);
+        }
+    }
+
+    /**
+     * @return the size of the source file when the frames were written
+     */
+    public long getSourceSize() {
+        return m_sourceSize;
+    }
+
+    /**
+     * @return the modification time of the source file when the frames were written
+     */
+    public long getSourceLastModified() {
+        return m_sourceLastModified;
+    }
+
+    /**
+     * @return <code>true</code> if the given file has the size and modification
+     * time of the source of the frames
+     * @param source the source file
+     */
+    public boolean isUpToDate(final File source) {
+        return source.length() == m_sourceSize && source.lastModified() == m_sourceLastModified;
+    }
+
+    /**
+     * @return the sample rate of the windows
+     */
+    public float getSampleRate() {
+        return m_sampleRate;
+    }
+
+    /**
+     * @return the number of samples per window
+     */
+    public int getWindowSize() {
+        return m_windowSize;
+    }
+
+    /**
+     * @return the size of the transform, the number of bins is half of it
+     */
+    public int getFftSize() {
+        return m_fftSize;
+    }
+
+    /**
+     * @return the number of frames, i.e. windows
+     */
+    public int getNumberOfFrames() {
+        return m_nrOfFrames;
+    }
+
+    /**
+     * @return the number of bins per frame
+     */
+    public int getNumberOfBins() {
+        return m_nrOfBins;
+    }
+
+    /**
+     * @param frame the index of the frame
+     * @param bin the index of the bin
+     * @return the power of the bin
+     */
+    public double get(final int frame, final int bin) {
+        return m_frames.get(frame * m_nrOfBins + bin);
+    }
+
+    /**
+     * Reads the power spectrum of one frame.
+     *
+     * @param frame the index of the frame
+     * @param dest the array receiving the {@link #getNumberOfBins()} values
+     * @param destPos the position of the first value in the array
+     */
+    public void readFrame(final int frame, final double[] dest, final int destPos) {
+        final int offset = frame * m_nrOfBins;
+        for (int i = 0; i < m_nrOfBins; i++) {
+            dest[destPos + i] = m_frames.get(offset + i);
+        }
+    }
+
+    /**
+     * Writes the frames of a spectrogram into a temporary file next to the target
+     * file, which is replaced by the temporary file once all frames have been
+     * written. Frames can be written in any order and by several threads.
+     */
+    public static final class Writer implements Closeable {
+
+        private final File m_target;
+
+        private final File m_tempFile;
+
+        private final RandomAccessFile m_raf;
+
+        private final ByteBuffer m_header;
+
+        private final int m_nrOfBins;
+
+        private final ThreadLocal<ByteBuffer> m_frameBuffer = new ThreadLocal<ByteBuffer>();
+
+        private int m_nrOfFrames;
+
+        private volatile boolean m_closed;
+
+        /**
+         * @param target the file the spectrogram is written to
+         * @param source the source file of the frames
+         * @param sampleRate the sample rate of the windows
+         * @param windowSize the number of samples per window
+         * @param fftSize the size of the transform, the number of bins is half of it
+         * @throws IOException if the temporary file cannot be created
+         */
+        public Writer(final File target, final File source, final float sampleRate, final int windowSize,
+                final int fftSize) throws IOException {
+            m_target = target;
+            m_tempFile = File.createTempFile(target.getName(), ".tmp", target.getAbsoluteFile().getParentFile());
+            m_raf = new RandomAccessFile(m_tempFile, "rw");
+            m_nrOfBins = fftSize / 2;
+            m_header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            m_header.putInt(0, MAGIC);
+            m_header.putInt(4, VERSION);
+            m_header.putLong(8, source.length());
+            m_header.putLong(16, source.lastModified());
+            m_header.putFloat(24, sampleRate);
+            m_header.putInt(28, windowSize);
+            m_header.putInt(32, fftSize);
+            m_header.putInt(36, m_nrOfBins);
+        }
+
+        /**
+         * Writes the power spectrum of one frame.
+         *
+         * @param frame the index of the frame
+         * @param power the power spectrum of the frame
+         * @throws IOException if the frame cannot be written
+         */
+        public void writeFrame(final int frame, final double[] power) throws IOException {
+            if (m_closed) {
+                throw new IOException("The spectrogram has been closed");
+            }
+            if (power.length != m_nrOfBins) {
+                throw new IllegalArgumentException("A frame must have " + m_nrOfBins + " bins: "
+                        + power.length);
+            }
+            ByteBuffer buffer = m_frameBuffer.get();
+            if (buffer == null) {
+                buffer = ByteBuffer.allocate(8 * m_nrOfBins).order(ByteOrder.LITTLE_ENDIAN);
+                m_frameBuffer.set(buffer);
+            }
+            buffer.clear();
+            for (double value : power) {
+                buffer.putDouble(value);
+            }
+            buffer.flip();
+            long position = HEADER_SIZE + 8L * m_nrOfBins * frame;
+            final FileChannel channel = m_raf.getChannel();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            synchronized (this) {
+                m_nrOfFrames = Math.max(m_nrOfFrames, frame + 1);
+            }
+        }
+
+        /**
+         * Completes the spectrogram and replaces the target file.
+         *
+         * @throws IOException if the spectrogram cannot be completed
+         */
+        public synchronized void commit() throws IOException {
+            if (m_closed) {
+                throw new IOException("The spectrogram has been closed");
+            }
+            try {
+                m_header.putInt(40, m_nrOfFrames);
+                final FileChannel channel = m_raf.getChannel();
+                m_header.clear();
+                while (m_header.hasRemaining()) {
+                    channel.write(m_header, m_header.position());
+                }
+                m_raf.close();
+                try {
+                    Files.move(m_tempFile.toPath(), m_target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException ex) {
+                    Files.move(m_tempFile.toPath(), m_target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+                m_closed = true;
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * @return <code>true</code> if the spectrogram has been committed or discarded
+         */
+        public boolean isClosed() {
+            return m_closed;
+        }
+
+        /**
+         * Discards the spectrogram unless it has been committed.
+         *
+         * @throws IOException if the temporary file cannot be closed
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            if (!m_closed) {
+                m_closed = true;
+                m_raf.close();
+                Files.deleteIfExists(m_tempFile.toPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Decodes interleaved PCM data directly into caller-provided arrays.
+ *
+ * Supported are signed and unsigned integer samples of 8, 16, 24 and 32 bits
+ * as well as 32 and 64 bit IEEE floating point samples, each in little- or
+ * big-endian byte order. Integer samples are normalized the same way as
+ * {@link jAudioFeatureExtractor.jAudioTools.AudioMethods#extractSampleValues},
+ * i.e. divided by 2^(bits - 1) + 1, floating point samples are returned as they are.
+ *
+ * Samples of 2, 4 and 8 bytes are read with a single access each, only 24 bit
+ * samples are assembled byte by byte. The decoder doesn't allocate any memory
+ * while decoding. Instances are immutable and can be shared between threads.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class PCMDecoder {
+
+    private final int m_nrOfChannels;
+
+    private final int m_bytesPerSample;
+
+    private final int m_frameSize;
+
+    private final boolean m_bigEndian;
+
+    private final boolean m_float;
+
+    /* Sign bit flipped to make unsigned samples signed, 0 for signed samples */
+    private final int m_unsignedFlip;
+
+    private final double m_scale;
+
+    /**
+     * @param format the format of the PCM data
+     * @throws IllegalArgumentException if the format isn't supported
+     * @see #isSupported(AudioFormat)
+     */
+    public PCMDecoder(final AudioFormat format) {
+        if (!isSupported(format)) {
+            throw new IllegalArgumentException("Unsupported audio format: " + format);
+        }
+        m_nrOfChannels = format.getChannels();
+        m_bytesPerSample = (format.getSampleSizeInBits() + 7) / 8;
+        m_frameSize = format.getFrameSize();
+        /* The byte order of single byte samples isn't specified and doesn't matter */
+        m_bigEndian = format.isBigEndian();
+        m_float = AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding());
+        final int bits = m_bytesPerSample * 8;
+        m_unsignedFlip = AudioFormat.Encoding.PCM_UNSIGNED.equals(format.getEncoding())
+                ? 1 << (bits - 1) : 0;
+        m_scale = m_float ? 1.0 : 1.0 / (Math.pow(2, bits - 1) + 1);
+    }
+
+    /**
+     * @param format the format to check
+     * @return <code>true</code> if PCM data of the given format can be decoded
+     */
+    public static boolean isSupported(final AudioFormat format) {
+        final AudioFormat.Encoding encoding = format.getEncoding();
+        final int bits = format.getSampleSizeInBits();
+        final int channels = format.getChannels();
+        if (channels < 1 || bits < 1
+                || format.getFrameSize() < channels * ((bits + 7) / 8)) {
+            return false;
+        }
+        if (AudioFormat.Encoding.PCM_FLOAT.equals(encoding)) {
+            return bits == 32 || bits == 64;
+        }
+        return (AudioFormat.Encoding.PCM_SIGNED.equals(encoding)
+                || AudioFormat.Encoding.PCM_UNSIGNED.equals(encoding)) && bits <= 32;
+    }
+
+    /**
+     * @return the size of one frame in bytes
+     */
+    public int getFrameSize() {
+        return m_frameSize;
+    }
+
+    /**
+     * @return the number of channels
+     */
+    public int getNumberOfChannels() {
+        return m_nrOfChannels;
+    }
+
+    /**
+     * @return <code>true</code> if the raw sample values fit into a <code>short</code>
+     * @see #decodeRaw(ByteBuffer, int, short[][], int, int)
+     */
+    public boolean isShortCompatible() {
+        return !m_float && m_bytesPerSample <= 2;
+    }
+
+    /**
+     * Decodes frames from the given byte array.
+     *
+     * @param src the PCM data
+     * @param srcPos the position of the first frame in the PCM data
+     * @param dest the destination arrays, indexed by [channel][sample]
+     * @param destPos the position in the destination arrays to start writing to
+     * @param frames the number of frames to decode
+     */
+    public void decode(final byte[] src, final int srcPos, final double[][] dest, final int destPos,
+            final int frames) {
+        for (int channel = 0; channel < m_nrOfChannels; channel++) {
+            final double[] channelDest = dest[channel];
+            int idx = srcPos + channel * m_bytesPerSample;
+            for (int i = 0; i < frames; i++) {
+                channelDest[destPos + i] = sample(src, idx);
+                idx += m_frameSize;
+            }
+        }
+    }
+
+    /**
+     * Decodes frames of one channel from the given buffer. The position of the
+     * buffer isn't changed.
+     *
+     * @param src the PCM data
+     * @param srcPos the absolute position of the first frame in the buffer
+     * @param channel the channel to decode
+     * @param dest the destination array
+     * @param destPos the position in the destination array to start writing to
+     * @param frames the number of frames to decode
+     */
+    public void decode(final ByteBuffer src, final int srcPos, final int channel, final double[] dest,
+            final int destPos, final int frames) {
+        int idx = srcPos + channel * m_bytesPerSample;
+        for (int i = 0; i < frames; i++) {
+            dest[destPos + i] = sample(src, idx);
+            idx += m_frameSize;
+        }
+    }
+
+    /**
+     * Decodes one sample from the given buffer.
+     *
+     * @param src the PCM data
+     * @param srcPos the absolute position of the frame in the buffer
+     * @param channel the channel to decode
+     * @return the normalized sample value
+     */
+    public double decode(final ByteBuffer src, final int srcPos, final int channel) {
+        return sample(src, srcPos + channel * m_bytesPerSample);
+    }
+
+    /**
+     * Copies the raw signed values of integer samples with up to 16 bits
+     * without normalizing them.
+     *
+     * @param src the PCM data
+     * @param srcPos the absolute position of the first frame in the buffer
+     * @param dest the destination arrays, indexed by [channel][sample]
+     * @param destPos the position in the destination arrays to start writing to
+     * @param frames the number of frames to decode
+     * @throws IllegalStateException if the samples don't fit into a <code>short</code>
+     */
+    public void decodeRaw(final ByteBuffer src, final int srcPos, final short[][] dest,
+            final int destPos, final int frames) {
+        if (!isShortCompatible()) {
+            throw new IllegalStateException("The samples don't fit into a short.");
+        }
+        for (int channel = 0; channel < m_nrOfChannels; channel++) {
+            final short[] channelDest = dest[channel];
+            int idx = srcPos + channel * m_bytesPerSample;
+            for (int i = 0; i < frames; i++) {
+                channelDest[destPos + i] = (short)rawInt(src, idx);
+                idx += m_frameSize;
+            }
+        }
+    }
+
+    /**
+     * Decodes frames from the given buffer into <code>float</code> arrays.
+     * The position of the buffer isn't changed.
+     *
+     * @param src the PCM data
+     * @param srcPos the absolute position of the first frame in the buffer
+     * @param dest the destination arrays, indexed by [channel][sample]
+     * @param destPos the position in the destination arrays to start writing to
+     * @param frames the number of frames to decode
+     */
+    public void decode(final ByteBuffer src, final int srcPos, final float[][] dest,
+            final int destPos, final int frames) {
+        for (int channel = 0; channel < m_nrOfChannels; channel++) {
+            final float[] channelDest = dest[channel];
+            int idx = srcPos + channel * m_bytesPerSample;
+            for (int i = 0; i < frames; i++) {
+                channelDest[destPos + i] = (float)sample(src, idx);
+                idx += m_frameSize;
+            }
+        }
+    }
+
+    private double sample(final byte[] src, final int idx) {
+        if (m_float) {
+            if (m_bytesPerSample == 4) {
+                return Float.intBitsToFloat((int)assemble(src, idx, 4));
+            }
+            return Double.longBitsToDouble(assemble(src, idx, 8));
+        }
+        return toSigned(assemble(src, idx, m_bytesPerSample)) * m_scale;
+    }
+
+    private double sample(final ByteBuffer src, final int idx) {
+        if (m_float) {
+            if (m_bytesPerSample == 4) {
+                return Float.intBitsToFloat((int)assemble(src, idx, 4));
+            }
+            return Double.longBitsToDouble(assemble(src, idx, 8));
+        }
+        return toSigned(assemble(src, idx, m_bytesPerSample)) * m_scale;
+    }
+
+    private int rawInt(final ByteBuffer src, final int idx) {
+        return toSigned(assemble(src, idx, m_bytesPerSample));
+    }
+
+    /*
+     * Sign-extends the assembled bytes. Subtracting the offset 2^(bits - 1) of unsigned
+     * samples is the same as flipping their sign bit, which also works for 32 bits.
+     */
+    private int toSigned(final long bits) {
+        final int shift = 32 - m_bytesPerSample * 8;
+        return (((int)bits ^ m_unsignedFlip) << shift) >> shift;
+    }
+
+    /* Assembles the given number of bytes respecting the byte order, without sign extension */
+    private long assemble(final byte[] src, final int idx, final int nrOfBytes) {
+        switch (nrOfBytes) {
+            case 1:
+                return src[idx] & 0xffL;
+            case 2:
+                return m_bigEndian ? (src[idx] & 0xff) << 8 | (src[idx + 1] & 0xff)
+                    : (src[idx + 1] & 0xff) << 8 | (src[idx] & 0xff);
+            case 4:
+                return (m_bigEndian ? (src[idx] & 0xff) << 24 | (src[idx + 1] & 0xff) << 16
+                    | (src[idx + 2] & 0xff) << 8 | (src[idx + 3] & 0xff)
+                    : (src[idx + 3] & 0xff) << 24 | (src[idx + 2] & 0xff) << 16
+                    | (src[idx + 1] & 0xff) << 8 | (src[idx] & 0xff)) & 0xffffffffL;
+            case 8:
+                return m_bigEndian ? assemble(src, idx, 4) << 32 | assemble(src, idx + 4, 4)
+                    : assemble(src, idx + 4, 4) << 32 | assemble(src, idx, 4);
+            default:
+                long value = 0;
+                if (m_bigEndian) {
+                    for (int i = 0; i < nrOfBytes; i++) {
+                        value = (value << 8) | (src[idx + i] & 0xffL);
+                    }
+                } else {
+                    for (int i = nrOfBytes - 1; i >= 0; i--) {
+                        value = (value << 8) | (src[idx + i] & 0xffL);
+                    }
+                }
+                return value;
+        }
+    }
+
+    /* Reads samples of 2, 4 and 8 bytes with one access, swapping the bytes if the buffer's order differs */
+    private long assemble(final ByteBuffer src, final int idx, final int nrOfBytes) {
+        final boolean swap = (src.order() == ByteOrder.BIG_ENDIAN) != m_bigEndian;
+        switch (nrOfBytes) {
+            case 1:
+                return src.get(idx) & 0xffL;
+            case 2:
+                final short s = src.getShort(idx);
+                return (swap ? Short.reverseBytes(s) : s) & 0xffffL;
+            case 4:
+                final int i = src.getInt(idx);
+                return (swap ? Integer.reverseBytes(i) : i) & 0xffffffffL;
+            case 8:
+                final long l = src.getLong(idx);
+                return swap ? Long.reverseBytes(l) : l;
+            default:
+                long value = 0;
+                if (m_bigEndian) {
+                    for (int b = 0; b < nrOfBytes; b++) {
+                        value = (value << 8) | (src.get(idx + b) & 0xffL);
+                    }
+                } else {
+                    for (int b = nrOfBytes - 1; b >= 0; b--) {
+                        value = (value << 8) | (src.get(idx + b) & 0xffL);
+                    }
+                }
+                return value;
+        }
+    }
+
+}
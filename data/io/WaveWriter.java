@@ -0,0 +1,173 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.knime.base.node.audio3.data.AudioSamples;
+
+/**
+ * Writes little-endian RIFF/WAVE files.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class WaveWriter {
+
+    /** Format tag of integer PCM data */
+    public static final int WAVE_FORMAT_PCM = 0x0001;
+
+    /** Format tag of IEEE floating point data */
+    public static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
+
+    private static final int BLOCK_SIZE_IN_FRAMES = 4096;
+
+    private WaveWriter() {
+        // only static methods
+    }
+
+    /**
+     * Writes the RIFF header, the format chunk and the header of the data chunk.
+     * The data itself has to be written afterwards, followed by a pad byte if
+     * its size is odd.
+     *
+     * @param out the stream to write to
+     * @param formatTag the format tag, e.g. {@link #WAVE_FORMAT_PCM}
+     * @param nrOfChannels the number of channels
+     * @param sampleRate the sample rate in Hz
+     * @param bitsPerSample the number of bits per sample
+     * @param dataSize the size of the data in bytes
+     * @throws IOException if the header cannot be written
+     */
+    public static void writeHeader(final OutputStream out, final int formatTag, final int nrOfChannels,
+            final int sampleRate, final int bitsPerSample, final long dataSize) throws IOException {
+        final int blockAlign = nrOfChannels * (bitsPerSample / 8);
+        writeId(out, "RIFF");
+        writeInt(out, (int)(36 + dataSize + (dataSize & 1)));
+        writeId(out, "WAVE");
+        writeId(out, "fmt ");
+        writeInt(out, 16);
+        writeShort(out, formatTag);
+        writeShort(out, nrOfChannels);
+        writeInt(out, sampleRate);
+        writeInt(out, sampleRate * blockAlign);
+        writeShort(out, blockAlign);
+        writeShort(out, bitsPerSample);
+        writeId(out, "data");
+        writeInt(out, (int)dataSize);
+    }
+
+    /**
+     * Writes the given samples as 16 bit PCM WAVE file. The samples are scaled
+     * back with the normalization of the {@link PCMDecoder} and clipped.
+     *
+     * @param out the stream to write to
+     * @param samples the samples to write
+     * @param mixDown <code>true</code> if the channels should be mixed down into one channel
+     * @throws IOException if the samples cannot be written
+     */
+    public static void write16BitPCM(final OutputStream out, final AudioSamples samples,
+            final boolean mixDown) throws IOException {
+        final int nrOfChannels = mixDown ? 1 : samples.getNumberOfChannels();
+        final int nrOfSamples = samples.getNumberOfSamples();
+        final long dataSize = 2L * nrOfChannels * nrOfSamples;
+        writeHeader(out, WAVE_FORMAT_PCM, nrOfChannels, Math.round(samples.getAudioFormat().getSampleRate()),
+            16, dataSize);
+        final double scale = Math.pow(2, 15) + 1;
+        final double[][] block = new double[nrOfChannels][BLOCK_SIZE_IN_FRAMES];
+        for (int offset = 0; offset < nrOfSamples; offset += BLOCK_SIZE_IN_FRAMES) {
+            final int length = Math.min(BLOCK_SIZE_IN_FRAMES, nrOfSamples - offset);
+            if (mixDown) {
+                samples.readMixedDownWindow(offset, block[0], 0, length);
+            } else {
+                for (int channel = 0; channel < nrOfChannels; channel++) {
+                    samples.readWindow(channel, offset, block[channel], 0, length);
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                for (int channel = 0; channel < nrOfChannels; channel++) {
+                    final long value = Math.round(block[channel][i] * scale);
+                    writeShort(out, (int)Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value)));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param out the stream to write to
+     * @param id the four character chunk id
+     * @throws IOException if the id cannot be written
+     */
+    public static void writeId(final OutputStream out, final String id) throws IOException {
+        for (int i = 0; i < 4; i++) {
+            out.write(id.charAt(i));
+        }
+    }
+
+    /**
+     * @param out the stream to write to
+     * @param value the value to write as little-endian 32 bit integer
+     * @throws IOException if the value cannot be written
+     */
+    public static void writeInt(final OutputStream out, final int value) throws IOException {
+        writeShort(out, value);
+        writeShort(out, value >>> 16);
+    }
+
+    /**
+     * @param out the stream to write to
+     * @param value the value to write as little-endian 16 bit integer
+     * @throws IOException if the value cannot be written
+     */
+    public static void writeShort(final OutputStream out, final int value) throws IOException {
+        out.write(value & 0xff);
+        out.write((value >>> 8) & 0xff);
+    }
+
+}
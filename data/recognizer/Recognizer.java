@@ -67,4 +67,12 @@ public interface Recognizer {
      */
     String getName();
 
+    /**
+     * Sets the sample rate the audio is converted to before it is passed to the
+     * recognition engine.
+     * @param sampleRate the sample rate in Hz, or 0 to pass the audio with its
+     * original sample rate
+     */
+    void setTargetSampleRate(final int sampleRate);
+
 }
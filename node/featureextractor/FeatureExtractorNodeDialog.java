@@ -8,6 +8,7 @@ import java.awt.Frame;
 import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -28,11 +29,14 @@ import javax.swing.ListSelectionModel;
 import javax.swing.SpinnerModel;
 import javax.swing.SpinnerNumberModel;
 import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import javax.swing.table.DefaultTableModel;
 
 import org.knime.base.node.audio3.data.component.AudioColumnSelection;
+import org.knime.base.node.audio3.data.feature.FeatureExtractor;
 import org.knime.base.node.audio3.data.feature.FeatureType;
 import org.knime.core.data.DataTableSpec;
 import org.knime.core.node.InvalidSettingsException;
@@ -40,10 +44,15 @@ import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.NotConfigurableException;
 import org.knime.core.node.defaultnodesettings.DefaultNodeSettingsPane;
+import org.knime.core.node.defaultnodesettings.DialogComponentBoolean;
 import org.knime.core.node.defaultnodesettings.DialogComponentButtonGroup;
 import org.knime.core.node.defaultnodesettings.DialogComponentColumnNameSelection;
 import org.knime.core.node.defaultnodesettings.DialogComponentNumber;
 import org.knime.core.node.defaultnodesettings.DialogComponentNumberEdit;
+import org.knime.core.node.defaultnodesettings.DialogComponentStringListSelection;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
+import org.knime.core.node.defaultnodesettings.SettingsModelStringArray;
 
 /**
  * <code>NodeDialog</code> for the "FeatureExtractor" Node.
@@ -70,6 +79,14 @@ public class FeatureExtractorNodeDialog extends DefaultNodeSettingsPane {
 
     private FeatureExtractorSettings m_settings;
 
+    private SettingsModelStringArray m_aggregatorsModel;
+
+    private SettingsModelBoolean m_parallelProcessingModel;
+
+    private SettingsModelIntegerBounded m_maxParallelWorkersModel;
+
+    private SettingsModelIntegerBounded m_maxQueueSizeModel;
+
     /**
      * New pane for configuring the FeatureExtractor node.
      */
@@ -96,6 +113,19 @@ public class FeatureExtractorNodeDialog extends DefaultNodeSettingsPane {
     public void loadAdditionalSettingsFrom(final NodeSettingsRO settings,
             final DataTableSpec[] specs) throws NotConfigurableException {
         super.loadAdditionalSettingsFrom(settings, specs);
+        /* The components keep their defaults for missing keys, older workflows
+         * have to show the values the model uses */
+        try{
+            FeatureExtractorNodeModel.loadAggregatorsSettings(settings, m_aggregatorsModel);
+        }catch(InvalidSettingsException ex){
+            // keep the value of the component
+        }
+        try{
+            FeatureExtractorNodeModel.loadParallelProcessingSettings(settings, m_parallelProcessingModel,
+                m_maxParallelWorkersModel, m_maxQueueSizeModel);
+        }catch(InvalidSettingsException ex){
+            // keep the values of the components
+        }
         m_settings.loadSettingsFrom(settings);
     }
 
@@ -118,15 +148,87 @@ public class FeatureExtractorNodeDialog extends DefaultNodeSettingsPane {
                     "Chunk Overlap (%)",
                     1);
 
-        final DialogComponentButtonGroup aggregatorComp =
-                new DialogComponentButtonGroup(
-                    FeatureExtractorNodeModel.createAggregatorSettingsModel(),
-                    false, "Aggregator Method",
-                    new String[]{FeatureExtractorNodeModel.MEAN,
-                        FeatureExtractorNodeModel.STD_DEVIATION});
+        final DialogComponentNumber targetSampleRateComp =
+                new DialogComponentNumber(
+                    FeatureExtractorNodeModel.createTargetSampleRateSettingsModel(),
+                    "Target Sample Rate (Hz, 0 = original)",
+                    1000);
+
+        final DialogComponentNumberEdit startTimeComp =
+                new DialogComponentNumberEdit(
+                    FeatureExtractorNodeModel.createStartTimeSettingsModel(),
+                    "Start Time (s): ", 10);
+
+        final DialogComponentNumberEdit endTimeComp =
+                new DialogComponentNumberEdit(
+                    FeatureExtractorNodeModel.createEndTimeSettingsModel(),
+                    "End Time (s, 0 = end of audio): ", 10);
+
+        m_aggregatorsModel = FeatureExtractorNodeModel.createAggregatorsSettingsModel();
+        final DialogComponentStringListSelection aggregatorComp =
+                new DialogComponentStringListSelection(m_aggregatorsModel,
+                    "Aggregator Methods: ",
+                    Arrays.asList(FeatureExtractor.getAggregatorNames()),
+                    ListSelectionModel.MULTIPLE_INTERVAL_SELECTION, true, 5);
         addDialogComponent(windowSizeComp);
         addDialogComponent(windowOverlapComp);
+        addDialogComponent(targetSampleRateComp);
+        addDialogComponent(startTimeComp);
+        addDialogComponent(endTimeComp);
         addDialogComponent(aggregatorComp);
+        addDialogComponent(new DialogComponentButtonGroup(
+            FeatureExtractorNodeModel.createOutputModeSettingsModel(), false, "Output",
+            new String[]{FeatureExtractorNodeModel.OUTPUT_AGGREGATED,
+                FeatureExtractorNodeModel.OUTPUT_PER_WINDOW}));
+        addDialogComponent(new DialogComponentBoolean(
+            FeatureExtractorNodeModel.createVectorOutputSettingsModel(),
+            "Output each feature as a single vector column"));
+        final SettingsModelBoolean matrixOutputModel =
+                FeatureExtractorNodeModel.createMatrixOutputSettingsModel();
+        final SettingsModelBoolean matrixCompressionModel =
+                FeatureExtractorNodeModel.createMatrixCompressionSettingsModel();
+        matrixOutputModel.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                matrixCompressionModel.setEnabled(matrixOutputModel.getBooleanValue());
+            }
+        });
+        matrixCompressionModel.setEnabled(matrixOutputModel.getBooleanValue());
+        addDialogComponent(new DialogComponentBoolean(matrixOutputModel,
+            "Add the features of all windows as feature matrix"));
+        addDialogComponent(new DialogComponentBoolean(matrixCompressionModel,
+            "Compress feature matrices (kept in the table instead of memory-mapped files)"));
+        addDialogComponent(new DialogComponentBoolean(
+            FeatureExtractorNodeModel.createFeatureCacheSettingsModel(),
+            "Cache the aggregated features of unchanged audio files on disk"));
+        addDialogComponent(new DialogComponentBoolean(
+            FeatureExtractorNodeModel.createSpectrogramCacheSettingsModel(),
+            "Cache the spectra of unchanged audio files on disk"));
+        closeCurrentGroup();
+
+        createNewGroup("Parallel Processing");
+        final SettingsModelBoolean parallelProcessingModel =
+                FeatureExtractorNodeModel.createParallelProcessingSettingsModel();
+        final SettingsModelIntegerBounded maxParallelWorkersModel =
+                FeatureExtractorNodeModel.createMaxParallelWorkersSettingsModel();
+        final SettingsModelIntegerBounded maxQueueSizeModel =
+                FeatureExtractorNodeModel.createMaxQueueSizeSettingsModel();
+        m_parallelProcessingModel = parallelProcessingModel;
+        m_maxParallelWorkersModel = maxParallelWorkersModel;
+        m_maxQueueSizeModel = maxQueueSizeModel;
+        parallelProcessingModel.addChangeListener(new ChangeListener() {
+            @Override
+            public void stateChanged(final ChangeEvent e) {
+                maxParallelWorkersModel.setEnabled(parallelProcessingModel.getBooleanValue());
+                maxQueueSizeModel.setEnabled(parallelProcessingModel.getBooleanValue());
+            }
+        });
+        addDialogComponent(new DialogComponentBoolean(parallelProcessingModel,
+            "Process audio files in parallel"));
+        addDialogComponent(new DialogComponentNumber(maxParallelWorkersModel,
+            "Maximum Number of Workers", 1));
+        addDialogComponent(new DialogComponentNumber(maxQueueSizeModel,
+            "Maximum Number of Pending Rows", 1));
         closeCurrentGroup();
 
     }
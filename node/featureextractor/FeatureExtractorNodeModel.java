@@ -8,13 +8,27 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.knime.base.node.audio3.data.SampleChunkFactory;
 import org.knime.base.node.audio3.data.cell.FeatureExtractorCellFactory;
+import org.knime.base.node.audio3.data.cell.FeatureMatrixCell;
+import org.knime.base.node.audio3.data.cell.FeatureMatrixFileStoreCell;
 import org.knime.base.node.audio3.data.component.AudioColumnSelection;
 import org.knime.base.node.audio3.data.feature.FeatureExtractor;
 import org.knime.base.node.audio3.data.feature.FeatureType;
+import org.knime.base.node.audio3.util.FeatureCache;
+import org.knime.base.node.audio3.util.SpectrogramCache;
 import org.knime.core.data.DataColumnSpec;
+import org.knime.core.data.DataColumnSpecCreator;
+import org.knime.core.data.DataRow;
 import org.knime.core.data.DataTableSpec;
+import org.knime.core.data.DataType;
+import org.knime.core.data.container.AbstractCellFactory;
 import org.knime.core.data.container.ColumnRearranger;
+import org.knime.core.data.def.DoubleCell;
+import org.knime.core.data.def.IntCell;
+import org.knime.core.data.def.StringCell;
+import org.knime.core.data.filestore.FileStoreFactory;
+import org.knime.core.node.BufferedDataContainer;
 import org.knime.core.node.BufferedDataTable;
 import org.knime.core.node.CanceledExecutionException;
 import org.knime.core.node.ExecutionContext;
@@ -24,8 +38,11 @@ import org.knime.core.node.NodeLogger;
 import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
+import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelDoubleBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.node.defaultnodesettings.SettingsModelString;
+import org.knime.core.node.defaultnodesettings.SettingsModelStringArray;
 import org.knime.core.util.UniqueNameGenerator;
 
 /**
@@ -40,14 +57,53 @@ public class FeatureExtractorNodeModel extends NodeModel {
 
     static final int DEF_WINDOW_SIZE = 512;
     static final int DEF_WINDOW_OVERLAP = 0;
+    static final int DEF_TARGET_SAMPLE_RATE = SampleChunkFactory.ORIGINAL_SAMPLE_RATE;
+    static final int DEF_MAX_PARALLEL_WORKERS = AbstractCellFactory.DEFAULT_MAX_PARALLEL_WORKERS;
+    static final int DEF_MAX_QUEUE_SIZE = AbstractCellFactory.DEFAULT_MAX_QUEUE_SIZE;
+
+    private static final String CFG_TARGET_SAMPLE_RATE = "targetSampleRate";
+    private static final String CFG_START_TIME = "startTime";
+    private static final String CFG_END_TIME = "endTime";
+    private static final String CFG_PARALLEL_PROCESSING = "parallelProcessing";
+    private static final String CFG_MAX_PARALLEL_WORKERS = "maxParallelWorkers";
+    private static final String CFG_MAX_QUEUE_SIZE = "maxQueueSize";
+    private static final String CFG_AGGREGATOR = "aggregator";
+    private static final String CFG_AGGREGATORS = "aggregators";
+    private static final String CFG_OUTPUT_MODE = "outputMode";
+    private static final String CFG_VECTOR_OUTPUT = "vectorOutput";
+    private static final String CFG_MATRIX_OUTPUT = "matrixOutput";
+    private static final String CFG_MATRIX_COMPRESSION = "matrixCompression";
+    private static final String CFG_FEATURE_CACHE = "featureCache";
+    private static final String CFG_SPECTROGRAM_CACHE = "spectrogramCache";
 
     static final String MEAN = "Mean";
     static final String STD_DEVIATION = "Standard Deviation";
 
+    static final String OUTPUT_AGGREGATED = "Aggregated";
+    static final String OUTPUT_PER_WINDOW = "Per Window";
+
+    static final String ROW_ID_COLUMN = "Audio Row ID";
+    static final String WINDOW_INDEX_COLUMN = "Window Index";
+    static final String START_TIME_COLUMN = "Start Time (s)";
+
     private final AudioColumnSelection m_audioColumnSelectionSettingsModel = new AudioColumnSelection();
     private final SettingsModelIntegerBounded m_windowSizeSettingsModel = createWindowSizeSettingsModel();
     private final SettingsModelIntegerBounded m_windowOverlapSettingsModel = createWindowOverlapSettingsModel();
-    private final SettingsModelString m_aggregatorSettingsModel = createAggregatorSettingsModel();
+    private final SettingsModelStringArray m_aggregatorsSettingsModel = createAggregatorsSettingsModel();
+    private final SettingsModelString m_outputModeSettingsModel = createOutputModeSettingsModel();
+    private final SettingsModelBoolean m_vectorOutputSettingsModel = createVectorOutputSettingsModel();
+    private final SettingsModelBoolean m_matrixOutputSettingsModel = createMatrixOutputSettingsModel();
+    private final SettingsModelBoolean m_matrixCompressionSettingsModel = createMatrixCompressionSettingsModel();
+    private final SettingsModelBoolean m_featureCacheSettingsModel = createFeatureCacheSettingsModel();
+    private final SettingsModelBoolean m_spectrogramCacheSettingsModel = createSpectrogramCacheSettingsModel();
+    private final SettingsModelIntegerBounded m_targetSampleRateSettingsModel =
+            createTargetSampleRateSettingsModel();
+    private final SettingsModelDoubleBounded m_startTimeSettingsModel = createStartTimeSettingsModel();
+    private final SettingsModelDoubleBounded m_endTimeSettingsModel = createEndTimeSettingsModel();
+    private final SettingsModelBoolean m_parallelProcessingSettingsModel = createParallelProcessingSettingsModel();
+    private final SettingsModelIntegerBounded m_maxParallelWorkersSettingsModel =
+            createMaxParallelWorkersSettingsModel();
+    private final SettingsModelIntegerBounded m_maxQueueSizeSettingsModel = createMaxQueueSizeSettingsModel();
 
     private final FeatureExtractorSettings m_settings = new FeatureExtractorSettings();
 
@@ -68,7 +124,19 @@ public class FeatureExtractorNodeModel extends NodeModel {
         LOGGER.debug("Audio Column: " + m_audioColumnSelectionSettingsModel.getSelectedColumn());
         LOGGER.debug("Windows size: " + m_windowSizeSettingsModel.getIntValue());
         LOGGER.debug("Window overlap: " + m_windowOverlapSettingsModel.getIntValue());
-        LOGGER.debug("Aggregator: " + m_aggregatorSettingsModel.getStringValue());
+        LOGGER.debug("Aggregators: " + Arrays.toString(m_aggregatorsSettingsModel.getStringArrayValue()));
+        LOGGER.debug("Output mode: " + m_outputModeSettingsModel.getStringValue());
+        LOGGER.debug("Vector output: " + m_vectorOutputSettingsModel.getBooleanValue());
+        LOGGER.debug("Matrix output: " + m_matrixOutputSettingsModel.getBooleanValue());
+        LOGGER.debug("Matrix compression: " + m_matrixCompressionSettingsModel.getBooleanValue());
+        LOGGER.debug("Feature cache: " + m_featureCacheSettingsModel.getBooleanValue());
+        LOGGER.debug("Spectrogram cache: " + m_spectrogramCacheSettingsModel.getBooleanValue());
+        LOGGER.debug("Target sample rate: " + m_targetSampleRateSettingsModel.getIntValue());
+        LOGGER.debug("Start time: " + m_startTimeSettingsModel.getDoubleValue());
+        LOGGER.debug("End time: " + m_endTimeSettingsModel.getDoubleValue());
+        LOGGER.debug("Parallel processing: " + m_parallelProcessingSettingsModel.getBooleanValue());
+        LOGGER.debug("Max parallel workers: " + m_maxParallelWorkersSettingsModel.getIntValue());
+        LOGGER.debug("Max queue size: " + m_maxQueueSizeSettingsModel.getIntValue());
         LOGGER.debug("--------------------------");
         LOGGER.debug("All Features");
         for(FeatureType type : m_settings.getAudioFeatureTypes()){
@@ -101,9 +169,11 @@ public class FeatureExtractorNodeModel extends NodeModel {
         if(selFeatures == null || selFeatures.isEmpty()){
             setWarningMessage("No feature is selected. Node returns the original unaltered table.");
             resultTable = dataTable;
+        }else if(isPerWindow()){
+            resultTable = extractPerWindow(dataTable, exec);
         }else{
             final ColumnRearranger rearranger = createColumnRearranger(
-                dataTable.getDataTableSpec());
+                dataTable.getDataTableSpec(), exec);
             resultTable = exec.createColumnRearrangeTable(dataTable, rearranger, exec);
         }
 
@@ -136,7 +206,10 @@ public class FeatureExtractorNodeModel extends NodeModel {
         final DataTableSpec inSpec = inSpecs[0];
         m_audioColumnSelectionSettingsModel.configure(inSpec);
 
-        return new DataTableSpec[]{createColumnRearranger(inSpec).createSpec()};
+        if(isPerWindow() && selectedTypes != null && !selectedTypes.isEmpty()){
+            return new DataTableSpec[]{createWindowTableSpec(createWindowCellFactory())};
+        }
+        return new DataTableSpec[]{createColumnRearranger(inSpec, null).createSpec()};
     }
 
     /**
@@ -147,7 +220,19 @@ public class FeatureExtractorNodeModel extends NodeModel {
         m_audioColumnSelectionSettingsModel.saveSettingsTo(settings);
         m_windowSizeSettingsModel.saveSettingsTo(settings);
         m_windowOverlapSettingsModel.saveSettingsTo(settings);
-        m_aggregatorSettingsModel.saveSettingsTo(settings);
+        m_aggregatorsSettingsModel.saveSettingsTo(settings);
+        m_outputModeSettingsModel.saveSettingsTo(settings);
+        m_vectorOutputSettingsModel.saveSettingsTo(settings);
+        m_matrixOutputSettingsModel.saveSettingsTo(settings);
+        m_matrixCompressionSettingsModel.saveSettingsTo(settings);
+        m_featureCacheSettingsModel.saveSettingsTo(settings);
+        m_spectrogramCacheSettingsModel.saveSettingsTo(settings);
+        m_targetSampleRateSettingsModel.saveSettingsTo(settings);
+        m_startTimeSettingsModel.saveSettingsTo(settings);
+        m_endTimeSettingsModel.saveSettingsTo(settings);
+        m_parallelProcessingSettingsModel.saveSettingsTo(settings);
+        m_maxParallelWorkersSettingsModel.saveSettingsTo(settings);
+        m_maxQueueSizeSettingsModel.saveSettingsTo(settings);
         m_settings.saveSettingsTo(settings);
     }
 
@@ -160,7 +245,48 @@ public class FeatureExtractorNodeModel extends NodeModel {
         m_audioColumnSelectionSettingsModel.loadSettingsFrom(settings);
         m_windowSizeSettingsModel.loadSettingsFrom(settings);
         m_windowOverlapSettingsModel.loadSettingsFrom(settings);
-        m_aggregatorSettingsModel.loadSettingsFrom(settings);
+        loadAggregatorsSettings(settings, m_aggregatorsSettingsModel);
+        // older workflows only create aggregated features
+        if(settings.containsKey(CFG_OUTPUT_MODE)){
+            m_outputModeSettingsModel.loadSettingsFrom(settings);
+        }else{
+            m_outputModeSettingsModel.setStringValue(OUTPUT_AGGREGATED);
+        }
+        // older workflows create one column per dimension
+        if(settings.containsKey(CFG_VECTOR_OUTPUT)){
+            m_vectorOutputSettingsModel.loadSettingsFrom(settings);
+        }else{
+            m_vectorOutputSettingsModel.setBooleanValue(false);
+        }
+        // older workflows don't create feature matrices
+        if(settings.containsKey(CFG_MATRIX_OUTPUT)){
+            m_matrixOutputSettingsModel.loadSettingsFrom(settings);
+            m_matrixCompressionSettingsModel.loadSettingsFrom(settings);
+        }else{
+            m_matrixOutputSettingsModel.setBooleanValue(false);
+        }
+        // older workflows always extract the features
+        if(settings.containsKey(CFG_FEATURE_CACHE)){
+            m_featureCacheSettingsModel.loadSettingsFrom(settings);
+        }else{
+            m_featureCacheSettingsModel.setBooleanValue(false);
+        }
+        // older workflows always compute the spectra
+        if(settings.containsKey(CFG_SPECTROGRAM_CACHE)){
+            m_spectrogramCacheSettingsModel.loadSettingsFrom(settings);
+        }else{
+            m_spectrogramCacheSettingsModel.setBooleanValue(false);
+        }
+        // added later, older workflows keep the original sample rate
+        if(settings.containsKey(CFG_TARGET_SAMPLE_RATE)){
+            m_targetSampleRateSettingsModel.loadSettingsFrom(settings);
+        }
+        if(settings.containsKey(CFG_START_TIME)){
+            m_startTimeSettingsModel.loadSettingsFrom(settings);
+            m_endTimeSettingsModel.loadSettingsFrom(settings);
+        }
+        loadParallelProcessingSettings(settings, m_parallelProcessingSettingsModel,
+            m_maxParallelWorkersSettingsModel, m_maxQueueSizeSettingsModel);
         m_settings.loadSettingsFrom(settings);
     }
 
@@ -173,7 +299,52 @@ public class FeatureExtractorNodeModel extends NodeModel {
         m_audioColumnSelectionSettingsModel.validateSettings(settings);
         m_windowSizeSettingsModel.validateSettings(settings);
         m_windowOverlapSettingsModel.validateSettings(settings);
-        m_aggregatorSettingsModel.validateSettings(settings);
+        if(settings.containsKey(CFG_AGGREGATORS)){
+            m_aggregatorsSettingsModel.validateSettings(settings);
+            final String[] aggregators = settings.getStringArray(CFG_AGGREGATORS);
+            if(aggregators == null || aggregators.length == 0){
+                throw new InvalidSettingsException("At least one aggregator must be selected.");
+            }
+        }else{
+            settings.getString(CFG_AGGREGATOR);
+        }
+        if(settings.containsKey(CFG_OUTPUT_MODE)){
+            m_outputModeSettingsModel.validateSettings(settings);
+            final String mode = settings.getString(CFG_OUTPUT_MODE);
+            if(!OUTPUT_AGGREGATED.equals(mode) && !OUTPUT_PER_WINDOW.equals(mode)){
+                throw new InvalidSettingsException("Unknown output mode: " + mode);
+            }
+        }
+        if(settings.containsKey(CFG_VECTOR_OUTPUT)){
+            m_vectorOutputSettingsModel.validateSettings(settings);
+        }
+        if(settings.containsKey(CFG_MATRIX_OUTPUT)){
+            m_matrixOutputSettingsModel.validateSettings(settings);
+            m_matrixCompressionSettingsModel.validateSettings(settings);
+        }
+        if(settings.containsKey(CFG_FEATURE_CACHE)){
+            m_featureCacheSettingsModel.validateSettings(settings);
+        }
+        if(settings.containsKey(CFG_SPECTROGRAM_CACHE)){
+            m_spectrogramCacheSettingsModel.validateSettings(settings);
+        }
+        if(settings.containsKey(CFG_TARGET_SAMPLE_RATE)){
+            m_targetSampleRateSettingsModel.validateSettings(settings);
+        }
+        if(settings.containsKey(CFG_START_TIME)){
+            m_startTimeSettingsModel.validateSettings(settings);
+            m_endTimeSettingsModel.validateSettings(settings);
+            final double startTime = settings.getDouble(CFG_START_TIME);
+            final double endTime = settings.getDouble(CFG_END_TIME);
+            if(endTime > 0 && endTime <= startTime){
+                throw new InvalidSettingsException("End time must be after the start time.");
+            }
+        }
+        if(settings.containsKey(CFG_PARALLEL_PROCESSING)){
+            m_parallelProcessingSettingsModel.validateSettings(settings);
+            m_maxParallelWorkersSettingsModel.validateSettings(settings);
+            m_maxQueueSizeSettingsModel.validateSettings(settings);
+        }
         m_settings.validateSettings(settings);
     }
 
@@ -207,12 +378,171 @@ public class FeatureExtractorNodeModel extends NodeModel {
             DEF_WINDOW_OVERLAP, 0, 99);
     }
 
-    static SettingsModelString createAggregatorSettingsModel(){
-        return new SettingsModelString("aggregator", MEAN);
+    /**
+     * Loads the aggregators, also used by the dialog so that it shows the
+     * aggregator of older workflows.
+     */
+    static void loadAggregatorsSettings(final NodeSettingsRO settings,
+            final SettingsModelStringArray aggregators) throws InvalidSettingsException{
+        // older workflows have a single aggregator
+        if(settings.containsKey(CFG_AGGREGATORS)){
+            aggregators.loadSettingsFrom(settings);
+        }else{
+            aggregators.setStringArrayValue(new String[]{settings.getString(CFG_AGGREGATOR)});
+        }
+    }
+
+    static SettingsModelStringArray createAggregatorsSettingsModel(){
+        return new SettingsModelStringArray(CFG_AGGREGATORS, new String[]{MEAN});
+    }
+
+    static SettingsModelString createOutputModeSettingsModel(){
+        return new SettingsModelString(CFG_OUTPUT_MODE, OUTPUT_AGGREGATED);
+    }
+
+    static SettingsModelBoolean createVectorOutputSettingsModel(){
+        return new SettingsModelBoolean(CFG_VECTOR_OUTPUT, false);
+    }
+
+    static SettingsModelBoolean createMatrixOutputSettingsModel(){
+        return new SettingsModelBoolean(CFG_MATRIX_OUTPUT, false);
+    }
+
+    static SettingsModelBoolean createMatrixCompressionSettingsModel(){
+        return new SettingsModelBoolean(CFG_MATRIX_COMPRESSION, false);
+    }
+
+    static SettingsModelBoolean createFeatureCacheSettingsModel(){
+        return new SettingsModelBoolean(CFG_FEATURE_CACHE, false);
+    }
+
+    static SettingsModelBoolean createSpectrogramCacheSettingsModel(){
+        return new SettingsModelBoolean(CFG_SPECTROGRAM_CACHE, false);
+    }
+
+    private boolean isPerWindow(){
+        return OUTPUT_PER_WINDOW.equals(m_outputModeSettingsModel.getStringValue());
+    }
+
+    /**
+     * Loads the parallel processing settings, also used by the dialog so that it
+     * shows the same values as the model for older workflows.
+     */
+    static void loadParallelProcessingSettings(final NodeSettingsRO settings,
+            final SettingsModelBoolean parallelProcessing, final SettingsModelIntegerBounded maxParallelWorkers,
+            final SettingsModelIntegerBounded maxQueueSize) throws InvalidSettingsException{
+        // older workflows process the rows sequentially
+        if(settings.containsKey(CFG_PARALLEL_PROCESSING)){
+            parallelProcessing.loadSettingsFrom(settings);
+            maxParallelWorkers.loadSettingsFrom(settings);
+            maxQueueSize.loadSettingsFrom(settings);
+        }else{
+            parallelProcessing.setBooleanValue(false);
+        }
+    }
+
+    static SettingsModelBoolean createParallelProcessingSettingsModel(){
+        return new SettingsModelBoolean(CFG_PARALLEL_PROCESSING, true);
+    }
+
+    static SettingsModelIntegerBounded createMaxParallelWorkersSettingsModel(){
+        return new SettingsModelIntegerBounded(CFG_MAX_PARALLEL_WORKERS,
+            DEF_MAX_PARALLEL_WORKERS, 1, Integer.MAX_VALUE);
+    }
+
+    static SettingsModelIntegerBounded createMaxQueueSizeSettingsModel(){
+        return new SettingsModelIntegerBounded(CFG_MAX_QUEUE_SIZE,
+            DEF_MAX_QUEUE_SIZE, 1, Integer.MAX_VALUE);
+    }
+
+    static SettingsModelDoubleBounded createStartTimeSettingsModel(){
+        return new SettingsModelDoubleBounded(CFG_START_TIME, 0, 0, Double.MAX_VALUE);
+    }
+
+    static SettingsModelDoubleBounded createEndTimeSettingsModel(){
+        return new SettingsModelDoubleBounded(CFG_END_TIME, 0, 0, Double.MAX_VALUE);
     }
 
-    private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec){
+    static SettingsModelIntegerBounded createTargetSampleRateSettingsModel(){
+        return new SettingsModelIntegerBounded(CFG_TARGET_SAMPLE_RATE,
+            DEF_TARGET_SAMPLE_RATE, 0, 192000);
+    }
+
+    /* The execution context is only needed to create file stores, null during configure */
+    private ColumnRearranger createColumnRearranger(final DataTableSpec inSpec,
+            final ExecutionContext exec){
         final ColumnRearranger rearranger = new ColumnRearranger(inSpec);
+        final Set<String> colNames = new HashSet<String>(
+                Arrays.asList(inSpec.getColumnNames()));
+        final FeatureExtractorCellFactory cellFactory = createCellFactory(colNames,
+            m_aggregatorsSettingsModel.getStringArrayValue(), m_matrixOutputSettingsModel.getBooleanValue());
+        if(m_matrixOutputSettingsModel.getBooleanValue()){
+            // compressed matrices are kept in the table, the others in memory-mapped file stores
+            final boolean compress = m_matrixCompressionSettingsModel.getBooleanValue();
+            cellFactory.setMatrixOutput(true, compress, compress || exec == null
+                    ? null : FileStoreFactory.createWorkflowFileStoreFactory(exec));
+        }
+        if(m_featureCacheSettingsModel.getBooleanValue()){
+            cellFactory.setFeatureCache(FeatureCache.getInstance());
+        }
+        if(m_spectrogramCacheSettingsModel.getBooleanValue()){
+            cellFactory.setSpectrogramCache(SpectrogramCache.getInstance());
+        }
+        /* The rows are independent, the results are returned in the order of the input rows */
+        cellFactory.setParallelProcessing(m_parallelProcessingSettingsModel.getBooleanValue(),
+            m_maxParallelWorkersSettingsModel.getIntValue(), m_maxQueueSizeSettingsModel.getIntValue());
+
+        rearranger.append(cellFactory);
+
+        return rearranger;
+    }
+
+    private DataTableSpec createWindowTableSpec(final FeatureExtractorCellFactory cellFactory){
+        final List<DataColumnSpec> colSpecs = new ArrayList<DataColumnSpec>();
+        colSpecs.add(new DataColumnSpecCreator(ROW_ID_COLUMN, StringCell.TYPE).createSpec());
+        colSpecs.add(new DataColumnSpecCreator(WINDOW_INDEX_COLUMN, IntCell.TYPE).createSpec());
+        colSpecs.add(new DataColumnSpecCreator(START_TIME_COLUMN, DoubleCell.TYPE).createSpec());
+        colSpecs.addAll(Arrays.asList(cellFactory.getColumnSpecs()));
+        return new DataTableSpec(colSpecs.toArray(new DataColumnSpec[colSpecs.size()]));
+    }
+
+    private FeatureExtractorCellFactory createWindowCellFactory(){
+        final Set<String> colNames = new HashSet<String>(
+                Arrays.asList(ROW_ID_COLUMN, WINDOW_INDEX_COLUMN, START_TIME_COLUMN));
+        // The features are not aggregated, a single group of columns is created
+        return createCellFactory(colNames, new String[]{MEAN}, false);
+    }
+
+    private BufferedDataTable extractPerWindow(final BufferedDataTable dataTable,
+            final ExecutionContext exec) throws CanceledExecutionException{
+        final FeatureExtractorCellFactory cellFactory = createWindowCellFactory();
+        final BufferedDataContainer container = exec.createDataContainer(
+            createWindowTableSpec(cellFactory));
+        final long totalRows = dataTable.size();
+        long rowIdx = 0;
+        long failedRows = 0;
+        for(final DataRow row : dataTable){
+            exec.checkCanceled();
+            exec.setProgress(rowIdx / (double)totalRows, "Extracting features of row "
+                    + (rowIdx + 1) + " of " + totalRows);
+            try{
+                cellFactory.addWindowRows(row, container, exec.createSubProgress(1.0 / totalRows));
+            }catch(IllegalStateException ex){
+                LOGGER.error(ex.getMessage(), ex);
+                failedRows++;
+            }
+            rowIdx++;
+        }
+        container.close();
+        if(failedRows > 0){
+            setWarningMessage("The features of " + failedRows + " of " + totalRows
+                + " rows could not be extracted completely, see the log for details.");
+        }
+        return container.getTable();
+    }
+
+    private FeatureExtractorCellFactory createCellFactory(final Set<String> colNames,
+            final String[] aggregators, final boolean matrixOutput){
         final int colIdx = m_audioColumnSelectionSettingsModel.getSelectedColumnIndex();
 
         // Create new DataColumnSpec for the extracted values
@@ -221,8 +551,6 @@ public class FeatureExtractorNodeModel extends NodeModel {
         final FeatureExtractor[] featureExtractors = FeatureExtractor
                 .getFeatureExtractors(selectedFeatures.toArray(
                     new FeatureType[selectedFeatures.size()]));
-        final Set<String> colNames = new HashSet<String>(
-                Arrays.asList(inSpec.getColumnNames()));
         for(FeatureExtractor extractor : featureExtractors){
             final FeatureType type = extractor.getType();
             if(type.hasParameters()){
@@ -231,21 +559,54 @@ public class FeatureExtractorNodeModel extends NodeModel {
                         m_settings.getParameterValue(type, parameter));
                 }
             }
+        }
 
-            final int dimension = extractor.getDimension(
-                m_windowSizeSettingsModel.getIntValue());
-            if(dimension > 1){
-                colNames.add(extractor.getType().getName());
+        // One group of columns per aggregator, the names only contain the
+        // aggregator if there are several of them
+        final boolean vectorOutput = m_vectorOutputSettingsModel.getBooleanValue();
+        for(String aggregator : aggregators){
+            for(FeatureExtractor extractor : featureExtractors){
+                final FeatureType type = extractor.getType();
+                final String name = aggregators.length > 1
+                        ? type.getName() + " (" + aggregator + ")" : type.getName();
+
+                if(vectorOutput){
+                    // A single vector column per feature
+                    final UniqueNameGenerator generator = new UniqueNameGenerator(colNames);
+                    final DataColumnSpec colSpec = generator.newColumn(
+                        name, FeatureType.getVectorDataType());
+                    colSpecsList.add(colSpec);
+                    colNames.add(colSpec.getName());
+                    continue;
+                }
+
+                final int dimension = extractor.getDimension(
+                    m_windowSizeSettingsModel.getIntValue());
+                if(dimension > 1){
+                    colNames.add(name);
+                }
+
+                for(int dim = 0; dim < dimension; dim++){
+                    final UniqueNameGenerator generator = new UniqueNameGenerator(colNames);
+                    final DataColumnSpec colSpec = generator.newColumn(
+                        name, type.getDataType());
+                    colSpecsList.add(colSpec);
+                    colNames.add(colSpec.getName());
+                }
             }
+        }
 
-            for(int dim = 0; dim < dimension; dim++){
+        // One column per feature containing the features of all windows
+        if(matrixOutput){
+            final DataType matrixType = m_matrixCompressionSettingsModel.getBooleanValue()
+                    ? FeatureMatrixCell.TYPE : FeatureMatrixFileStoreCell.TYPE;
+            for(FeatureExtractor extractor : featureExtractors){
                 final UniqueNameGenerator generator = new UniqueNameGenerator(colNames);
                 final DataColumnSpec colSpec = generator.newColumn(
-                    type.getName(), type.getDataType());
+                    extractor.getType().getName() + " (Matrix)", matrixType);
                 colSpecsList.add(colSpec);
                 colNames.add(colSpec.getName());
             }
-
         }
 
         final DataColumnSpec[] newColSpecs = colSpecsList.toArray(
@@ -255,12 +616,12 @@ public class FeatureExtractorNodeModel extends NodeModel {
                 new FeatureExtractorCellFactory(colIdx, newColSpecs,
                     featureExtractors, m_windowSizeSettingsModel.getIntValue(),
                     m_windowOverlapSettingsModel.getIntValue(),
-                    m_aggregatorSettingsModel.getStringValue());
-
-        rearranger.append(cellFactory);
-
-        return rearranger;
+                    aggregators,
+                    m_targetSampleRateSettingsModel.getIntValue());
+        cellFactory.setTimeRange(m_startTimeSettingsModel.getDoubleValue(),
+            m_endTimeSettingsModel.getDoubleValue());
+        cellFactory.setVectorOutput(vectorOutput);
+        return cellFactory;
     }
 
 }
-
@@ -65,6 +65,7 @@ import org.knime.core.node.NodeModel;
 import org.knime.core.node.NodeSettingsRO;
 import org.knime.core.node.NodeSettingsWO;
 import org.knime.core.node.defaultnodesettings.SettingsModelBoolean;
+import org.knime.core.node.defaultnodesettings.SettingsModelIntegerBounded;
 import org.knime.core.util.UniqueNameGenerator;
 
 /**
@@ -73,14 +74,22 @@ import org.knime.core.util.UniqueNameGenerator;
  */
 public class RecognizerNodeModel extends NodeModel{
 
+    private static final String CFG_TARGET_SAMPLE_RATE = "TargetSampleRate";
+
     private final AudioColumnSelection m_audioColumnSelection = new AudioColumnSelection();
     private final SettingsModelBoolean m_appendTranscriptionModel = createAppendTranscriptionModel();
+    private final SettingsModelIntegerBounded m_targetSampleRateModel = createTargetSampleRateModel();
     private final Recognizer m_recognizer;
 
     static SettingsModelBoolean createAppendTranscriptionModel(){
         return new SettingsModelBoolean("AppendTranscription", true);
     }
 
+    /* Not shown in the dialog as long as the RecognizerCellFactory doesn't run the recognizer */
+    static SettingsModelIntegerBounded createTargetSampleRateModel(){
+        return new SettingsModelIntegerBounded(CFG_TARGET_SAMPLE_RATE, 16000, 0, 192000);
+    }
+
     /**
      * Constructor for the node model.
      * @param recognizer
@@ -117,6 +126,7 @@ public class RecognizerNodeModel extends NodeModel{
     protected void saveSettingsTo(final NodeSettingsWO settings) {
         m_audioColumnSelection.saveSettingsTo(settings);
         m_appendTranscriptionModel.saveSettingsTo(settings);
+        m_targetSampleRateModel.saveSettingsTo(settings);
     }
 
     /**
@@ -126,6 +136,10 @@ public class RecognizerNodeModel extends NodeModel{
     protected void validateSettings(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_audioColumnSelection.validateSettings(settings);
         m_appendTranscriptionModel.validateSettings(settings);
+        // added later, older workflows keep the default
+        if(settings.containsKey(CFG_TARGET_SAMPLE_RATE)){
+            m_targetSampleRateModel.validateSettings(settings);
+        }
     }
 
     /**
@@ -135,6 +149,9 @@ public class RecognizerNodeModel extends NodeModel{
     protected void loadValidatedSettingsFrom(final NodeSettingsRO settings) throws InvalidSettingsException {
         m_audioColumnSelection.loadSettingsFrom(settings);
         m_appendTranscriptionModel.loadSettingsFrom(settings);
+        if(settings.containsKey(CFG_TARGET_SAMPLE_RATE)){
+            m_targetSampleRateModel.loadSettingsFrom(settings);
+        }
     }
 
     /**
@@ -186,6 +203,7 @@ public class RecognizerNodeModel extends NodeModel{
             newSpecs = new DataColumnSpec[]{audioSpec};
         }
 
+        m_recognizer.setTargetSampleRate(m_targetSampleRateModel.getIntValue());
         rearranger.remove(colIdx);
         rearranger.append(new RecognizerCellFactory(colIdx,
             m_recognizer, newSpecs));
@@ -48,11 +48,11 @@
  */
 package org.knime.base.node.audio3.node.recognizer.bing;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.IOException;
 import java.util.UUID;
 
+import javax.sound.sampled.UnsupportedAudioFileException;
+
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
@@ -69,6 +69,7 @@ import org.glassfish.jersey.jackson.JacksonFeature;
 import org.knime.base.node.audio3.data.Audio;
 import org.knime.base.node.audio3.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio3.data.recognizer.Recognizer;
+import org.knime.base.node.audio3.util.AudioUtils;
 import org.knime.core.node.NodeLogger;
 
 /**
@@ -91,6 +92,9 @@ public class BingSpeechRecognizer implements Recognizer {
     /** Default profanity markup */
     static final int DEFAULT_PROFANITY_MARKUP = 1;
 
+    /** Default sample rate of the audio sent to the service */
+    static final int DEFAULT_SAMPLE_RATE = 16000;
+
     // Data needed for authentication to get the access token from Microsoft
     private static final String ACCESS_URI = "https://oxford-speech.cloudapp.net/token/issueToken";
 
@@ -123,6 +127,8 @@ public class BingSpeechRecognizer implements Recognizer {
 
     private int m_profanityMarkup;
 
+    private int m_targetSampleRate = DEFAULT_SAMPLE_RATE;
+
     private AccessTokenInfo m_accessToken = null;
 
     /**
@@ -265,6 +271,25 @@ public class BingSpeechRecognizer implements Recognizer {
         m_profanityMarkup = profanityMarkup;
     }
 
+    /**
+     * @return the sample rate of the audio sent to the service, 0 if the original
+     * sample rate is kept
+     */
+    public int getTargetSampleRate() {
+        return m_targetSampleRate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTargetSampleRate(final int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("Sample rate must not be negative: " + sampleRate);
+        }
+        m_targetSampleRate = sampleRate;
+    }
+
     private boolean authenticate(){
         if(m_accessToken == null || m_accessToken.isExpired()){
             final Form form = new Form();
@@ -367,14 +392,18 @@ public class BingSpeechRecognizer implements Recognizer {
             final Invocation.Builder builder = client.target(endPoint).request();
             builder.header(HttpHeaders.AUTHORIZATION, authToken);
 
-            InputStream stream = null;
+            final byte[] wave;
+            final int sampleRate;
             try{
-                stream = new FileInputStream(audio.getFile());
-            } catch(FileNotFoundException ex){
+                wave = AudioUtils.getWaveBytes(audio, m_targetSampleRate, true);
+                sampleRate = m_targetSampleRate > 0 ? m_targetSampleRate
+                    : Math.round(AudioUtils.getSampleRate(audio));
+            } catch(UnsupportedAudioFileException | IOException ex){
                 LOGGER.error(ex);
+                return null;
             }
 
-            Response response = builder.post(Entity.entity(stream, "audio/wav; samplerate=16000"));
+            Response response = builder.post(Entity.entity(wave, "audio/wav; samplerate=" + sampleRate));
 
             if(response.getStatusInfo().getFamily() == Family.SUCCESSFUL){
                 LOGGER.info("Successfully recognized audio file.");
@@ -48,16 +48,17 @@
  */
 package org.knime.base.node.audio3.node.recognizer.cmusphinx;
 
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
+import javax.sound.sampled.UnsupportedAudioFileException;
+
 import org.knime.base.node.audio3.data.Audio;
 import org.knime.base.node.audio3.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio3.data.recognizer.Recognizer;
+import org.knime.base.node.audio3.util.AudioUtils;
 import org.knime.core.node.NodeLogger;
 
 import edu.cmu.sphinx.api.AbstractSpeechRecognizer;
@@ -73,6 +74,10 @@ public class CMUSphinxRecognizer implements Recognizer {
 
     private static final NodeLogger LOGGER = NodeLogger.getLogger(CMUSphinxRecognizer.class);
 
+    /** Sample rate of the default acoustic model */
+    static final int DEFAULT_SAMPLE_RATE = 16000;
+
+    /* Created on first use and again after the models have been changed */
     private AbstractSpeechRecognizer m_recognizer;
     private final Configuration m_config;
 
@@ -91,12 +96,18 @@ public class CMUSphinxRecognizer implements Recognizer {
         m_config.setAcousticModelPath(acousticModelPath);
         m_config.setLanguageModelPath(languageModelPath);
         m_config.setDictionaryPath(dictionaryPath);
+        m_config.setSampleRate(DEFAULT_SAMPLE_RATE);
+    }
 
-        try{
+    private AbstractSpeechRecognizer getSpeechRecognizer() throws IOException{
+        if(m_recognizer == null){
             m_recognizer = new StreamSpeechRecognizer(m_config);
-        } catch(IOException ex){
-            LOGGER.error(ex.getMessage());
         }
+        return m_recognizer;
+    }
+
+    private static boolean isChanged(final String oldPath, final String newPath){
+        return oldPath == null ? newPath != null : !oldPath.equals(newPath);
     }
 
     /**
@@ -104,7 +115,10 @@ public class CMUSphinxRecognizer implements Recognizer {
     * @param acousticModelPath
     */
    public void setAcoustisModelPath(final String acousticModelPath){
-       m_config.setAcousticModelPath(acousticModelPath);
+       if(isChanged(m_config.getAcousticModelPath(), acousticModelPath)){
+           m_config.setAcousticModelPath(acousticModelPath);
+           m_recognizer = null;
+       }
    }
 
    /**
@@ -119,7 +133,10 @@ public class CMUSphinxRecognizer implements Recognizer {
     * @param languageModelPath
     */
    public void setLanguageModelPath(final String languageModelPath){
-       m_config.setLanguageModelPath(languageModelPath);
+       if(isChanged(m_config.getLanguageModelPath(), languageModelPath)){
+           m_config.setLanguageModelPath(languageModelPath);
+           m_recognizer = null;
+       }
    }
 
    /**
@@ -134,7 +151,10 @@ public class CMUSphinxRecognizer implements Recognizer {
    * @param dictionaryPath
    */
   public void setDictionaryPath(final String dictionaryPath){
-      m_config.setDictionaryPath(dictionaryPath);
+      if(isChanged(m_config.getDictionaryPath(), dictionaryPath)){
+          m_config.setDictionaryPath(dictionaryPath);
+          m_recognizer = null;
+      }
   }
 
   /**
@@ -144,6 +164,30 @@ public class CMUSphinxRecognizer implements Recognizer {
       return m_config.getDictionaryPath();
   }
 
+  /**
+   * @return the sample rate the audio is converted to, which is the sample
+   * rate of the acoustic model
+   */
+  public int getTargetSampleRate(){
+      return m_config.getSampleRate();
+  }
+
+  /**
+   * The audio is always converted to the sample rate of the acoustic model,
+   * since the model cannot recognize audio with other sample rates. Other
+   * sample rates are ignored.
+   */
+  @Override
+  public void setTargetSampleRate(final int sampleRate){
+      if(sampleRate < 0){
+          throw new IllegalArgumentException("Sample rate must not be negative: " + sampleRate);
+      }
+      if(sampleRate != m_config.getSampleRate()){
+          LOGGER.warn("The audio is converted to the sample rate of the acoustic model ("
+              + m_config.getSampleRate() + " Hz) instead of " + sampleRate + " Hz.");
+      }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -157,15 +201,18 @@ public class CMUSphinxRecognizer implements Recognizer {
      */
     @Override
     public RecognitionResult recognize(final Audio audio) {
-        InputStream inStream = null;
+        /* The acoustic model expects mono audio with the sample rate of the configuration */
+        final InputStream inStream;
+        final StreamSpeechRecognizer recognizer;
         try{
-            inStream = new BufferedInputStream(
-                new FileInputStream(audio.getFile()));
-        } catch(FileNotFoundException ex){
+            recognizer = (StreamSpeechRecognizer) getSpeechRecognizer();
+            inStream = new ByteArrayInputStream(
+                AudioUtils.getWaveBytes(audio, m_config.getSampleRate(), true));
+        } catch(UnsupportedAudioFileException | IOException ex){
             LOGGER.error(ex);
+            return null;
         }
 
-        final StreamSpeechRecognizer recognizer = (StreamSpeechRecognizer) m_recognizer;
         recognizer.startRecognition(inStream);
         SpeechResult result;
         final StringBuilder builder = new StringBuilder();
@@ -48,10 +48,19 @@
  */
 package org.knime.base.node.audio3.node.recognizer.watson;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.sound.sampled.UnsupportedAudioFileException;
+
 import org.apache.commons.lang.StringUtils;
 import org.knime.base.node.audio3.data.Audio;
 import org.knime.base.node.audio3.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio3.data.recognizer.Recognizer;
+import org.knime.base.node.audio3.util.AudioUtils;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
 
 import com.ibm.watson.developer_cloud.speech_to_text.v1.SpeechToText;
 import com.ibm.watson.developer_cloud.speech_to_text.v1.model.SpeechAlternative;
@@ -63,8 +72,11 @@ import com.ibm.watson.developer_cloud.speech_to_text.v1.model.SpeechResults;
  */
 public class WatsonSpeechRecognizer implements Recognizer{
 
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(WatsonSpeechRecognizer.class);
+
     private String m_userName = "";
     private String m_password = "";
+    private int m_targetSampleRate = 0;
 
     /**
      * @return the userName
@@ -94,6 +106,25 @@ public class WatsonSpeechRecognizer implements Recognizer{
         m_password = password;
     }
 
+    /**
+     * @return the sample rate the audio is converted to, 0 if the original
+     * sample rate is kept
+     */
+    public int getTargetSampleRate() {
+        return m_targetSampleRate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setTargetSampleRate(final int sampleRate) {
+        if(sampleRate < 0){
+            throw new IllegalArgumentException("Sample rate must not be negative: " + sampleRate);
+        }
+        m_targetSampleRate = sampleRate;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -104,7 +135,25 @@ public class WatsonSpeechRecognizer implements Recognizer{
         }
         final SpeechToText service = new SpeechToText();
         service.setUsernameAndPassword(m_userName, m_password);
-        final SpeechResults results = service.recognize(audio.getFile());
+        final SpeechResults results;
+        if(m_targetSampleRate > 0){
+            /* The service only accepts files, so the converted audio is written to a temporary file */
+            File tmpFile = null;
+            try{
+                tmpFile = File.createTempFile("watson", ".wav", KNIMEConstants.getKNIMETempDir());
+                Files.write(tmpFile.toPath(), AudioUtils.getWaveBytes(audio, m_targetSampleRate, true));
+                results = service.recognize(tmpFile);
+            } catch(UnsupportedAudioFileException | IOException ex){
+                LOGGER.error(ex);
+                return null;
+            } finally {
+                if(tmpFile != null && !tmpFile.delete()){
+                    tmpFile.deleteOnExit();
+                }
+            }
+        }else{
+            results = service.recognize(audio.getFile());
+        }
 
         final SpeechAlternative alternative = results.getResults().get(0)
                 .getAlternatives().get(0);
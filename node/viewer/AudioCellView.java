@@ -56,7 +56,6 @@ import java.util.Set;
 
 import javax.sound.sampled.AudioFileFormat;
 import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioSystem;
 import javax.sound.sampled.UnsupportedAudioFileException;
 import javax.swing.BorderFactory;
 import javax.swing.BoxLayout;
@@ -79,8 +78,10 @@ import org.jfree.chart.JFreeChart;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 import org.knime.base.node.audio3.data.Audio;
+import org.knime.base.node.audio3.data.SampleStore;
 import org.knime.base.node.audio3.data.recognizer.RecognitionResult;
 import org.knime.base.node.audio3.util.AudioErrorUtils;
+import org.knime.base.node.audio3.util.AudioHeaderParser;
 import org.knime.base.node.audio3.util.AudioUtils;
 import org.knime.core.node.NodeLogger;
 
@@ -131,13 +132,13 @@ class AudioCellView extends JPanel{
         panel.setBorder(BorderFactory.createTitledBorder("Audio Wave"));
 
         try {
-            final double[][] samples = AudioUtils.getSamples(m_audio);
-            m_totalSamples = samples[0].length;
-            for(int channel = 0; channel < samples.length; channel++){
+            final SampleStore samples = AudioUtils.getAudioSamples(m_audio).getStore();
+            m_totalSamples = samples.getNumberOfSamples();
+            for(int channel = 0; channel < samples.getNumberOfChannels(); channel++){
                 final XYSeriesCollection dataset = new XYSeriesCollection();
                 final XYSeries series = new XYSeries("Audio Wave");
-                for(int i = 0; i < samples[channel].length; i++){
-                    series.add(i, samples[channel][i]);
+                for(int i = 0; i < m_totalSamples; i++){
+                    series.add(i, samples.get(channel, i));
                 }
                 dataset.addSeries(series);
                 JFreeChart chart = ChartFactory.createXYLineChart(
@@ -176,11 +177,15 @@ class AudioCellView extends JPanel{
 
         AudioFileFormat fileFormat = null;
 
-        try {
-            fileFormat = AudioSystem.getAudioFileFormat(m_audio.getFile());
-        } catch (UnsupportedAudioFileException | IOException ex) {
-            AudioErrorUtils.showError(this, ex.getMessage(), "Cannot open file.");
-            return null;
+        if (m_audio.getHeader() != null) {
+            fileFormat = m_audio.getHeader().getAudioFileFormat();
+        } else {
+            try {
+                fileFormat = AudioHeaderParser.getAudioFileFormat(m_audio.getFile());
+            } catch (UnsupportedAudioFileException | IOException ex) {
+                AudioErrorUtils.showError(this, ex.getMessage(), "Cannot open file.");
+                return null;
+            }
         }
 
         final AudioFormat format = fileFormat.getFormat();
@@ -0,0 +1,184 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the power and magnitude spectra computed with the {@link RealFFT}
+ * against a direct evaluation of the discrete Fourier transform of the
+ * zero-padded samples weighted with a Hanning window.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class SpectrumTest {
+
+    private static final float SAMPLE_RATE = 44100;
+
+    /* Powers of two and a size that is zero-padded */
+    private static final int[] WINDOW_SIZES = {256, 1000, 4096};
+
+    /**
+     * The spectra of the compiled extractors agree with the direct transform.
+     * @throws Exception if a spectrum cannot be extracted
+     */
+    @Test
+    public void testSpectraAgreeWithDirectTransform() throws Exception {
+        final Random random = new Random(42);
+        for (int windowSize : WINDOW_SIZES) {
+            final double[] samples = createSignal(windowSize, random);
+            assertRelativeEquals(directTransform(samples, true),
+                extract(new PowerSpectrum().compile(SAMPLE_RATE, windowSize), samples), 1e-9);
+            assertRelativeEquals(directTransform(samples, false),
+                extract(new MagnitudeSpectrum().compile(SAMPLE_RATE, windowSize), samples), 1e-9);
+        }
+    }
+
+    /**
+     * Both spectra taken from one shared transform have the values of the
+     * separately compiled extractors.
+     * @throws Exception if a spectrum cannot be extracted
+     */
+    @Test
+    public void testSharedSpectraAgreeWithSeparateSpectra() throws Exception {
+        final Random random = new Random(7);
+        for (int windowSize : WINDOW_SIZES) {
+            final double[] samples = createSignal(windowSize, random);
+            final FeatureExtractor[] extractors = {new PowerSpectrum(), new MagnitudeSpectrum()};
+            final SharedKernels kernels = SharedKernels.create(extractors, windowSize);
+            final CompiledFeatureExtractor power = extractors[0].compile(SAMPLE_RATE, windowSize, kernels);
+            final CompiledFeatureExtractor magnitude = extractors[1].compile(SAMPLE_RATE, windowSize, kernels);
+            kernels.compute(samples, 0, windowSize, true);
+            assertArrayEquals(extract(extractors[0].compile(SAMPLE_RATE, windowSize), samples),
+                extract(power, samples), 0);
+            assertArrayEquals(extract(extractors[1].compile(SAMPLE_RATE, windowSize), samples),
+                extract(magnitude, samples), 0);
+        }
+    }
+
+    /**
+     * A cosine at the frequency of a bin has its peak in this bin.
+     * @throws Exception if a spectrum cannot be extracted
+     */
+    @Test
+    public void testPeakOfCosine() throws Exception {
+        final int windowSize = 1024;
+        final int bin = 64;
+        final double[] samples = new double[windowSize];
+        for (int i = 0; i < windowSize; i++) {
+            samples[i] = Math.cos(2 * Math.PI * bin * i / windowSize);
+        }
+        final double[] power = extract(new PowerSpectrum().compile(SAMPLE_RATE, windowSize), samples);
+        assertEquals(windowSize / 2, power.length);
+        int peak = 0;
+        for (int i = 1; i < power.length; i++) {
+            if (power[i] > power[peak]) {
+                peak = i;
+            }
+        }
+        assertEquals(bin, peak);
+        /* The Hanning window halves the amplitude, |X| = n / 4 */
+        assertEquals(windowSize / 16.0, power[bin], 1e-9);
+    }
+
+    /* Evaluates the transform of the weighted and zero-padded samples term by term */
+    private static double[] directTransform(final double[] samples, final boolean power) {
+        final int size = RealFFT.ensureIsPowerOfTwo(samples.length);
+        final double[] weighted = new double[size];
+        for (int i = 0; i < samples.length; i++) {
+            weighted[i] = samples[i] * (0.5 - 0.5 * Math.cos(2 * Math.PI * i / size));
+        }
+        final double[] result = new double[size / 2];
+        for (int k = 0; k < result.length; k++) {
+            double re = 0;
+            double im = 0;
+            for (int i = 0; i < size; i++) {
+                final double angle = -2 * Math.PI * ((long)k * i % size) / size;
+                re += weighted[i] * Math.cos(angle);
+                im += weighted[i] * Math.sin(angle);
+            }
+            final double squared = re * re + im * im;
+            result[k] = power ? squared / size : Math.sqrt(squared) / size;
+        }
+        return result;
+    }
+
+    static double[] extract(final CompiledFeatureExtractor extractor, final double[] samples)
+            throws Exception {
+        final double[] result = new double[extractor.getDimension()];
+        extractor.extract(samples, 0, samples.length, result, 0);
+        return result;
+    }
+
+    /* A few sines and some noise, within [-1, 1] */
+    static double[] createSignal(final int length, final Random random) {
+        final double[] samples = new double[length];
+        for (int i = 0; i < length; i++) {
+            final double t = i / SAMPLE_RATE;
+            samples[i] = 0.4 * Math.sin(2 * Math.PI * 440 * t) + 0.2 * Math.sin(2 * Math.PI * 1250 * t)
+                    + 0.1 * Math.sin(2 * Math.PI * 5000 * t) + 0.05 * random.nextGaussian();
+        }
+        return samples;
+    }
+
+    /* Compares the values relative to the largest expected value */
+    private static void assertRelativeEquals(final double[] expected, final double[] actual,
+            final double tolerance) {
+        double scale = 0;
+        for (double value : expected) {
+            scale = Math.max(scale, Math.abs(value));
+        }
+        assertArrayEquals(expected, actual, tolerance * scale);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.data.feature;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the features computed by the {@link TimeDomainKernel}, alone and
+ * shared via {@link SharedKernels}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class TimeDomainKernelTest {
+
+    private static final float SAMPLE_RATE = 44100;
+
+    private static final double[] LPC_LAMBDAS = {0.0, 0.5};
+
+    /**
+     * Root mean square and zero crossings of short signals with known values.
+     * @throws Exception if a feature cannot be extracted
+     */
+    @Test
+    public void testRootMeanSquareAndZeroCrossings() throws Exception {
+        final double[] alternating = {1, -1, 1, -1};
+        assertArrayEquals(new double[]{1}, extract(new RootMeanSquare(), alternating), 1e-15);
+        assertArrayEquals(new double[]{3}, extract(new ZeroCrossings(), alternating), 0);
+
+        /* Leaving zero counts as a crossing, reaching zero doesn't */
+        final double[] touching = {0, 1, 0, -1, 0};
+        assertArrayEquals(new double[]{Math.sqrt(0.4)}, extract(new RootMeanSquare(), touching), 1e-15);
+        assertArrayEquals(new double[]{2}, extract(new ZeroCrossings(), touching), 0);
+    }
+
+    /**
+     * The features computed by one shared kernel have the values of the
+     * separately compiled extractors.
+     * @throws Exception if a feature cannot be extracted
+     */
+    @Test
+    public void testSharedKernelAgreesWithSeparateExtractors() throws Exception {
+        final Random random = new Random(42);
+        for (int windowSize : new int[]{256, 1000}) {
+            final double[] samples = SpectrumTest.createSignal(windowSize, random);
+            for (double lambda : LPC_LAMBDAS) {
+                final FeatureExtractor[] extractors = {new RootMeanSquare(), new ZeroCrossings(), new LPC()};
+                extractors[2].setParameterValue(FeatureType.LPC.getParameters()[0], lambda);
+                extractors[2].setParameterValue(FeatureType.LPC.getParameters()[1], 10);
+                final double[][] expected = new double[extractors.length][];
+                for (int i = 0; i < extractors.length; i++) {
+                    expected[i] = SpectrumTest.extract(extractors[i].compile(SAMPLE_RATE, windowSize), samples);
+                }
+                final SharedKernels kernels = SharedKernels.create(extractors, windowSize);
+                final CompiledFeatureExtractor[] compiled = new CompiledFeatureExtractor[extractors.length];
+                for (int i = 0; i < extractors.length; i++) {
+                    compiled[i] = extractors[i].compile(SAMPLE_RATE, windowSize, kernels);
+                }
+                kernels.compute(samples, 0, windowSize, true);
+                for (int i = 0; i < extractors.length; i++) {
+                    assertArrayEquals(expected[i], SpectrumTest.extract(compiled[i], samples), 0);
+                }
+            }
+        }
+    }
+
+    private static double[] extract(final FeatureExtractor extractor, final double[] samples) throws Exception {
+        return SpectrumTest.extract(extractor.compile(SAMPLE_RATE, samples.length), samples);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the {@link Resampler} with a sine sampled at the target rate.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class ResamplerTest {
+
+    private static final double FREQUENCY = 440;
+
+    /**
+     * Downsampling keeps a sine below the new Nyquist frequency.
+     */
+    @Test
+    public void testDownsampling() {
+        assertResamplesSine(44100, 16000);
+    }
+
+    /**
+     * Upsampling interpolates a sine.
+     */
+    @Test
+    public void testUpsampling() {
+        assertResamplesSine(16000, 44100);
+    }
+
+    /**
+     * Resampling with a ratio of large coprime numbers.
+     */
+    @Test
+    public void testLargeRatio() {
+        assertResamplesSine(48000, 44100);
+    }
+
+    /**
+     * A ratio with more phases than are precomputed, whose coefficients are interpolated.
+     */
+    @Test
+    public void testInterpolatedPhases() {
+        assertResamplesSine(22050, 22051);
+        assertResamplesSine(44101, 16000);
+    }
+
+    /* Compares the resampled sine with the sine sampled at the target rate, away from the edges */
+    private static void assertResamplesSine(final int inputRate, final int outputRate) {
+        final double[] input = new double[inputRate];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = 0.5 * Math.sin(2 * Math.PI * FREQUENCY * i / inputRate);
+        }
+        final double[] output = Resampler.resample(input, inputRate, outputRate);
+        assertEquals(outputRate, output.length, 1);
+        final int margin = outputRate / 100;
+        for (int i = margin; i < output.length - margin; i++) {
+            assertEquals("Sample " + i, 0.5 * Math.sin(2 * Math.PI * FREQUENCY * i / outputRate), output[i], 5e-4);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link StreamingStatistics} with vectors of different lengths, as
+ * produced by extractors with a variable number of values per window.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class StreamingStatisticsTest {
+
+    /* The second dimension only receives a single value */
+    private static final double[][] RAGGED = {
+        {1.0},
+        {3.0, 7.0},
+        {5.0},
+        {2.0}
+    };
+
+    /**
+     * Dimensions with a single value have a standard deviation of 0 instead of NaN.
+     */
+    @Test
+    public void testStandardDeviationOfRaggedVectors() {
+        final StreamingStatistics statistics = add(new StreamingStatistics(), RAGGED, 0, RAGGED.length);
+        assertEquals(4, statistics.getNumberOfValues());
+        assertArrayEquals(new double[]{2.75, 7.0}, statistics.getMean(), 1e-12);
+        assertArrayEquals(new double[]{Math.sqrt(8.75 / 3), 0.0}, statistics.getStandardDeviation(), 1e-12);
+        assertEquals(0.0, statistics.getSkewness()[1], 0);
+        assertEquals(0.0, statistics.getKurtosis()[1], 0);
+        assertArrayEquals(new double[]{1.0, 7.0}, statistics.getMinimum(), 0);
+        assertArrayEquals(new double[]{5.0, 7.0}, statistics.getMaximum(), 0);
+    }
+
+    /**
+     * Merging parts with different dimensions gives the values of a single pass.
+     */
+    @Test
+    public void testMergeOfRaggedVectors() {
+        final StreamingStatistics single = add(new StreamingStatistics(), RAGGED, 0, RAGGED.length);
+        final StreamingStatistics merged = add(new StreamingStatistics(), RAGGED, 0, 1);
+        merged.merge(add(new StreamingStatistics(), RAGGED, 1, 2));
+        merged.merge(add(new StreamingStatistics(), RAGGED, 2, RAGGED.length));
+        assertEquals(single.getNumberOfValues(), merged.getNumberOfValues());
+        assertArrayEquals(single.getMean(), merged.getMean(), 1e-12);
+        assertArrayEquals(single.getStandardDeviation(), merged.getStandardDeviation(), 1e-12);
+        assertArrayEquals(single.getMinimum(), merged.getMinimum(), 0);
+        assertArrayEquals(single.getMaximum(), merged.getMaximum(), 0);
+    }
+
+    /**
+     * A single vector has a standard deviation of 0 in every dimension.
+     */
+    @Test
+    public void testStandardDeviationOfSingleVector() {
+        final StreamingStatistics statistics = new StreamingStatistics();
+        statistics.add(new double[]{1.0, 2.0});
+        assertArrayEquals(new double[]{0.0, 0.0}, statistics.getStandardDeviation(), 0);
+    }
+
+    /**
+     * Statistics merged from four parts, like the ones of the parallel window
+     * ranges, agree with a single pass and with {@link MathUtils}.
+     */
+    @Test
+    public void testMergeAgreesWithSinglePass() {
+        final Random random = new Random(42);
+        final double[][] values = new double[10000][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new double[]{random.nextGaussian(), 100 + random.nextDouble(),
+                Math.exp(random.nextGaussian())};
+        }
+        final StreamingStatistics single = add(new StreamingStatistics(), values, 0, values.length);
+        final StreamingStatistics merged = new StreamingStatistics();
+        final int partSize = values.length / 4;
+        for (int part = 0; part < 4; part++) {
+            merged.merge(add(new StreamingStatistics(), values, part * partSize, (part + 1) * partSize));
+        }
+        assertArrayEquals(MathUtils.mean(values), single.getMean(), 1e-12);
+        assertArrayEquals(MathUtils.standardDeviation(values), single.getStandardDeviation(), 1e-12);
+        assertArrayEquals(single.getMean(), merged.getMean(), 1e-12);
+        assertArrayEquals(single.getStandardDeviation(), merged.getStandardDeviation(), 1e-12);
+        assertArrayEquals(single.getSkewness(), merged.getSkewness(), 1e-9);
+        assertArrayEquals(single.getKurtosis(), merged.getKurtosis(), 1e-9);
+        assertArrayEquals(single.getMinimum(), merged.getMinimum(), 0);
+        assertArrayEquals(single.getMaximum(), merged.getMaximum(), 0);
+    }
+
+    private static StreamingStatistics add(final StreamingStatistics statistics, final double[][] values,
+            final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            statistics.add(values[i]);
+        }
+        return statistics;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the quantiles estimated by the {@link TDigest} against the exact
+ * quantiles of the values.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class TDigestTest {
+
+    private static final double[] QUANTILES = {0.01, 0.1, 0.5, 0.9, 0.99};
+
+    /**
+     * The ranks of the estimated quantiles of a single and of merged digests
+     * differ by at most half a percent from the requested quantiles.
+     */
+    @Test
+    public void testQuantileRanks() {
+        final Random random = new Random(42);
+        final double[] values = new double[100000];
+        final TDigest single = new TDigest();
+        final TDigest merged = new TDigest();
+        TDigest part = new TDigest();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian());
+            single.add(values[i]);
+            part.add(values[i]);
+            if ((i + 1) % 25000 == 0) {
+                merged.merge(part);
+                part = new TDigest();
+            }
+        }
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double quantile : QUANTILES) {
+            assertEquals(quantile, rank(sorted, single.quantile(quantile)), 0.005);
+            assertEquals(quantile, rank(sorted, merged.quantile(quantile)), 0.005);
+        }
+    }
+
+    /**
+     * The quantiles of a few values lie within their range.
+     */
+    @Test
+    public void testQuantilesOfFewValues() {
+        final TDigest digest = new TDigest();
+        for (double value : new double[]{3, 1, 2}) {
+            digest.add(value);
+        }
+        assertEquals(1, digest.quantile(0), 0);
+        assertEquals(3, digest.quantile(1), 0);
+        assertEquals(2, digest.quantile(0.5), 1e-12);
+    }
+
+    /* Fraction of the sorted values not greater than the given value */
+    private static double rank(final double[] sorted, final double value) {
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) {
+            idx = -idx - 1;
+        } else {
+            while (idx < sorted.length && sorted[idx] == value) {
+                idx++;
+            }
+        }
+        return idx / (double)sorted.length;
+    }
+}
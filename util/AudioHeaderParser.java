@@ -0,0 +1,379 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Lightweight parser for the headers of RIFF/WAVE (including WAVE_FORMAT_EXTENSIBLE)
+ * and AIFF/AIFC files. Only the first few KB of a file are read, chunks located
+ * further in the file are reached by seeking. Other file types are probed with
+ * {@link AudioSystem}, which tries every installed file reader.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class AudioHeaderParser {
+
+    /** Number of bytes read at once from the beginning of the file */
+    private static final int HEAD_SIZE = 4096;
+
+    private static final int WAVE_FORMAT_PCM = 0x0001;
+
+    private static final int WAVE_FORMAT_IEEE_FLOAT = 0x0003;
+
+    private static final int WAVE_FORMAT_ALAW = 0x0006;
+
+    private static final int WAVE_FORMAT_MULAW = 0x0007;
+
+    private static final int WAVE_FORMAT_EXTENSIBLE = 0xFFFE;
+
+    private AudioHeaderParser() {
+        // only static methods
+    }
+
+    /**
+     * Header of a WAVE or AIFF file, i.e. the format and the location of the audio data.
+     */
+    public static final class FileHeader {
+
+        private final AudioFileFormat.Type m_type;
+
+        private final AudioFormat m_format;
+
+        private final long m_frameLength;
+
+        private final long m_dataOffset;
+
+        private final long m_dataLength;
+
+        private FileHeader(final AudioFileFormat.Type type, final AudioFormat format,
+                final long dataOffset, final long dataLength) {
+            m_type = type;
+            m_format = format;
+            m_dataOffset = dataOffset;
+            m_dataLength = dataLength;
+            m_frameLength = dataLength / format.getFrameSize();
+        }
+
+        /**
+         * @return the type of the file
+         */
+        public AudioFileFormat.Type getType() {
+            return m_type;
+        }
+
+        /**
+         * @return the format of the audio data
+         */
+        public AudioFormat getFormat() {
+            return m_format;
+        }
+
+        /**
+         * @return the number of sample frames
+         */
+        public long getFrameLength() {
+            return m_frameLength;
+        }
+
+        /**
+         * @return the offset of the first frame in the file
+         */
+        public long getDataOffset() {
+            return m_dataOffset;
+        }
+
+        /**
+         * @return the length of the audio data in bytes
+         */
+        public long getDataLength() {
+            return m_dataLength;
+        }
+
+        /**
+         * @return the <code>AudioFileFormat</code> of the file
+         */
+        public AudioFileFormat getAudioFileFormat() {
+            return new AudioFileFormat(m_type, m_format,
+                m_frameLength > Integer.MAX_VALUE ? AudioSystem.NOT_SPECIFIED : (int)m_frameLength);
+        }
+    }
+
+    /**
+     * Returns the format of the given file. WAVE and AIFF files are parsed
+     * directly, all other files are probed with {@link AudioSystem}.
+     *
+     * @param file the audio file
+     * @return the format of the file
+     * @throws UnsupportedAudioFileException if the file format is not supported
+     * @throws IOException if the file cannot be read
+     */
+    public static AudioFileFormat getAudioFileFormat(final File file)
+            throws UnsupportedAudioFileException, IOException {
+        final FileHeader header = parse(file);
+        if (header != null) {
+            return header.getAudioFileFormat();
+        }
+        return AudioSystem.getAudioFileFormat(file);
+    }
+
+    /**
+     * Parses the header of the given file.
+     *
+     * @param file the audio file
+     * @return the header or <code>null</code> if the file isn't a WAVE or AIFF file
+     * with an encoding known to this parser
+     * @throws IOException if the file cannot be read
+     */
+    public static FileHeader parse(final File file) throws IOException {
+        try (final RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            final long size = raf.length();
+            if (size < 12) {
+                return null;
+            }
+            final byte[] head = new byte[(int)Math.min(size, HEAD_SIZE)];
+            raf.readFully(head);
+            final ChunkReader reader = new ChunkReader(raf, head, size);
+            final ByteBuffer riff = reader.read(0, 12, ByteOrder.BIG_ENDIAN);
+            final String id = readId(riff, 0);
+            final String form = readId(riff, 8);
+            if ("RIFF".equals(id) && "WAVE".equals(form)) {
+                return parseWave(reader);
+            } else if ("FORM".equals(id) && ("AIFF".equals(form) || "AIFC".equals(form))) {
+                return parseAiff(reader, "AIFC".equals(form));
+            }
+            return null;
+        }
+    }
+
+    private static FileHeader parseWave(final ChunkReader reader) throws IOException {
+        AudioFormat format = null;
+        long pos = 12;
+        while (pos + 8 <= reader.m_size) {
+            final ByteBuffer chunk = reader.read(pos, 8, ByteOrder.LITTLE_ENDIAN);
+            final String chunkId = readId(chunk, 0);
+            final long chunkSize = chunk.getInt(4) & 0xffffffffL;
+            final long body = pos + 8;
+            if ("fmt ".equals(chunkId)) {
+                if (chunkSize < 16) {
+                    return null;
+                }
+                format = parseWaveFormat(reader.read(body, (int)Math.min(chunkSize, 40),
+                    ByteOrder.LITTLE_ENDIAN), chunkSize);
+                if (format == null) {
+                    return null;
+                }
+            } else if ("data".equals(chunkId)) {
+                if (format == null) {
+                    return null;
+                }
+                /* Files written while streaming may not contain the final data size */
+                final long length = Math.min(chunkSize, reader.m_size - body);
+                return new FileHeader(AudioFileFormat.Type.WAVE, format, body, length);
+            }
+            /* Chunks are padded to an even size */
+            pos = body + chunkSize + (chunkSize & 1);
+        }
+        return null;
+    }
+
+    private static AudioFormat parseWaveFormat(final ByteBuffer buf, final long chunkSize) {
+        int formatTag = buf.getShort(0) & 0xffff;
+        final int channels = buf.getShort(2) & 0xffff;
+        final float sampleRate = buf.getInt(4);
+        final int blockAlign = buf.getShort(12) & 0xffff;
+        final int bitsPerSample = buf.getShort(14) & 0xffff;
+        if (formatTag == WAVE_FORMAT_EXTENSIBLE && chunkSize >= 40) {
+            /* The actual format is stored in the first two bytes of the sub format GUID */
+            formatTag = buf.getShort(24) & 0xffff;
+        }
+        if (channels < 1 || blockAlign < 1) {
+            return null;
+        }
+        final AudioFormat.Encoding encoding;
+        if (formatTag == WAVE_FORMAT_IEEE_FLOAT) {
+            encoding = AudioFormat.Encoding.PCM_FLOAT;
+        } else if (formatTag == WAVE_FORMAT_PCM) {
+            /* 8 bit WAVE samples are always unsigned */
+            encoding = bitsPerSample <= 8
+                    ? AudioFormat.Encoding.PCM_UNSIGNED : AudioFormat.Encoding.PCM_SIGNED;
+        } else if (formatTag == WAVE_FORMAT_ALAW) {
+            encoding = AudioFormat.Encoding.ALAW;
+        } else if (formatTag == WAVE_FORMAT_MULAW) {
+            encoding = AudioFormat.Encoding.ULAW;
+        } else {
+            return null;
+        }
+        return new AudioFormat(encoding, sampleRate, bitsPerSample, channels,
+            blockAlign, sampleRate, false);
+    }
+
+    private static FileHeader parseAiff(final ChunkReader reader, final boolean isAifc)
+            throws IOException {
+        int channels = 0;
+        long numFrames = 0;
+        int bitsPerSample = 0;
+        double sampleRate = 0;
+        boolean bigEndian = true;
+        AudioFormat.Encoding encoding = AudioFormat.Encoding.PCM_SIGNED;
+        boolean hasComm = false;
+        long pos = 12;
+        while (pos + 8 <= reader.m_size) {
+            final ByteBuffer chunk = reader.read(pos, 8, ByteOrder.BIG_ENDIAN);
+            final String chunkId = readId(chunk, 0);
+            final long chunkSize = chunk.getInt(4) & 0xffffffffL;
+            final long body = pos + 8;
+            if ("COMM".equals(chunkId)) {
+                final ByteBuffer comm = reader.read(body, isAifc ? 22 : 18, ByteOrder.BIG_ENDIAN);
+                channels = comm.getShort(0) & 0xffff;
+                numFrames = comm.getInt(2) & 0xffffffffL;
+                bitsPerSample = comm.getShort(6) & 0xffff;
+                sampleRate = readExtended(comm, 8);
+                if (isAifc) {
+                    final String compression = readId(comm, 18);
+                    if ("sowt".equals(compression)) {
+                        bigEndian = false;
+                    } else if ("fl32".equals(compression) || "FL32".equals(compression)) {
+                        encoding = AudioFormat.Encoding.PCM_FLOAT;
+                        bitsPerSample = 32;
+                    } else if ("fl64".equals(compression) || "FL64".equals(compression)) {
+                        encoding = AudioFormat.Encoding.PCM_FLOAT;
+                        bitsPerSample = 64;
+                    } else if ("ulaw".equals(compression) || "ULAW".equals(compression)) {
+                        encoding = AudioFormat.Encoding.ULAW;
+                        bitsPerSample = 8;
+                    } else if ("alaw".equals(compression) || "ALAW".equals(compression)) {
+                        encoding = AudioFormat.Encoding.ALAW;
+                        bitsPerSample = 8;
+                    } else if (!"NONE".equals(compression) && !"twos".equals(compression)) {
+                        return null;
+                    }
+                }
+                hasComm = true;
+            } else if ("SSND".equals(chunkId)) {
+                if (!hasComm || channels < 1 || bitsPerSample < 1) {
+                    return null;
+                }
+                final long offset = reader.read(body, 4, ByteOrder.BIG_ENDIAN).getInt(0) & 0xffffffffL;
+                final long dataStart = body + 8 + offset;
+                /* Samples are padded to whole bytes */
+                final int frameSize = channels * ((bitsPerSample + 7) / 8);
+                final long length = Math.max(0, Math.min(Math.min(chunkSize - 8 - offset,
+                    numFrames * frameSize), reader.m_size - dataStart));
+                final AudioFormat format = new AudioFormat(encoding,
+                    (float)sampleRate, bitsPerSample, channels, frameSize,
+                    (float)sampleRate, bigEndian);
+                return new FileHeader(isAifc ? AudioFileFormat.Type.AIFC : AudioFileFormat.Type.AIFF,
+                    format, dataStart, length);
+            }
+            pos = body + chunkSize + (chunkSize & 1);
+        }
+        return null;
+    }
+
+    /* Converts the 80 bit IEEE 754 extended precision number used by AIFF for the sample rate */
+    private static double readExtended(final ByteBuffer buf, final int pos) {
+        final int signAndExponent = buf.getShort(pos) & 0xffff;
+        final long mantissa = buf.getLong(pos + 2);
+        final int exponent = signAndExponent & 0x7fff;
+        if (exponent == 0 && mantissa == 0) {
+            return 0;
+        }
+        final double value = Math.scalb((double)(mantissa >>> 11), exponent - 16383 - 52);
+        return (signAndExponent & 0x8000) != 0 ? -value : value;
+    }
+
+    private static String readId(final ByteBuffer buf, final int pos) {
+        final byte[] id = new byte[4];
+        for (int i = 0; i < id.length; i++) {
+            id[i] = buf.get(pos + i);
+        }
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    /* Reads parts of the file, served from the head of the file if possible */
+    private static final class ChunkReader {
+
+        private final RandomAccessFile m_raf;
+
+        private final byte[] m_head;
+
+        private final long m_size;
+
+        ChunkReader(final RandomAccessFile raf, final byte[] head, final long size) {
+            m_raf = raf;
+            m_head = head;
+            m_size = size;
+        }
+
+        /* Returns the given range, bytes beyond the end of the file are zero */
+        ByteBuffer read(final long pos, final int length, final ByteOrder order) throws IOException {
+            if (pos + length <= m_head.length) {
+                return ByteBuffer.wrap(m_head, (int)pos, length).slice().order(order);
+            }
+            final byte[] buf = new byte[length];
+            if (pos < m_size) {
+                m_raf.seek(pos);
+                m_raf.readFully(buf, 0, (int)Math.min(length, m_size - pos));
+            }
+            return ByteBuffer.wrap(buf).order(order);
+        }
+    }
+
+}
@@ -120,7 +120,7 @@ public class AudioPlayer implements Runnable{
         if(!m_started){
             m_started = true;
             try {
-                AudioInputStream inStream = AudioSystem.getAudioInputStream(
+                AudioInputStream inStream = AudioUtils.getAudioInputStream(
                     m_audio.getFile());
                 inStream = AudioMethods.convertUnsupportedFormat(inStream);
                 openSourceDataLine();
@@ -197,9 +197,9 @@ public class AudioPlayer implements Runnable{
 
     private void openSourceDataLine() throws LineUnavailableException,
             UnsupportedAudioFileException, IOException{
-//        final AudioFormat audioFormat = m_audio.getAudioFileFormat().getFormat();
-        final AudioFormat audioFormat = AudioSystem.getAudioFileFormat(
-            m_audio.getFile()).getFormat();
+        final AudioFormat audioFormat = m_audio.getHeader() != null
+            ? m_audio.getHeader().getAudioFormat()
+            : AudioHeaderParser.getAudioFileFormat(m_audio.getFile()).getFormat();
         final DataLine.Info info = new DataLine.Info(SourceDataLine.class,
             audioFormat);
         m_line = (SourceDataLine) AudioSystem.getLine(info);
@@ -0,0 +1,574 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.knime.base.node.audio3.data.AudioSamples;
+import org.knime.base.node.audio3.data.SampleStore;
+import org.knime.base.node.audio3.data.io.MappedAudioFile;
+import org.knime.base.node.audio3.data.io.WaveWriter;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Process-wide cache of decoded audio samples, so that nodes working on the
+ * same audio files don't have to decode them again.
+ *
+ * Entries are identified by the path, size and modification time of the file.
+ * The cache consists of two tiers: an on-heap tier holding the raw PCM values
+ * or float samples, which is evicted in least recently used order once its
+ * byte budget is exceeded, and an on-disk tier to which the evicted entries
+ * are spilled as PCM or IEEE float WAV files. Spilled entries are read back
+ * through a {@link MappedAudioFile} without decoding them again. The spill
+ * files are written and mapped without holding the lock of the cache, an entry
+ * is served from the heap until its spill file has been published.
+ *
+ * The budgets can be set via the system properties {@value #HEAP_BUDGET_PROPERTY}
+ * and {@value #DISK_BUDGET_PROPERTY} (in bytes) or via the corresponding setters.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class AudioSampleCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(AudioSampleCache.class);
+
+    /** System property holding the byte budget of the heap tier */
+    public static final String HEAP_BUDGET_PROPERTY = "knime.audio.samplecache.heap";
+
+    /** System property holding the byte budget of the disk tier */
+    public static final String DISK_BUDGET_PROPERTY = "knime.audio.samplecache.disk";
+
+    private static final long DEF_HEAP_BUDGET = 128L * 1024 * 1024;
+
+    private static final long DEF_DISK_BUDGET = 1024L * 1024 * 1024;
+
+    private static final AudioSampleCache INSTANCE = new AudioSampleCache(
+        Long.getLong(HEAP_BUDGET_PROPERTY, DEF_HEAP_BUDGET),
+        Long.getLong(DISK_BUDGET_PROPERTY, DEF_DISK_BUDGET));
+
+    /* Access ordered, i.e. the first entry is the least recently used one */
+    private final LinkedHashMap<Key, HeapEntry> m_heapTier =
+            new LinkedHashMap<Key, HeapEntry>(16, 0.75f, true);
+
+    private final LinkedHashMap<Key, File> m_diskTier =
+            new LinkedHashMap<Key, File>(16, 0.75f, true);
+
+    /* Entries evicted from the heap tier whose spill files are being written */
+    private final Map<Key, HeapEntry> m_spilling = new HashMap<Key, HeapEntry>();
+
+    private long m_heapBudget;
+    private long m_diskBudget;
+    private long m_heapSize;
+    private long m_diskSize;
+
+    private long m_heapHits;
+    private long m_diskHits;
+    private long m_misses;
+    private long m_spills;
+    private long m_evictions;
+
+    private File m_spillDir;
+
+    private AudioSampleCache(final long heapBudget, final long diskBudget) {
+        m_heapBudget = heapBudget;
+        m_diskBudget = diskBudget;
+    }
+
+    /**
+     * @return the process-wide cache instance
+     */
+    public static AudioSampleCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached samples of the given file.
+     * @param file the audio file
+     * @return the cached samples or <code>null</code> if the file isn't cached
+     */
+    public AudioSamples get(final File file) {
+        final Key key = new Key(file);
+        final File spillFile;
+        synchronized (this) {
+            HeapEntry heapEntry = m_heapTier.get(key);
+            if (heapEntry == null) {
+                heapEntry = m_spilling.get(key);
+            }
+            if (heapEntry != null) {
+                m_heapHits++;
+                return new AudioSamples(heapEntry.createStore(), heapEntry.m_format);
+            }
+            spillFile = m_diskTier.get(key);
+            if (spillFile == null) {
+                m_misses++;
+                return null;
+            }
+        }
+        /* The spill file is mapped without holding the lock */
+        MappedAudioFile mappedFile = null;
+        try {
+            mappedFile = MappedAudioFile.open(spillFile);
+        } catch (IOException ex) {
+            LOGGER.debug("Could not read spilled samples of " + file + ": " + ex.getMessage());
+        }
+        synchronized (this) {
+            if (mappedFile != null) {
+                m_diskHits++;
+                return new AudioSamples(mappedFile);
+            }
+            if (m_diskTier.remove(key, spillFile)) {
+                m_diskSize -= spillFile.length();
+                deleteSpillFile(spillFile);
+            }
+            m_misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Puts the decoded samples of the given file into the cache. The arrays are
+     * not copied and must not be modified afterwards.
+     * @param file the audio file
+     * @param format the format of the samples
+     * @param samples the raw signed PCM values, indexed by [channel][sample]
+     * @param bitsPerSample the bit depth of the PCM values (8 or 16)
+     */
+    public void put(final File file, final AudioFormat format, final short[][] samples,
+            final int bitsPerSample) {
+        if (bitsPerSample != 8 && bitsPerSample != 16) {
+            throw new IllegalArgumentException("Only 8 or 16 bit samples can be cached as PCM values.");
+        }
+        put(new Key(file), new HeapEntry(format, samples, null, bitsPerSample));
+    }
+
+    /**
+     * Puts the decoded samples of the given file into the cache. The arrays are
+     * not copied and must not be modified afterwards.
+     * @param file the audio file
+     * @param format the format of the samples
+     * @param samples the normalized samples, indexed by [channel][sample]
+     */
+    public void put(final File file, final AudioFormat format, final float[][] samples) {
+        put(new Key(file), new HeapEntry(format, null, samples, 32));
+    }
+
+    private void put(final Key key, final HeapEntry entry) {
+        final List<Key> evicted = new ArrayList<Key>();
+        synchronized (this) {
+            final HeapEntry old = m_heapTier.put(key, entry);
+            if (old != null) {
+                m_heapSize -= old.m_sizeInBytes;
+            }
+            m_heapSize += entry.m_sizeInBytes;
+            /* A spill file of an older version of the entry is discarded when it is published */
+            m_spilling.remove(key);
+            removeFromDisk(key);
+            evictHeapTier(evicted);
+        }
+        spill(evicted);
+    }
+
+    /*
+     * Removes the least recently used entries from the heap tier until it fits into
+     * its budget. The keys of the entries to be spilled are added to the given list,
+     * their entries stay available until they have been spilled.
+     */
+    private void evictHeapTier(final List<Key> evicted) {
+        final Iterator<Map.Entry<Key, HeapEntry>> it = m_heapTier.entrySet().iterator();
+        while (m_heapSize > m_heapBudget && it.hasNext()) {
+            final Map.Entry<Key, HeapEntry> entry = it.next();
+            it.remove();
+            m_heapSize -= entry.getValue().m_sizeInBytes;
+            if (entry.getValue().m_sizeInBytes > m_diskBudget) {
+                m_evictions++;
+            } else {
+                m_spilling.put(entry.getKey(), entry.getValue());
+                evicted.add(entry.getKey());
+            }
+        }
+    }
+
+    /* Writes the spill files of the given entries without holding the lock and publishes them */
+    private void spill(final List<Key> evicted) {
+        for (final Key key : evicted) {
+            final HeapEntry entry;
+            synchronized (this) {
+                entry = m_spilling.get(key);
+            }
+            if (entry == null) {
+                continue;
+            }
+            File spillFile = null;
+            try {
+                spillFile = File.createTempFile("samples", ".wav", getSpillDir());
+                writeWave(spillFile, entry);
+            } catch (IOException ex) {
+                LOGGER.debug("Could not spill decoded samples to disk: " + ex.getMessage());
+                if (spillFile != null) {
+                    deleteSpillFile(spillFile);
+                    spillFile = null;
+                }
+            }
+            publish(key, entry, spillFile);
+        }
+    }
+
+    private synchronized void publish(final Key key, final HeapEntry entry, final File spillFile) {
+        if (!m_spilling.remove(key, entry)) {
+            /* The entry has been replaced or the cache has been cleared in the meantime */
+            if (spillFile != null) {
+                deleteSpillFile(spillFile);
+            }
+            return;
+        }
+        if (spillFile == null) {
+            m_evictions++;
+            return;
+        }
+        m_diskTier.put(key, spillFile);
+        m_diskSize += spillFile.length();
+        m_spills++;
+        evictDiskTier();
+    }
+
+    /* Deletes the least recently used spill files until the disk tier fits into its budget */
+    private void evictDiskTier() {
+        final Iterator<File> it = m_diskTier.values().iterator();
+        while (m_diskSize > m_diskBudget && it.hasNext()) {
+            final File spillFile = it.next();
+            it.remove();
+            m_diskSize -= spillFile.length();
+            deleteSpillFile(spillFile);
+            m_evictions++;
+        }
+    }
+
+    private void removeFromDisk(final Key key) {
+        final File spillFile = m_diskTier.remove(key);
+        if (spillFile != null) {
+            m_diskSize -= spillFile.length();
+            deleteSpillFile(spillFile);
+        }
+    }
+
+    private static void deleteSpillFile(final File spillFile) {
+        if (!spillFile.delete()) {
+            LOGGER.debug("Could not delete spilled samples " + spillFile);
+        }
+    }
+
+    private synchronized File getSpillDir() throws IOException {
+        if (m_spillDir == null) {
+            final File dir = new File(KNIMEConstants.getKNIMETempDir(), "audio-sample-cache");
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory " + dir);
+            }
+            /* One hook deletes the remaining spill files, evicted files are deleted right away */
+            Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    clear();
+                }
+            }, "Audio sample cache cleanup"));
+            m_spillDir = dir;
+        }
+        return m_spillDir;
+    }
+
+    /*
+     * Writes the samples as little-endian WAV file. 8 bit samples are stored unsigned,
+     * float samples are stored as 32 bit IEEE float.
+     */
+    private static void writeWave(final File file, final HeapEntry entry) throws IOException {
+        final int nrOfChannels = entry.getNumberOfChannels();
+        final int nrOfSamples = entry.getNumberOfSamples();
+        final int bytesPerSample = entry.m_bitsPerSample / 8;
+        final long dataSize = (long)nrOfSamples * nrOfChannels * bytesPerSample;
+        try (final OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            WaveWriter.writeHeader(out, entry.m_floats != null ? WaveWriter.WAVE_FORMAT_IEEE_FLOAT
+                : WaveWriter.WAVE_FORMAT_PCM, nrOfChannels, Math.round(entry.m_format.getSampleRate()),
+                entry.m_bitsPerSample, dataSize);
+            for (int i = 0; i < nrOfSamples; i++) {
+                for (int channel = 0; channel < nrOfChannels; channel++) {
+                    if (entry.m_floats != null) {
+                        WaveWriter.writeInt(out, Float.floatToIntBits(entry.m_floats[channel][i]));
+                    } else if (bytesPerSample == 1) {
+                        out.write(entry.m_shorts[channel][i] + 128);
+                    } else {
+                        WaveWriter.writeShort(out, entry.m_shorts[channel][i]);
+                    }
+                }
+            }
+            if ((dataSize & 1) != 0) {
+                out.write(0);
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache and deletes the spilled files.
+     */
+    public synchronized void clear() {
+        m_heapTier.clear();
+        m_heapSize = 0;
+        m_spilling.clear();
+        for (final File spillFile : m_diskTier.values()) {
+            deleteSpillFile(spillFile);
+        }
+        m_diskTier.clear();
+        m_diskSize = 0;
+    }
+
+    /**
+     * @param heapBudget the maximum number of bytes held by the heap tier
+     */
+    public void setHeapBudget(final long heapBudget) {
+        if (heapBudget < 0) {
+            throw new IllegalArgumentException("The budget must not be negative");
+        }
+        final List<Key> evicted = new ArrayList<Key>();
+        synchronized (this) {
+            m_heapBudget = heapBudget;
+            evictHeapTier(evicted);
+        }
+        spill(evicted);
+    }
+
+    /**
+     * @return the maximum number of bytes held by the heap tier
+     */
+    public synchronized long getHeapBudget() {
+        return m_heapBudget;
+    }
+
+    /**
+     * @param diskBudget the maximum number of bytes held by the disk tier
+     */
+    public synchronized void setDiskBudget(final long diskBudget) {
+        if (diskBudget < 0) {
+            throw new IllegalArgumentException("The budget must not be negative");
+        }
+        m_diskBudget = diskBudget;
+        evictDiskTier();
+    }
+
+    /**
+     * @return a snapshot of the cache statistics
+     */
+    public synchronized Statistics getStatistics() {
+        return new Statistics(m_heapHits, m_diskHits, m_misses, m_spills, m_evictions,
+            m_heapSize, m_diskSize);
+    }
+
+    /**
+     * Snapshot of the cache statistics.
+     */
+    public static final class Statistics {
+
+        private final long m_heapHits;
+        private final long m_diskHits;
+        private final long m_misses;
+        private final long m_spills;
+        private final long m_evictions;
+        private final long m_heapSize;
+        private final long m_diskSize;
+
+        private Statistics(final long heapHits, final long diskHits, final long misses,
+                final long spills, final long evictions, final long heapSize, final long diskSize) {
+            m_heapHits = heapHits;
+            m_diskHits = diskHits;
+            m_misses = misses;
+            m_spills = spills;
+            m_evictions = evictions;
+            m_heapSize = heapSize;
+            m_diskSize = diskSize;
+        }
+
+        /**
+         * @return the number of lookups served by the heap tier
+         */
+        public long getHeapHits() {
+            return m_heapHits;
+        }
+
+        /**
+         * @return the number of lookups served by the disk tier
+         */
+        public long getDiskHits() {
+            return m_diskHits;
+        }
+
+        /**
+         * @return the number of lookups that weren't served by the cache
+         */
+        public long getMisses() {
+            return m_misses;
+        }
+
+        /**
+         * @return the number of entries spilled from the heap tier to the disk tier
+         */
+        public long getSpills() {
+            return m_spills;
+        }
+
+        /**
+         * @return the number of entries dropped from the cache
+         */
+        public long getEvictions() {
+            return m_evictions;
+        }
+
+        /**
+         * @return the number of bytes held by the heap tier
+         */
+        public long getHeapSize() {
+            return m_heapSize;
+        }
+
+        /**
+         * @return the number of bytes held by the disk tier
+         */
+        public long getDiskSize() {
+            return m_diskSize;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return "heap hits: " + m_heapHits + ", disk hits: " + m_diskHits + ", misses: " + m_misses
+                    + ", spills: " + m_spills + ", evictions: " + m_evictions
+                    + ", heap size: " + m_heapSize + " bytes, disk size: " + m_diskSize + " bytes";
+        }
+    }
+
+    /* Either holds raw PCM values or normalized float samples */
+    private static final class HeapEntry {
+
+        private final AudioFormat m_format;
+        private final short[][] m_shorts;
+        private final float[][] m_floats;
+        private final int m_bitsPerSample;
+        private final long m_sizeInBytes;
+
+        HeapEntry(final AudioFormat format, final short[][] shorts, final float[][] floats,
+                final int bitsPerSample) {
+            m_format = format;
+            m_shorts = shorts;
+            m_floats = floats;
+            m_bitsPerSample = bitsPerSample;
+            m_sizeInBytes = (shorts != null ? 2L : 4L) * getNumberOfChannels() * getNumberOfSamples();
+        }
+
+        int getNumberOfChannels() {
+            return m_shorts != null ? m_shorts.length : m_floats.length;
+        }
+
+        int getNumberOfSamples() {
+            if (getNumberOfChannels() == 0) {
+                return 0;
+            }
+            return m_shorts != null ? m_shorts[0].length : m_floats[0].length;
+        }
+
+        SampleStore createStore() {
+            return m_shorts != null ? SampleStore.ofPCM(m_shorts, m_bitsPerSample)
+                : SampleStore.ofFloats(m_floats);
+        }
+    }
+
+    /* Identifies a file by its path, size and modification time */
+    private static final class Key {
+
+        private final String m_path;
+        private final long m_size;
+        private final long m_lastModified;
+
+        Key(final File file) {
+            final File absoluteFile = file.getAbsoluteFile();
+            m_path = absoluteFile.getPath();
+            m_size = absoluteFile.length();
+            m_lastModified = absoluteFile.lastModified();
+        }
+
+        @Override
+        public int hashCode() {
+            return m_path.hashCode() * 31 + Long.hashCode(m_size ^ m_lastModified);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key)obj;
+            return m_path.equals(other.m_path) && m_size == other.m_size
+                    && m_lastModified == other.m_lastModified;
+        }
+    }
+
+}
@@ -49,8 +49,11 @@
 package org.knime.base.node.audio3.util;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.sound.sampled.AudioFormat;
@@ -60,10 +63,13 @@ import javax.sound.sampled.UnsupportedAudioFileException;
 
 import org.knime.base.node.audio3.data.Audio;
 import org.knime.base.node.audio3.data.AudioSamples;
+import org.knime.base.node.audio3.data.SampleStore;
+import org.knime.base.node.audio3.data.io.MappedAudioFile;
+import org.knime.base.node.audio3.data.io.PCMDecoder;
+import org.knime.base.node.audio3.data.io.WaveWriter;
 import org.knime.core.node.NodeLogger;
 
 import jAudioFeatureExtractor.jAudioTools.AudioMethods;
-import jAudioFeatureExtractor.jAudioTools.DSPMethods;
 
 /**
  *
@@ -113,40 +119,30 @@ public class AudioUtils {
     }
 
     /**
-     * The {@link AudioInputStream} must have Big-Endian signed linear
-     * PCM Encoding and bit depth of 8 or 16 bits. If not, it will be converted
-     * automatically to the supported {@link AudioFormat}
+     * The {@link AudioInputStream} must contain PCM data that can be decoded by
+     * the {@link PCMDecoder}, i.e. signed or unsigned integer samples of up to
+     * 32 bits or floating point samples in any byte order. If not, e.g. for
+     * a-law, mu-law or compressed streams, it will be converted automatically
+     * to 16 bit signed big-endian PCM.
      * @param inStream the <code>AudioInputStream</code> to convert
      * @return a converted <code>AudioInputStream</code> if it is necessary,
      * otherwise returns the original <code>AudioInputStream</code>
      */
     public static AudioInputStream convertUnsupportedFormat(final AudioInputStream inStream){
-        AudioInputStream newStream = inStream;
         final AudioFormat inFormat = inStream.getFormat();
-        int bitsPerSample = inFormat.getSampleSizeInBits();
-        if(bitsPerSample > 16){
-            throw new IllegalArgumentException(
-                "The maximal bit depth supported is 16 bits.");
+        if(PCMDecoder.isSupported(inFormat)){
+            return inStream;
         }
-        boolean isSupportedBitsSize = true;
-        if(bitsPerSample != 8 && bitsPerSample != 16){
-            isSupportedBitsSize = false;
-        }
-
-        if(inFormat.getEncoding() != AudioFormat.Encoding.PCM_SIGNED
-                || !inFormat.isBigEndian() || !isSupportedBitsSize){
-            bitsPerSample = normalizeBitDepthFromBits(bitsPerSample);
-            final AudioFormat newFormat = new AudioFormat(
-                AudioFormat.Encoding.PCM_SIGNED,
-                inFormat.getSampleRate(),
-                bitsPerSample,
-                inFormat.getChannels(),
-                inFormat.getChannels() * (bitsPerSample / 8),
-                inFormat.getSampleRate(),
-                true);
-            newStream = AudioSystem.getAudioInputStream(newFormat, inStream);
-        }
-        return newStream;
+        final int bitsPerSample = 16;
+        final AudioFormat newFormat = new AudioFormat(
+            AudioFormat.Encoding.PCM_SIGNED,
+            inFormat.getSampleRate(),
+            bitsPerSample,
+            inFormat.getChannels(),
+            inFormat.getChannels() * (bitsPerSample / 8),
+            inFormat.getSampleRate(),
+            true);
+        return AudioSystem.getAudioInputStream(newFormat, inStream);
     }
 
     /**
@@ -304,26 +300,120 @@ public class AudioUtils {
        return samples;
    }
 
+   /**
+    * Opens an <code>AudioInputStream</code> on the given file. Uncompressed PCM
+    * WAV and AIFF files are read directly from a memory-mapped {@link MappedAudioFile},
+    * all other files are opened via {@link AudioSystem}.
+    * @param file the audio file
+    * @return the <code>AudioInputStream</code> of the file
+    * @throws UnsupportedAudioFileException
+    * @throws IOException
+    */
+   public static AudioInputStream getAudioInputStream(final File file) throws UnsupportedAudioFileException, IOException{
+       final MappedAudioFile mappedFile = MappedAudioFile.open(file);
+       if(mappedFile != null){
+           return mappedFile.getAudioInputStream();
+       }
+       return AudioSystem.getAudioInputStream(file);
+   }
+
+   /**
+    * Returns the sample rate of the given audio without decoding it. The rate is
+    * taken from the stored header of the audio or read from the header of the file.
+    * @param audio the audio
+    * @return the number of samples per second
+    * @throws UnsupportedAudioFileException
+    * @throws IOException
+    */
+   public static float getSampleRate(final Audio audio) throws UnsupportedAudioFileException, IOException{
+       if(audio.getHeader() != null){
+           return audio.getHeader().getSampleRate();
+       }
+       return AudioHeaderParser.getAudioFileFormat(audio.getFile()).getFormat().getSampleRate();
+   }
+
+   /**
+    * Uncompressed PCM WAV and AIFF files are read directly from a memory-mapped
+    * {@link MappedAudioFile} and decoded lazily, all other files are decoded
+    * via {@link AudioSystem} and kept in the {@link AudioSampleCache}.
+    * @param audio
+    * @return the samples of the audio
+    * @throws UnsupportedAudioFileException
+    * @throws IOException
+    */
    public static AudioSamples getAudioSamples(final Audio audio) throws UnsupportedAudioFileException, IOException{
+       final MappedAudioFile mappedFile = MappedAudioFile.open(audio.getFile());
+       if(mappedFile != null){
+           return new AudioSamples(mappedFile);
+       }
+       final AudioSamples cachedSamples = AudioSampleCache.getInstance().get(audio.getFile());
+       if(cachedSamples != null){
+           return cachedSamples;
+       }
        final AudioInputStream originalStream = AudioSystem.getAudioInputStream(
            audio.getFile());
-       AudioInputStream convertedStream = AudioMethods.getConvertedAudioStream(originalStream);
-       final AudioFormat audioFormat = convertedStream.getFormat();
-       double[][] channelSamples = null;
-
-       try{
-           channelSamples = AudioMethods.extractSampleValues(convertedStream);
-       } catch(Exception ex){
-           LOGGER.error(ex.getMessage());
+       try(final AudioInputStream convertedStream = convertUnsupportedFormat(originalStream)){
+           return readSamples(audio.getFile(), convertedStream);
+       } finally {
+           originalStream.close();
        }
+   }
 
-       originalStream.close();
-       convertedStream.close();
-
-       if(channelSamples == null){
-           return null;
+   /*
+    * Decodes the whole stream into a compact store and puts it into the cache. Integer
+    * samples of up to 16 bits are kept as shorts, all others as floats.
+    */
+   private static AudioSamples readSamples(final File file, final AudioInputStream inStream) throws IOException{
+       final AudioFormat format = inStream.getFormat();
+       final PCMDecoder decoder = new PCMDecoder(format);
+       final ByteBuffer buf = ByteBuffer.wrap(new byte[4096 * decoder.getFrameSize()]);
+       final int frameSize = decoder.getFrameSize();
+       final int nrOfChannels = format.getChannels();
+       final boolean asShorts = decoder.isShortCompatible();
+       final long frameLength = inStream.getFrameLength();
+       int capacity = (frameLength > 0 && frameLength < Integer.MAX_VALUE) ? (int)frameLength : 65536;
+       short[][] shorts = asShorts ? new short[nrOfChannels][capacity] : null;
+       float[][] floats = asShorts ? null : new float[nrOfChannels][capacity];
+       int nrOfFrames = 0;
+       int leftOver = 0;
+       int bytesRead;
+       while((bytesRead = inStream.read(buf.array(), leftOver, buf.capacity() - leftOver)) >= 0){
+           final int available = leftOver + bytesRead;
+           final int framesRead = available / frameSize;
+           if(nrOfFrames + framesRead > capacity){
+               capacity = Math.max(capacity * 2, nrOfFrames + framesRead);
+               for(int channel = 0; channel < nrOfChannels; channel++){
+                   if(asShorts){
+                       shorts[channel] = Arrays.copyOf(shorts[channel], capacity);
+                   }else{
+                       floats[channel] = Arrays.copyOf(floats[channel], capacity);
+                   }
+               }
+           }
+           if(asShorts){
+               decoder.decodeRaw(buf, 0, shorts, nrOfFrames, framesRead);
+           }else{
+               decoder.decode(buf, 0, floats, nrOfFrames, framesRead);
+           }
+           nrOfFrames += framesRead;
+           leftOver = available - framesRead * frameSize;
+           System.arraycopy(buf.array(), framesRead * frameSize, buf.array(), 0, leftOver);
+       }
+       for(int channel = 0; channel < nrOfChannels && nrOfFrames != capacity; channel++){
+           if(asShorts){
+               shorts[channel] = Arrays.copyOf(shorts[channel], nrOfFrames);
+           }else{
+               floats[channel] = Arrays.copyOf(floats[channel], nrOfFrames);
+           }
+       }
+       final AudioSampleCache cache = AudioSampleCache.getInstance();
+       if(asShorts){
+           final int bitsPerSample = normalizeBitDepthFromBits(format.getSampleSizeInBits());
+           cache.put(file, format, shorts, bitsPerSample);
+           return new AudioSamples(SampleStore.ofPCM(shorts, bitsPerSample), format);
        }
-       return new AudioSamples(channelSamples, audioFormat);
+       cache.put(file, format, floats);
+       return new AudioSamples(SampleStore.ofFloats(floats), format);
    }
 
    /**
@@ -336,24 +426,7 @@ public class AudioUtils {
     * @throws IOException
     */
    public static double[][] getSamples(final Audio audio) throws UnsupportedAudioFileException, IOException{
-       final AudioInputStream originalStream = AudioSystem.getAudioInputStream(
-           audio.getFile());
-       AudioInputStream convertedStream = AudioMethods.getConvertedAudioStream(originalStream);
-
-       double[][] channelSamples = null;
-       try{
-           channelSamples = AudioMethods.extractSampleValues(convertedStream);
-       } catch(Exception ex){
-           LOGGER.error(ex.getMessage());
-       }
-
-       originalStream.close();
-
-       if(convertedStream != null){
-           convertedStream.close();
-       }
-
-       return channelSamples;
+       return getAudioSamples(audio).getSamples();
    }
 
    /**
@@ -365,8 +438,33 @@ public class AudioUtils {
     */
    public static double[] getSamplesMixedDownIntoOneChannel(
            final Audio audio) throws UnsupportedAudioFileException, IOException {
-       final double[][] samples = getSamples(audio);
-       return DSPMethods.getSamplesMixedDownIntoOneChannel(samples);
+       return getAudioSamples(audio).getSamplesMixedDownIntoOneChannel();
+   }
+
+   /**
+    * Encodes the samples of the given audio as 16 bit PCM WAVE file.
+    * @param audio the audio
+    * @param sampleRate the sample rate of the WAVE file in Hz, or 0 to keep
+    * the original sample rate
+    * @param mixDown <code>true</code> if the channels should be mixed down into one channel
+    * @return the bytes of the WAVE file
+    * @throws UnsupportedAudioFileException
+    * @throws IOException
+    */
+   public static byte[] getWaveBytes(final Audio audio, final int sampleRate,
+           final boolean mixDown) throws UnsupportedAudioFileException, IOException {
+       if(sampleRate < 0){
+           throw new IllegalArgumentException("Sample rate must not be negative: " + sampleRate);
+       }
+       AudioSamples samples = getAudioSamples(audio);
+       if(sampleRate > 0){
+           samples = samples.resample(sampleRate);
+       }
+       final int nrOfChannels = mixDown ? 1 : samples.getNumberOfChannels();
+       final ByteArrayOutputStream out = new ByteArrayOutputStream(
+           44 + 2 * nrOfChannels * samples.getNumberOfSamples());
+       WaveWriter.write16BitPCM(out, samples, mixDown);
+       return out.toByteArray();
    }
 
    /**
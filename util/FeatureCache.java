@@ -0,0 +1,515 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Process-wide persistent cache of extracted features, so that re-executing a
+ * node only extracts the features of new or modified audio files.
+ *
+ * Entries are identified by a digest of the path, size and modification time
+ * of the file together with a description of everything else the features
+ * depend on, e.g. feature types, parameters, window size and aggregators. The
+ * entries are appended to a single file, which is read through a memory mapping.
+ * Once the file exceeds its byte budget, the least recently used entries are
+ * evicted and the remaining ones are copied into a new file.
+ *
+ * The directory and the budget can be set via the system properties
+ * {@value #DIRECTORY_PROPERTY} and {@value #BUDGET_PROPERTY} (in bytes) or via
+ * the corresponding setter.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class FeatureCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(FeatureCache.class);
+
+    /** System property holding the directory of the cache */
+    public static final String DIRECTORY_PROPERTY = "knime.audio.featurecache.dir";
+
+    /** System property holding the byte budget of the cache */
+    public static final String BUDGET_PROPERTY = "knime.audio.featurecache.size";
+
+    private static final long DEF_BUDGET = 256L * 1024 * 1024;
+
+    /* Mapped buffers are limited to 2GB */
+    private static final long MAX_BUDGET = Integer.MAX_VALUE;
+
+    private static final String FILE_PREFIX = "features-";
+
+    private static final String FILE_SUFFIX = ".dat";
+
+    private static final int MAGIC = 0x4B464331;
+
+    /* Hex digest of SHA-256 */
+    private static final int KEY_LENGTH = 64;
+
+    /* Magic, body length and checksum */
+    private static final int RECORD_OVERHEAD = 12;
+
+    private static final FeatureCache INSTANCE = new FeatureCache(
+        Math.min(MAX_BUDGET, Long.getLong(BUDGET_PROPERTY, DEF_BUDGET)));
+
+    /* Access ordered, i.e. the first entry is the least recently used one */
+    private final LinkedHashMap<String, Entry> m_index = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private long m_budget;
+
+    private long m_liveSize;
+
+    private long m_fileSize;
+
+    private boolean m_opened;
+
+    private File m_file;
+
+    private int m_generation;
+
+    private RandomAccessFile m_raf;
+
+    private MappedByteBuffer m_map;
+
+    private long m_hits;
+    private long m_misses;
+    private long m_evictions;
+
+    /* Position and length of the body of a record */
+    private static final class Entry {
+
+        private final long m_offset;
+        private final int m_length;
+
+        Entry(final long offset, final int length) {
+            m_offset = offset;
+            m_length = length;
+        }
+
+        long getRecordSize() {
+            return m_length + RECORD_OVERHEAD;
+        }
+    }
+
+    private FeatureCache(final long budget) {
+        m_budget = budget;
+    }
+
+    /**
+     * @return the process-wide cache instance
+     */
+    public static FeatureCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates the key of the features of the given file.
+     *
+     * @param file the audio file
+     * @param configuration everything else the features depend on
+     * @return the key or <code>null</code> if the file doesn't exist
+     */
+    public static String createKey(final File file, final String configuration) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        final File absoluteFile = file.getAbsoluteFile();
+        final String description = absoluteFile.getPath() + '\n' + absoluteFile.length() + '\n'
+                + absoluteFile.lastModified() + '\n' + configuration;
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(description.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder key = new StringBuilder(KEY_LENGTH);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /**
+     * Returns the cached features of the given key.
+     *
+     * @param key the key created by {@link #createKey(File, String)}
+     * @return the cached features or <code>null</code> if they aren't cached
+     */
+    public synchronized double[][] get(final String key) {
+        final Entry entry = open() ? m_index.get(key) : null;
+        if (entry == null) {
+            m_misses++;
+            return null;
+        }
+        try {
+            if (m_map == null || entry.m_offset + entry.m_length > m_map.capacity()) {
+                m_map = m_raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, m_fileSize);
+            }
+            final ByteBuffer buffer = m_map.duplicate();
+            buffer.position((int)entry.m_offset + KEY_LENGTH);
+            final double[][] values = new double[buffer.getInt()][];
+            for (int i = 0; i < values.length; i++) {
+                final int length = buffer.getInt();
+                if (length >= 0) {
+                    values[i] = new double[length];
+                    buffer.asDoubleBuffer().get(values[i]);
+                    buffer.position(buffer.position() + 8 * length);
+                }
+            }
+            m_hits++;
+            return values;
+        } catch (IOException | RuntimeException ex) {
+            LOGGER.debug("Could not read cached features: " + ex.getMessage());
+            remove(key);
+            m_misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Puts the given features into the cache.
+     *
+     * @param key the key created by {@link #createKey(File, String)}
+     * @param values the features, single arrays may be <code>null</code>
+     */
+    public synchronized void put(final String key, final double[][] values) {
+        if (key.length() != KEY_LENGTH || !open()) {
+            return;
+        }
+        int bodyLength = KEY_LENGTH + 4;
+        for (double[] array : values) {
+            bodyLength += 4 + (array == null ? 0 : 8 * array.length);
+        }
+        if (bodyLength + RECORD_OVERHEAD > m_budget) {
+            return;
+        }
+        final ByteBuffer record = ByteBuffer.allocate(bodyLength + RECORD_OVERHEAD);
+        record.putInt(MAGIC).putInt(bodyLength);
+        record.put(key.getBytes(StandardCharsets.US_ASCII));
+        record.putInt(values.length);
+        for (double[] array : values) {
+            record.putInt(array == null ? -1 : array.length);
+            if (array != null) {
+                for (double value : array) {
+                    record.putDouble(value);
+                }
+            }
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(record.array(), 8, bodyLength);
+        record.putInt((int)crc.getValue());
+        record.flip();
+        try {
+            final long position = m_fileSize;
+            writeFully(m_raf.getChannel(), record, position);
+            m_fileSize += record.limit();
+            remove(key);
+            m_index.put(key, new Entry(position + 8, bodyLength));
+            m_liveSize += bodyLength + RECORD_OVERHEAD;
+        } catch (IOException ex) {
+            LOGGER.debug("Could not write features to the cache: " + ex.getMessage());
+            return;
+        }
+        if (m_fileSize > m_budget) {
+            evict(m_budget / 4 * 3);
+        }
+    }
+
+    private void remove(final String key) {
+        final Entry old = m_index.remove(key);
+        if (old != null) {
+            m_liveSize -= old.getRecordSize();
+        }
+    }
+
+    /* Evicts the least recently used entries until the remaining ones fit into
+     * the given size and copies them into a new file */
+    private void evict(final long size) {
+        final Iterator<Entry> it = m_index.values().iterator();
+        while (m_liveSize > size && it.hasNext()) {
+            m_liveSize -= it.next().getRecordSize();
+            it.remove();
+            m_evictions++;
+        }
+        final File oldFile = m_file;
+        final RandomAccessFile oldRaf = m_raf;
+        RandomAccessFile raf = null;
+        try {
+            final File file = new File(oldFile.getParentFile(), FILE_PREFIX + (m_generation + 1) + FILE_SUFFIX);
+            raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);
+            final FileChannel source = oldRaf.getChannel();
+            final FileChannel target = raf.getChannel();
+            final Map<String, Entry> index = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+            long position = 0;
+            /* The least recently used entries come first, as after opening the file again */
+            for (Map.Entry<String, Entry> e : m_index.entrySet()) {
+                final Entry entry = e.getValue();
+                final long recordOffset = entry.m_offset - 8;
+                final long recordSize = entry.getRecordSize();
+                long transferred = 0;
+                while (transferred < recordSize) {
+                    final long count = source.transferTo(recordOffset + transferred,
+                        recordSize - transferred, target);
+                    if (count <= 0) {
+                        throw new IOException("Unexpected end of the feature cache");
+                    }
+                    transferred += count;
+                }
+                index.put(e.getKey(), new Entry(position + 8, entry.m_length));
+                position += recordSize;
+            }
+            m_index.clear();
+            m_index.putAll(index);
+            m_file = file;
+            m_generation++;
+            m_raf = raf;
+            m_map = null;
+            m_fileSize = position;
+            m_liveSize = position;
+            closeQuietly(oldRaf);
+            /* Files still mapped can't be deleted on every platform, they are deleted when opened next */
+            if (!oldFile.delete()) {
+                oldFile.deleteOnExit();
+            }
+        } catch (IOException ex) {
+            LOGGER.debug("Could not compact the feature cache: " + ex.getMessage());
+            if (raf != null && raf != m_raf) {
+                closeQuietly(raf);
+            }
+        }
+    }
+
+    /* Opens the newest file of the cache directory the first time the cache is used */
+    private boolean open() {
+        if (m_opened) {
+            return m_raf != null;
+        }
+        m_opened = true;
+        try {
+            final File dir = getDirectory();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory " + dir);
+            }
+            final File[] files = dir.listFiles(new FileFilter() {
+                @Override
+                public boolean accept(final File file) {
+                    return getGeneration(file) >= 0;
+                }
+            });
+            File newest = null;
+            for (File file : files == null ? new File[0] : files) {
+                if (newest == null || getGeneration(file) > getGeneration(newest)) {
+                    newest = file;
+                }
+            }
+            for (File file : files == null ? new File[0] : files) {
+                if (file != newest && !file.delete()) {
+                    LOGGER.debug("Could not delete old feature cache file " + file);
+                }
+            }
+            if (newest == null) {
+                m_generation = 0;
+                newest = new File(dir, FILE_PREFIX + 0 + FILE_SUFFIX);
+            } else {
+                m_generation = getGeneration(newest);
+            }
+            m_file = newest;
+            m_raf = new RandomAccessFile(newest, "rw");
+            load();
+            LOGGER.debug("Opened feature cache " + m_file + " with " + m_index.size() + " entries");
+            if (m_fileSize > m_budget) {
+                evict(m_budget / 4 * 3);
+            }
+            return true;
+        } catch (IOException ex) {
+            LOGGER.warn("The feature cache is not available: " + ex.getMessage());
+            closeQuietly(m_raf);
+            m_raf = null;
+            return false;
+        }
+    }
+
+    /* Reads the index of the records, a damaged tail of the file is cut off */
+    private void load() throws IOException {
+        final FileChannel channel = m_raf.getChannel();
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(8);
+        final CRC32 crc = new CRC32();
+        long position = 0;
+        while (position + RECORD_OVERHEAD + KEY_LENGTH + 4 <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            final int magic = header.getInt();
+            final int bodyLength = header.getInt();
+            if (magic != MAGIC || bodyLength < KEY_LENGTH + 4
+                    || position + RECORD_OVERHEAD + bodyLength > size) {
+                break;
+            }
+            final ByteBuffer body = ByteBuffer.allocate(bodyLength + 4);
+            readFully(channel, body, position + 8);
+            crc.reset();
+            crc.update(body.array(), 0, bodyLength);
+            body.position(bodyLength);
+            if (body.getInt() != (int)crc.getValue()) {
+                break;
+            }
+            final String key = new String(body.array(), 0, KEY_LENGTH, StandardCharsets.US_ASCII);
+            remove(key);
+            m_index.put(key, new Entry(position + 8, bodyLength));
+            m_liveSize += bodyLength + RECORD_OVERHEAD;
+            position += bodyLength + RECORD_OVERHEAD;
+        }
+        if (position < size) {
+            LOGGER.debug("Cut off " + (size - position) + " damaged bytes of the feature cache");
+            channel.truncate(position);
+        }
+        m_fileSize = position;
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, pos);
+            if (read < 0) {
+                throw new IOException("Unexpected end of the feature cache");
+            }
+            pos += read;
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position)
+            throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+    }
+
+    private static int getGeneration(final File file) {
+        final String name = file.getName();
+        if (!file.isFile() || !name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    private static File getDirectory() {
+        final String dir = System.getProperty(DIRECTORY_PROPERTY);
+        if (dir != null && !dir.trim().isEmpty()) {
+            return new File(dir);
+        }
+        return new File(KNIMEConstants.getKNIMETempDir(), "audio-feature-cache");
+    }
+
+    private static void closeQuietly(final RandomAccessFile raf) {
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (IOException ex) {
+                LOGGER.debug("Could not close the feature cache: " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes all entries from the cache.
+     */
+    public synchronized void clear() {
+        if (!open()) {
+            return;
+        }
+        m_index.clear();
+        m_liveSize = 0;
+        evict(0);
+    }
+
+    /**
+     * @param budget the maximum number of bytes of the cache file, at most 2GB
+     */
+    public synchronized void setBudget(final long budget) {
+        if (budget < 0 || budget > MAX_BUDGET) {
+            throw new IllegalArgumentException("The budget must be between 0 and " + MAX_BUDGET);
+        }
+        m_budget = budget;
+        if (open() && m_fileSize > m_budget) {
+            evict(m_budget / 4 * 3);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        return "entries: " + m_index.size() + ", hits: " + m_hits + ", misses: " + m_misses
+                + ", evictions: " + m_evictions + ", size: " + m_fileSize + " bytes";
+    }
+}
@@ -134,7 +134,8 @@ public class MathUtils {
             avg /= count;
             for(int row = 0; row < values.length; row++){
                 if((values[row] != null) && (values[row].length > col)){
-                    result[col] += Math.pow(values[row][col] - avg, 2);
+                    final double diff = values[row][col] - avg;
+                    result[col] += diff * diff;
                 }
             }
             result[col] = Math.sqrt(result[col] / (count - 1));
@@ -0,0 +1,311 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.util.Arrays;
+
+/**
+ * Streaming sample rate converter for one channel based on a Kaiser windowed
+ * sinc filter, evaluated as polyphase filter bank for the rational ratio
+ * between the two sample rates. If the ratio needs more phases than are
+ * precomputed, the coefficients are linearly interpolated between a fixed
+ * table of evenly spaced phases.
+ *
+ * When downsampling, the cut-off frequency of the filter is lowered to the
+ * Nyquist frequency of the target rate, so no aliasing is introduced. The
+ * filter has unity gain at DC.
+ *
+ * Samples are passed in via {@link #write(double[], int, int)} and the
+ * resampled ones are fetched via {@link #read(double[], int, int)}; after the
+ * last input {@link #endOfInput()} must be called to flush the filter. For
+ * whole arrays use {@link #resample(double[], int, int)}.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class Resampler {
+
+    /** Number of zero crossings of the sinc on each side of the filter center */
+    private static final int ZERO_CROSSINGS = 16;
+
+    /** Fraction of the Nyquist frequency that is passed */
+    private static final double ROLLOFF = 0.95;
+
+    /** Kaiser window parameter, gives about 80 dB stop band attenuation */
+    private static final double KAISER_BETA = 8.0;
+
+    /** Maximum number of phases for which the filter coefficients are precomputed */
+    private static final int MAX_TABLE_PHASES = 4096;
+
+    /* Normalization of the Kaiser window */
+    private static final double KAISER_NORM = besselI0(KAISER_BETA);
+
+    /* Upsampling factor L and downsampling factor M of the ratio L/M */
+    private final int m_up;
+    private final int m_down;
+
+    private final double m_cutoff;
+
+    /* Number of input samples on each side of the filter center */
+    private final int m_halfWidth;
+
+    /* Filter coefficients indexed by [phase][tap], either of all L phases or of
+     * MAX_TABLE_PHASES + 1 evenly spaced phases between 0 and 1 to interpolate */
+    private final double[][] m_table;
+
+    private final boolean m_interpolated;
+
+    /* Input samples still needed, m_buffer[0] has the absolute index m_bufferStart */
+    private double[] m_buffer;
+    private int m_bufferLength;
+    private long m_bufferStart;
+
+    private long m_inputCount;
+    private long m_outputIndex;
+    private boolean m_endOfInput;
+
+    /**
+     * @param inputRate the sample rate of the input in Hz
+     * @param outputRate the sample rate of the output in Hz
+     */
+    public Resampler(final int inputRate, final int outputRate) {
+        if (inputRate < 1 || outputRate < 1) {
+            throw new IllegalArgumentException("Sample rates must be positive");
+        }
+        final int gcd = gcd(inputRate, outputRate);
+        m_up = outputRate / gcd;
+        m_down = inputRate / gcd;
+        m_cutoff = Math.min(1.0, (double)m_up / m_down) * ROLLOFF;
+        m_halfWidth = (int)Math.ceil(ZERO_CROSSINGS / m_cutoff);
+        m_interpolated = m_up > MAX_TABLE_PHASES;
+        final int tablePhases = m_interpolated ? MAX_TABLE_PHASES : m_up;
+        m_table = new double[m_interpolated ? tablePhases + 1 : tablePhases][2 * m_halfWidth];
+        for (int phase = 0; phase < m_table.length; phase++) {
+            computeCoefficients((double)phase / tablePhases, m_table[phase]);
+        }
+        m_buffer = new double[4 * m_halfWidth + 1024];
+        /* The filter starts centered on the first sample with zeros before it */
+        m_bufferStart = -(m_halfWidth - 1);
+        m_bufferLength = m_halfWidth - 1;
+        m_inputCount = 0;
+        m_outputIndex = 0;
+        m_endOfInput = false;
+    }
+
+    private static int gcd(final int a, final int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /*
+     * The output sample at input time i + frac is the sum of x[i + j] * h(frac - j)
+     * for j in [-(halfWidth - 1), halfWidth], with frac = phase / L.
+     */
+    private void computeCoefficients(final double frac, final double[] coefficients) {
+        for (int tap = 0; tap < coefficients.length; tap++) {
+            final int j = tap - (m_halfWidth - 1);
+            coefficients[tap] = kernel(frac - j);
+        }
+    }
+
+    private double kernel(final double distance) {
+        final double ratio = distance / m_halfWidth;
+        if (ratio <= -1 || ratio >= 1) {
+            return 0;
+        }
+        final double x = m_cutoff * distance;
+        final double sinc = x == 0 ? 1.0 : Math.sin(Math.PI * x) / (Math.PI * x);
+        final double window = besselI0(KAISER_BETA * Math.sqrt(1 - ratio * ratio)) / KAISER_NORM;
+        return m_cutoff * sinc * window;
+    }
+
+    /* Zeroth order modified Bessel function of the first kind */
+    private static double besselI0(final double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        final double halfX = x / 2;
+        for (int k = 1; k < 50; k++) {
+            term *= (halfX / k) * (halfX / k);
+            sum += term;
+            if (term < sum * 1e-12) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return the ratio between the output and the input sample rate
+     */
+    public double getRatio() {
+        return (double)m_up / m_down;
+    }
+
+    /**
+     * @param nrOfInputSamples the number of input samples
+     * @return the number of output samples produced for the given number of input samples
+     */
+    public long getOutputLength(final long nrOfInputSamples) {
+        if (nrOfInputSamples <= 0) {
+            return 0;
+        }
+        return (nrOfInputSamples * m_up - 1) / m_down + 1;
+    }
+
+    /**
+     * Passes input samples to the resampler.
+     * @param in the input samples
+     * @param offset the position of the first sample in the array
+     * @param length the number of samples
+     */
+    public void write(final double[] in, final int offset, final int length) {
+        if (m_endOfInput) {
+            throw new IllegalStateException("The end of the input has already been signaled");
+        }
+        if (m_bufferLength + length > m_buffer.length) {
+            m_buffer = Arrays.copyOf(m_buffer, Math.max(m_buffer.length * 2, m_bufferLength + length));
+        }
+        System.arraycopy(in, offset, m_buffer, m_bufferLength, length);
+        m_bufferLength += length;
+        m_inputCount += length;
+    }
+
+    /**
+     * Signals that no more input follows, so the remaining output samples can
+     * be computed with zeros beyond the end of the input.
+     */
+    public void endOfInput() {
+        m_endOfInput = true;
+    }
+
+    /**
+     * Computes as many output samples as possible from the input passed so far.
+     * @param out the array to write the output samples to
+     * @param offset the position in the array to start writing
+     * @param length the maximum number of output samples
+     * @return the number of output samples written or -1 if the end of the
+     * input has been signaled and all output samples have been returned
+     */
+    public int read(final double[] out, final int offset, final int length) {
+        final long totalOutput = m_endOfInput ? getOutputLength(m_inputCount) : Long.MAX_VALUE;
+        if (m_outputIndex >= totalOutput) {
+            return -1;
+        }
+        final int taps = 2 * m_halfWidth;
+        int produced = 0;
+        while (produced < length && m_outputIndex < totalOutput) {
+            final long position = m_outputIndex * m_down;
+            final long center = position / m_up;
+            final int phase = (int)(position % m_up);
+            final long first = center - (m_halfWidth - 1);
+            final long last = center + m_halfWidth;
+            if (!m_endOfInput && last >= m_bufferStart + m_bufferLength) {
+                /* Not enough input yet */
+                break;
+            }
+            final int start = (int)(first - m_bufferStart);
+            final int available = Math.min(taps, m_bufferLength - start);
+            if (m_interpolated) {
+                /* Filtering is linear, so the outputs of the neighbouring phases are interpolated */
+                final double tablePosition = (double)phase * MAX_TABLE_PHASES / m_up;
+                final int tablePhase = (int)tablePosition;
+                final double lower = filter(m_table[tablePhase], start, available);
+                final double upper = filter(m_table[tablePhase + 1], start, available);
+                out[offset + produced] = lower + (tablePosition - tablePhase) * (upper - lower);
+            } else {
+                out[offset + produced] = filter(m_table[phase], start, available);
+            }
+            produced++;
+            m_outputIndex++;
+        }
+        discardConsumedInput();
+        return produced;
+    }
+
+    private double filter(final double[] coefficients, final int start, final int taps) {
+        double sum = 0;
+        for (int tap = 0; tap < taps; tap++) {
+            sum += coefficients[tap] * m_buffer[start + tap];
+        }
+        return sum;
+    }
+
+    /* Drops the input samples that aren't needed for the next output sample anymore */
+    private void discardConsumedInput() {
+        final long nextFirst = (m_outputIndex * m_down) / m_up - (m_halfWidth - 1);
+        final int consumed = (int)Math.max(0, Math.min(m_bufferLength, nextFirst - m_bufferStart));
+        if (consumed > 0) {
+            System.arraycopy(m_buffer, consumed, m_buffer, 0, m_bufferLength - consumed);
+            m_bufferLength -= consumed;
+            m_bufferStart += consumed;
+        }
+    }
+
+    /**
+     * Resamples the given samples.
+     * @param samples the samples to resample
+     * @param inputRate the sample rate of the samples in Hz
+     * @param outputRate the target sample rate in Hz
+     * @return the resampled samples
+     */
+    public static double[] resample(final double[] samples, final int inputRate, final int outputRate) {
+        if (inputRate == outputRate) {
+            return samples.clone();
+        }
+        final Resampler resampler = new Resampler(inputRate, outputRate);
+        final double[] out = new double[(int)resampler.getOutputLength(samples.length)];
+        resampler.write(samples, 0, samples.length);
+        resampler.endOfInput();
+        int pos = 0;
+        int read;
+        while (pos < out.length && (read = resampler.read(out, pos, out.length - pos)) > 0) {
+            pos += read;
+        }
+        return out;
+    }
+
+}
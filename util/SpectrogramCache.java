@@ -0,0 +1,278 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.knime.base.node.audio3.data.io.MappedSpectrogram;
+import org.knime.core.node.KNIMEConstants;
+import org.knime.core.node.NodeLogger;
+
+/**
+ * Process-wide persistent store of the power spectra of audio files, so
+ * that the short-time Fourier transform of a file is computed once per window
+ * size, overlap and sample rate and then shared by all spectral features.
+ *
+ * Every spectrogram is kept in its own file named after a digest of the path
+ * of the audio file and of the configuration of the windows. The size and the
+ * modification time of the audio file are stored with the frames, so that
+ * spectrograms of modified files are discarded. Once the files exceed the byte
+ * budget, the least recently used ones are deleted.
+ *
+ * The directory and the budget can be set via the system properties
+ * {@value #DIRECTORY_PROPERTY} and {@value #BUDGET_PROPERTY} (in bytes) or via
+ * the corresponding setter.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public final class SpectrogramCache {
+
+    private static final NodeLogger LOGGER = NodeLogger.getLogger(SpectrogramCache.class);
+
+    /** System property holding the directory of the cache */
+    public static final String DIRECTORY_PROPERTY = "knime.audio.stftcache.dir";
+
+    /** System property holding the byte budget of the cache */
+    public static final String BUDGET_PROPERTY = "knime.audio.stftcache.size";
+
+    private static final long DEF_BUDGET = 1024L * 1024 * 1024;
+
+    private static final String FILE_SUFFIX = ".stft";
+
+    private static final SpectrogramCache INSTANCE = new SpectrogramCache(
+        Long.getLong(BUDGET_PROPERTY, DEF_BUDGET));
+
+    private long m_budget;
+
+    private long m_hits;
+    private long m_misses;
+    private long m_evictions;
+
+    private SpectrogramCache(final long budget) {
+        m_budget = budget;
+    }
+
+    /**
+     * @return the process-wide cache instance
+     */
+    public static SpectrogramCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the cached spectrogram of the given audio file.
+     *
+     * @param source the audio file
+     * @param configuration the description of the windows, e.g. size, overlap
+     * and sample rate
+     * @return the spectrogram or <code>null</code> if it isn't cached or the
+     * audio file has been modified since
+     */
+    public synchronized MappedSpectrogram get(final File source, final String configuration) {
+        final File file = getFile(source, configuration);
+        if (file == null || !file.isFile()) {
+            m_misses++;
+            return null;
+        }
+        try {
+            final MappedSpectrogram spectrogram = MappedSpectrogram.open(file);
+            if (!spectrogram.isUpToDate(source)) {
+                LOGGER.debug("Discarding outdated spectrogram of " + source);
+                delete(file);
+                m_misses++;
+                return null;
+            }
+            /* The modification time of the file marks its last use */
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                LOGGER.debug("Could not touch cached spectrogram " + file);
+            }
+            m_hits++;
+            return spectrogram;
+        } catch (IOException ex) {
+            LOGGER.debug("Could not read cached spectrogram: " + ex.getMessage());
+            delete(file);
+            m_misses++;
+            return null;
+        }
+    }
+
+    /**
+     * Creates a writer for the spectrogram of the given audio file. The
+     * spectrogram is available via {@link #get(File, String)} once the writer
+     * has been committed.
+     *
+     * @param source the audio file
+     * @param configuration the description of the windows, e.g. size, overlap
+     * and sample rate
+     * @param sampleRate the sample rate of the windows
+     * @param windowSize the number of samples per window
+     * @param fftSize the size of the transform
+     * @return the writer or <code>null</code> if the cache isn't available
+     */
+    public synchronized MappedSpectrogram.Writer create(final File source, final String configuration,
+            final float sampleRate, final int windowSize, final int fftSize) {
+        final File file = getFile(source, configuration);
+        if (file == null) {
+            return null;
+        }
+        try {
+            final File dir = file.getParentFile();
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory " + dir);
+            }
+            evict(m_budget / 4 * 3);
+            return new MappedSpectrogram.Writer(file, source, sampleRate, windowSize, fftSize);
+        } catch (IOException ex) {
+            LOGGER.warn("The spectrogram cache is not available: " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Deletes all cached spectrograms.
+     */
+    public synchronized void clear() {
+        for (File file : listFiles()) {
+            delete(file);
+        }
+    }
+
+    /**
+     * @param budget the maximum number of bytes used by the cached spectrograms
+     */
+    public synchronized void setBudget(final long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + budget);
+        }
+        m_budget = budget;
+        evict(m_budget);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized String toString() {
+        return "SpectrogramCache[hits=" + m_hits + ", misses=" + m_misses + ", evictions=" + m_evictions
+                + ", budget=" + m_budget + "]";
+    }
+
+    /* Deletes the least recently used spectrograms until the remaining ones fit into the given size */
+    private void evict(final long size) {
+        final File[] files = listFiles();
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= size) {
+            return;
+        }
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(final File f1, final File f2) {
+                return Long.compare(f1.lastModified(), f2.lastModified());
+            }
+        });
+        for (int i = 0; i < files.length && total > size; i++) {
+            total -= files[i].length();
+            delete(files[i]);
+            m_evictions++;
+        }
+    }
+
+    private static File[] listFiles() {
+        final File[] files = getDirectory().listFiles(new FileFilter() {
+            @Override
+            public boolean accept(final File file) {
+                return file.isFile() && file.getName().endsWith(FILE_SUFFIX);
+            }
+        });
+        return files == null ? new File[0] : files;
+    }
+
+    private static void delete(final File file) {
+        /* Files still mapped can't be deleted on every platform */
+        if (!file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    private static File getFile(final File source, final String configuration) {
+        if (source == null || !source.isFile()) {
+            return null;
+        }
+        final String description = source.getAbsolutePath() + '\n' + configuration;
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(description.getBytes(StandardCharsets.UTF_8));
+            final StringBuilder name = new StringBuilder(2 * digest.length + FILE_SUFFIX.length());
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(getDirectory(), name.append(FILE_SUFFIX).toString());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    private static File getDirectory() {
+        final String dir = System.getProperty(DIRECTORY_PROPERTY);
+        if (dir != null && !dir.trim().isEmpty()) {
+            return new File(dir);
+        }
+        return new File(KNIMEConstants.getKNIMETempDir(), "audio-stft-cache");
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass statistics of a stream of vectors, computed per dimension. Mean,
+ * standard deviation, skewness and kurtosis are derived from the central moments
+ * updated with Welford's algorithm, quantiles are estimated with a {@link TDigest}
+ * if requested. The memory needed only depends on the dimension of the vectors,
+ * not on their number. Statistics of disjoint parts of a stream can be merged,
+ * so the parts can be processed in parallel.
+ *
+ * The results are the same as those of {@link MathUtils#mean(double[][])} and
+ * {@link MathUtils#standardDeviation(double[][])}, up to rounding. Vectors may
+ * have different lengths, each dimension is computed from the vectors having it.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class StreamingStatistics {
+
+    private long[] m_count = new long[0];
+
+    private double[] m_mean = new double[0];
+
+    /* Sums of the 2nd, 3rd and 4th powers of the differences from the current mean */
+    private double[] m_m2 = new double[0];
+    private double[] m_m3 = new double[0];
+    private double[] m_m4 = new double[0];
+
+    private double[] m_min = new double[0];
+    private double[] m_max = new double[0];
+
+    /* Quantile sketches, null if quantiles are not computed */
+    private TDigest[] m_sketches;
+
+    /* Number of vectors added, including empty ones */
+    private long m_nrOfValues;
+
+    /**
+     * Creates statistics without quantiles.
+     */
+    public StreamingStatistics() {
+        this(false);
+    }
+
+    /**
+     * @param computeQuantiles <code>true</code> if quantiles should be estimated,
+     * this needs considerably more memory per dimension
+     */
+    public StreamingStatistics(final boolean computeQuantiles) {
+        if (computeQuantiles) {
+            m_sketches = new TDigest[0];
+        }
+    }
+
+    /**
+     * Adds a vector to the statistics.
+     * @param values the vector to add, <code>null</code> is ignored
+     */
+    public void add(final double[] values) {
+        if (values == null) {
+            return;
+        }
+        m_nrOfValues++;
+        ensureDimension(values.length);
+        for (int i = 0; i < values.length; i++) {
+            final double value = values[i];
+            final long previous = m_count[i];
+            final long count = previous + 1;
+            final double delta = value - m_mean[i];
+            final double deltaN = delta / count;
+            final double deltaN2 = deltaN * deltaN;
+            final double term = delta * deltaN * previous;
+            m_mean[i] += deltaN;
+            m_m4[i] += term * deltaN2 * ((double)count * count - 3 * count + 3)
+                    + 6 * deltaN2 * m_m2[i] - 4 * deltaN * m_m3[i];
+            m_m3[i] += term * deltaN * (count - 2) - 3 * deltaN * m_m2[i];
+            m_m2[i] += term;
+            m_count[i] = count;
+            if (previous == 0) {
+                m_min[i] = value;
+                m_max[i] = value;
+            } else {
+                m_min[i] = Math.min(m_min[i], value);
+                m_max[i] = Math.max(m_max[i], value);
+            }
+            if (m_sketches != null) {
+                m_sketches[i].add(value);
+            }
+        }
+    }
+
+    /**
+     * Adds the statistics of another part of the stream to this statistics.
+     * @param other the statistics to merge into this one
+     */
+    public void merge(final StreamingStatistics other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Statistics to merge cannot be null");
+        }
+        m_nrOfValues += other.m_nrOfValues;
+        ensureDimension(other.m_count.length);
+        for (int i = 0; i < other.m_count.length; i++) {
+            final long countB = other.m_count[i];
+            if (countB == 0) {
+                continue;
+            }
+            if (m_sketches != null && other.m_sketches != null) {
+                m_sketches[i].merge(other.m_sketches[i]);
+            }
+            final long countA = m_count[i];
+            if (countA == 0) {
+                m_count[i] = countB;
+                m_mean[i] = other.m_mean[i];
+                m_m2[i] = other.m_m2[i];
+                m_m3[i] = other.m_m3[i];
+                m_m4[i] = other.m_m4[i];
+                m_min[i] = other.m_min[i];
+                m_max[i] = other.m_max[i];
+                continue;
+            }
+            final double na = countA;
+            final double nb = countB;
+            final double n = na + nb;
+            final double delta = other.m_mean[i] - m_mean[i];
+            final double delta2 = delta * delta;
+            final double m2a = m_m2[i];
+            final double m3a = m_m3[i];
+            m_mean[i] += delta * nb / n;
+            m_m2[i] += other.m_m2[i] + delta2 * (na * nb / n);
+            m_m3[i] += other.m_m3[i] + delta2 * delta * na * nb * (na - nb) / (n * n)
+                    + 3 * delta * (na * other.m_m2[i] - nb * m2a) / n;
+            m_m4[i] += other.m_m4[i]
+                    + delta2 * delta2 * na * nb * (na * na - na * nb + nb * nb) / (n * n * n)
+                    + 6 * delta2 * (na * na * other.m_m2[i] + nb * nb * m2a) / (n * n)
+                    + 4 * delta * (na * other.m_m3[i] - nb * m3a) / n;
+            m_min[i] = Math.min(m_min[i], other.m_min[i]);
+            m_max[i] = Math.max(m_max[i], other.m_max[i]);
+            m_count[i] = countA + countB;
+        }
+    }
+
+    /**
+     * @return the number of vectors added
+     */
+    public long getNumberOfValues() {
+        return m_nrOfValues;
+    }
+
+    /**
+     * @return the mean per dimension, <code>{0.0}</code> if no dimension has
+     * been added
+     */
+    public double[] getMean() {
+        if (m_mean.length == 0) {
+            return new double[]{0.0};
+        }
+        return m_mean.clone();
+    }
+
+    /**
+     * @return the sample standard deviation per dimension, 0 for dimensions
+     * with a single value, <code>{0.0}</code> if no dimension has been added
+     */
+    public double[] getStandardDeviation() {
+        if (m_m2.length == 0) {
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_m2.length];
+        for (int i = 0; i < result.length; i++) {
+            /* Vectors may have different lengths, so each dimension has its own count */
+            result[i] = m_count[i] > 1 ? Math.sqrt(m_m2[i] / (m_count[i] - 1)) : 0;
+        }
+        return result;
+    }
+
+    /**
+     * @return the minimum per dimension, <code>{0.0}</code> if no dimension has
+     * been added
+     */
+    public double[] getMinimum() {
+        if (m_min.length == 0) {
+            return new double[]{0.0};
+        }
+        return m_min.clone();
+    }
+
+    /**
+     * @return the maximum per dimension, <code>{0.0}</code> if no dimension has
+     * been added
+     */
+    public double[] getMaximum() {
+        if (m_max.length == 0) {
+            return new double[]{0.0};
+        }
+        return m_max.clone();
+    }
+
+    /**
+     * @return the skewness per dimension, 0 for dimensions without variance,
+     * <code>{0.0}</code> if no dimension has been added
+     */
+    public double[] getSkewness() {
+        if (m_m2.length == 0) {
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_m2.length];
+        for (int i = 0; i < result.length; i++) {
+            if (m_m2[i] > 0) {
+                result[i] = Math.sqrt(m_count[i]) * m_m3[i] / Math.pow(m_m2[i], 1.5);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the excess kurtosis per dimension, 0 for dimensions without
+     * variance, <code>{0.0}</code> if no dimension has been added
+     */
+    public double[] getKurtosis() {
+        if (m_m2.length == 0) {
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_m2.length];
+        for (int i = 0; i < result.length; i++) {
+            if (m_m2[i] > 0) {
+                result[i] = m_count[i] * m_m4[i] / (m_m2[i] * m_m2[i]) - 3;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the estimated quantile per dimension.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the estimated quantile per dimension, <code>{0.0}</code> if no
+     * dimension has been added
+     * @throws IllegalStateException if the statistics have been created without quantiles
+     */
+    public double[] getQuantile(final double q) {
+        if (m_sketches == null) {
+            throw new IllegalStateException("Quantiles are not computed");
+        }
+        if (m_sketches.length == 0) {
+            return new double[]{0.0};
+        }
+        final double[] result = new double[m_sketches.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = m_sketches[i].quantile(q);
+        }
+        return result;
+    }
+
+    private void ensureDimension(final int dimension) {
+        if (dimension > m_count.length) {
+            final int previous = m_count.length;
+            m_count = Arrays.copyOf(m_count, dimension);
+            m_mean = Arrays.copyOf(m_mean, dimension);
+            m_m2 = Arrays.copyOf(m_m2, dimension);
+            m_m3 = Arrays.copyOf(m_m3, dimension);
+            m_m4 = Arrays.copyOf(m_m4, dimension);
+            m_min = Arrays.copyOf(m_min, dimension);
+            m_max = Arrays.copyOf(m_max, dimension);
+            if (m_sketches != null) {
+                m_sketches = Arrays.copyOf(m_sketches, dimension);
+                for (int i = previous; i < dimension; i++) {
+                    m_sketches[i] = new TDigest();
+                }
+            }
+        }
+    }
+}
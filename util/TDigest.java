@@ -0,0 +1,340 @@
+/*
+ * ------------------------------------------------------------------------
+ *
+ *  Copyright by KNIME GmbH, Konstanz, Germany
+ *  Website: http://www.knime.org; Email: contact@knime.org
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License, Version 3, as
+ *  published by the Free Software Foundation.
+ *
+ *  This program is distributed in the hope that it will be useful, but
+ *  WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with this program; if not, see <http://www.gnu.org/licenses>.
+ *
+ *  Additional permission under GNU GPL version 3 section 7:
+ *
+ *  KNIME interoperates with ECLIPSE solely via ECLIPSE's plug-in APIs.
+ *  Hence, KNIME and ECLIPSE are both independent programs and are not
+ *  derived from each other. Should, however, the interpretation of the
+ *  GNU GPL Version 3 ("License") under any applicable laws result in
+ *  KNIME and ECLIPSE being a combined program, KNIME GMBH herewith grants
+ *  you the additional permission to use and propagate KNIME together with
+ *  ECLIPSE with only the license terms in place for ECLIPSE applying to
+ *  ECLIPSE and the GNU GPL Version 3 applying for KNIME, provided the
+ *  license terms of ECLIPSE themselves allow for the respective use and
+ *  propagation of ECLIPSE together with KNIME.
+ *
+ *  Additional permission relating to nodes for KNIME that extend the Node
+ *  Extension (and in particular that are based on subclasses of NodeModel,
+ *  NodeDialog, and NodeView) and that only interoperate with KNIME through
+ *  standard APIs ("Nodes"):
+ *  Nodes are deemed to be separate and independent programs and to not be
+ *  covered works.  Notwithstanding anything to the contrary in the
+ *  License, the License does not apply to Nodes, you are not required to
+ *  license Nodes under the License, and you are granted a license to
+ *  prepare and propagate Nodes, in each case even if such Nodes are
+ *  propagated with or for interoperation with KNIME.  The owner of a Node
+ *  may freely choose the license terms applicable to such Node, including
+ *  when such Node is propagated with or for interoperation with KNIME.
+ * ---------------------------------------------------------------------
+ *
+ * History
+ *   Oct 18, 2026 (budiyanto): created
+ */
+package org.knime.base.node.audio3.util;
+
+import java.util.Arrays;
+
+/**
+ * Streaming quantile sketch (merging t-digest). Values are collected in a buffer
+ * that is merged into a bounded number of weighted centroids whenever it is full.
+ * The centroids are small near the tails and larger in the middle of the
+ * distribution, so extreme quantiles stay accurate. The memory needed only
+ * depends on the compression, not on the number of values, and sketches of
+ * disjoint parts of a stream can be merged.
+ *
+ * @author Budi Yanto, KNIME.com
+ */
+public class TDigest {
+
+    /** The default compression, i.e. the approximate maximum number of centroids. */
+    public static final double DEFAULT_COMPRESSION = 100;
+
+    /* Length of the runs of the buffer sorted by insertion before they are merged */
+    private static final int SORTED_RUN_LENGTH = 16;
+
+    private final double m_compression;
+
+    /* Centroids sorted by their means */
+    private double[] m_means;
+    private double[] m_weights;
+    private int m_size;
+
+    /* Values not yet merged into the centroids */
+    private final double[] m_bufferMeans;
+    private final double[] m_bufferWeights;
+    private int m_bufferSize;
+
+    /* Reused by compress for sorting the buffer and for merging it with the centroids */
+    private double[] m_scratchMeans;
+    private double[] m_scratchWeights;
+
+    private double m_totalWeight;
+
+    private double m_min = Double.POSITIVE_INFINITY;
+
+    private double m_max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Creates a sketch with the {@link #DEFAULT_COMPRESSION}.
+     */
+    public TDigest() {
+        this(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param compression the approximate maximum number of centroids, higher
+     * values are more accurate but need more memory
+     */
+    public TDigest(final double compression) {
+        if (compression < 10) {
+            throw new IllegalArgumentException("Compression must be at least 10");
+        }
+        m_compression = compression;
+        final int capacity = (int)Math.ceil(compression) + 1;
+        m_means = new double[capacity];
+        m_weights = new double[capacity];
+        m_bufferMeans = new double[4 * capacity];
+        m_bufferWeights = new double[4 * capacity];
+        m_scratchMeans = new double[5 * capacity];
+        m_scratchWeights = new double[5 * capacity];
+    }
+
+    /**
+     * Adds a value, NaN is ignored.
+     * @param value the value to add
+     */
+    public void add(final double value) {
+        add(value, 1);
+    }
+
+    private void add(final double mean, final double weight) {
+        if (Double.isNaN(mean)) {
+            return;
+        }
+        if (m_bufferSize == m_bufferMeans.length) {
+            compress();
+        }
+        m_bufferMeans[m_bufferSize] = mean;
+        m_bufferWeights[m_bufferSize] = weight;
+        m_bufferSize++;
+        m_totalWeight += weight;
+        m_min = Math.min(m_min, mean);
+        m_max = Math.max(m_max, mean);
+    }
+
+    /**
+     * Adds the values of another sketch to this sketch.
+     * @param other the sketch to merge into this one
+     */
+    public void merge(final TDigest other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Sketch to merge cannot be null");
+        }
+        other.compress();
+        for (int i = 0; i < other.m_size; i++) {
+            add(other.m_means[i], other.m_weights[i]);
+        }
+        /* Keep the exact extremes, the centroids of the other sketch may hide them */
+        if (other.m_totalWeight > 0) {
+            m_min = Math.min(m_min, other.m_min);
+            m_max = Math.max(m_max, other.m_max);
+        }
+    }
+
+    /**
+     * @return the number of values added
+     */
+    public double getWeight() {
+        return m_totalWeight;
+    }
+
+    /**
+     * Returns an estimate of the given quantile.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the estimated quantile or NaN if no value has been added
+     */
+    public double quantile(final double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        compress();
+        if (m_size == 0) {
+            return Double.NaN;
+        }
+        if (m_size == 1) {
+            return m_means[0];
+        }
+        final double index = q * m_totalWeight;
+        if (index <= m_weights[0] / 2) {
+            /* Between the minimum and the center of the first centroid */
+            return interpolate(m_min, m_means[0], index / (m_weights[0] / 2));
+        }
+        double cumulative = 0;
+        for (int i = 0; i < m_size - 1; i++) {
+            final double left = cumulative + m_weights[i] / 2;
+            final double right = cumulative + m_weights[i] + m_weights[i + 1] / 2;
+            if (index <= right) {
+                return interpolate(m_means[i], m_means[i + 1], (index - left) / (right - left));
+            }
+            cumulative += m_weights[i];
+        }
+        /* Between the center of the last centroid and the maximum */
+        final double last = m_weights[m_size - 1] / 2;
+        final double left = m_totalWeight - last;
+        return interpolate(m_means[m_size - 1], m_max, Math.min(1, (index - left) / last));
+    }
+
+    private static double interpolate(final double from, final double to, final double fraction) {
+        return from + fraction * (to - from);
+    }
+
+    /* Merges the buffer into the centroids */
+    private void compress() {
+        if (m_bufferSize == 0) {
+            return;
+        }
+        final int n = m_size + m_bufferSize;
+        if (m_scratchMeans.length < n) {
+            m_scratchMeans = new double[n];
+            m_scratchWeights = new double[n];
+        }
+        sortBuffer();
+        final double[] means = m_scratchMeans;
+        final double[] weights = m_scratchWeights;
+        /* Both the centroids and the buffer are sorted, merge them */
+        int c = 0;
+        int b = 0;
+        for (int i = 0; i < n; i++) {
+            if (b >= m_bufferSize || (c < m_size && m_means[c] <= m_bufferMeans[b])) {
+                means[i] = m_means[c];
+                weights[i] = m_weights[c++];
+            } else {
+                means[i] = m_bufferMeans[b];
+                weights[i] = m_bufferWeights[b++];
+            }
+        }
+        m_bufferSize = 0;
+
+        /* Greedily combine neighbours as long as the centroid stays within its size limit */
+        int size = 0;
+        double mergedWeight = 0;
+        double limit = m_totalWeight * kToQuantile(quantileToK(0) + 1);
+        double mean = means[0];
+        double weight = weights[0];
+        for (int i = 1; i < n; i++) {
+            if (mergedWeight + weight + weights[i] <= limit) {
+                weight += weights[i];
+                mean += (means[i] - mean) * weights[i] / weight;
+            } else {
+                size = store(size, mean, weight);
+                mergedWeight += weight;
+                limit = m_totalWeight * kToQuantile(quantileToK(mergedWeight / m_totalWeight) + 1);
+                mean = means[i];
+                weight = weights[i];
+            }
+        }
+        m_size = store(size, mean, weight);
+    }
+
+    private int store(final int index, final double mean, final double weight) {
+        if (index == m_means.length) {
+            m_means = Arrays.copyOf(m_means, 2 * index);
+            m_weights = Arrays.copyOf(m_weights, 2 * index);
+        }
+        m_means[index] = mean;
+        m_weights[index] = weight;
+        return index + 1;
+    }
+
+    /*
+     * Sorts the parallel buffer arrays by their means with a stable merge sort,
+     * short runs are sorted by insertion first. The runs are merged back and
+     * forth between the buffer and the scratch arrays without allocating.
+     */
+    private void sortBuffer() {
+        final int n = m_bufferSize;
+        for (int from = 0; from < n; from += SORTED_RUN_LENGTH) {
+            insertionSort(m_bufferMeans, m_bufferWeights, from, Math.min(n, from + SORTED_RUN_LENGTH));
+        }
+        double[] srcMeans = m_bufferMeans;
+        double[] srcWeights = m_bufferWeights;
+        double[] destMeans = m_scratchMeans;
+        double[] destWeights = m_scratchWeights;
+        for (int width = SORTED_RUN_LENGTH; width < n; width *= 2) {
+            for (int from = 0; from < n; from += 2 * width) {
+                mergeRuns(srcMeans, srcWeights, from, Math.min(n, from + width), Math.min(n, from + 2 * width),
+                    destMeans, destWeights);
+            }
+            final double[] means = srcMeans;
+            final double[] weights = srcWeights;
+            srcMeans = destMeans;
+            srcWeights = destWeights;
+            destMeans = means;
+            destWeights = weights;
+        }
+        if (srcMeans != m_bufferMeans) {
+            /* The scratch arrays receive the merged centroids */
+            System.arraycopy(srcMeans, 0, m_bufferMeans, 0, n);
+            System.arraycopy(srcWeights, 0, m_bufferWeights, 0, n);
+        }
+    }
+
+    private static void insertionSort(final double[] means, final double[] weights, final int from,
+            final int to) {
+        for (int i = from + 1; i < to; i++) {
+            final double mean = means[i];
+            final double weight = weights[i];
+            int j = i - 1;
+            while (j >= from && Double.compare(means[j], mean) > 0) {
+                means[j + 1] = means[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            means[j + 1] = mean;
+            weights[j + 1] = weight;
+        }
+    }
+
+    /* Merges the sorted runs [from, mid) and [mid, to) into the same range of the destination */
+    private static void mergeRuns(final double[] means, final double[] weights, final int from, final int mid,
+            final int to, final double[] destMeans, final double[] destWeights) {
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && Double.compare(means[left], means[right]) <= 0)) {
+                destMeans[i] = means[left];
+                destWeights[i] = weights[left++];
+            } else {
+                destMeans[i] = means[right];
+                destWeights[i] = weights[right++];
+            }
+        }
+    }
+
+    /* Scale function k(q) = compression / (2 pi) * asin(2q - 1) and its inverse */
+    private double quantileToK(final double q) {
+        return m_compression / (2 * Math.PI) * Math.asin(2 * Math.min(1, Math.max(0, q)) - 1);
+    }
+
+    private double kToQuantile(final double k) {
+        final double angle = Math.min(Math.PI / 2, 2 * Math.PI * k / m_compression);
+        return (Math.sin(angle) + 1) / 2;
+    }
+}